@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.benchmark;
+
+import com.beirtipol.dates.ConverterKey;
+import com.beirtipol.dates.ConverterRegistry;
+import com.beirtipol.dates.ThreeTenDates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Measures every pair registered by the providers on the classpath, which here are those of the core, excel, joda and
+ * sample-extension modules. Each pair is converted through {@link ConverterRegistry#from(Object, Class)}, or the
+ * matching epoch method if 'from' or 'to' is primitive, and by calling the registered converter directly. The
+ * difference between the two is the cost of the lookup. The Spring {@link com.beirtipol.dates.Converters} shares its
+ * lookup with {@link ConverterRegistry}, so it is not measured separately.
+ * <p>
+ * Every pair takes around 16 seconds, so to run all of them, or only those matching a regular expression:
+ * <pre>
+ * mvn -pl date-converters-benchmarks -am package -DskipTests
+ * java -cp date-converters-benchmarks/target/benchmarks.jar com.beirtipol.dates.benchmark.AllPairsBenchmark [regex]
+ * </pre>
+ * This adds the gc profiler, whose 'gc.alloc.rate.norm' shows the bytes allocated per conversion. A single pair can
+ * also be run with
+ * {@code java -jar benchmarks.jar AllPairsBenchmark -prof gc -p pair=java.util.Date->java.time.LocalDate}.
+ *
+ * @author beirtipol@gmail.com
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AllPairsBenchmark {
+    /**
+     * 2019-09-01T01:02:03.456Z
+     */
+    private static final long   EPOCH_MILLI = 1567299723456L;
+    private static final int    EPOCH_DAY   = (int) Math.floorDiv(EPOCH_MILLI, ThreeTenDates.MILLIS_PER_DAY);
+    private static final String ISO_TEXT    = "2019-09-01T01:02:03.456Z";
+    private static final String SEPARATOR   = "->";
+
+    /**
+     * 'from' and 'to' class names, separated by {@link #SEPARATOR}
+     */
+    @Param("java.util.Date->java.time.LocalDate")
+    public String pair;
+
+    private ConverterRegistry registry;
+    private Class<?>          to;
+    private Shape             shape;
+    private Object            input;
+    private Object            converter;
+
+    @Setup
+    public void setUp() throws ClassNotFoundException {
+        registry = ConverterRegistry.load();
+        String[] names = pair.split(SEPARATOR);
+        Class<?> from = forName(names[0]);
+        to        = forName(names[1]);
+        shape     = Shape.of(from, to);
+        input     = input(registry, from);
+        converter = registry.getConverter(from, to);
+        if (input == null) {
+            throw new IllegalArgumentException(String.format("Cannot make an instance of %s to convert", from));
+        }
+    }
+
+    @Benchmark
+    public void registry(Blackhole blackhole) {
+        switch (shape) {
+            case FROM_EPOCH_MILLI:
+                blackhole.consume(registry.fromEpochMilli(EPOCH_MILLI, to));
+                break;
+            case FROM_EPOCH_DAY:
+                blackhole.consume(registry.fromEpochDay(EPOCH_DAY, to));
+                break;
+            case TO_EPOCH_MILLI:
+                blackhole.consume(registry.toEpochMilli(input));
+                break;
+            case TO_EPOCH_DAY:
+                blackhole.consume(registry.toEpochDay(input));
+                break;
+            case FROM_DOUBLE:
+                blackhole.consume(registry.fromDouble((Double) input, to));
+                break;
+            case TO_DOUBLE:
+                blackhole.consume(registry.toDouble(input));
+                break;
+            default:
+                blackhole.consume(registry.from(input, to));
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void direct(Blackhole blackhole) {
+        switch (shape) {
+            case FROM_EPOCH_MILLI:
+                blackhole.consume(((LongFunction) converter).apply(EPOCH_MILLI));
+                break;
+            case FROM_EPOCH_DAY:
+                blackhole.consume(((IntFunction) converter).apply(EPOCH_DAY));
+                break;
+            case TO_EPOCH_MILLI:
+                blackhole.consume(((ToLongFunction) converter).applyAsLong(input));
+                break;
+            case TO_EPOCH_DAY:
+                blackhole.consume(((ToIntFunction) converter).applyAsInt(input));
+                break;
+            case FROM_DOUBLE:
+                blackhole.consume(((DoubleFunction) converter).apply((Double) input));
+                break;
+            case TO_DOUBLE:
+                blackhole.consume(((ToDoubleFunction) converter).applyAsDouble(input));
+                break;
+            default:
+                blackhole.consume(((Function) converter).apply(input));
+        }
+    }
+
+    /**
+     * @return every registered pair which there is an input for, as {@link #pair} values, sorted
+     */
+    static List<String> pairs(ConverterRegistry registry) {
+        return registry.getRegisteredPairs().stream()
+                .filter(key -> input(registry, key.getFrom()) != null)
+                .map(key -> key.getFrom().getName() + SEPARATOR + key.getTo().getName())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the instant 2019-09-01T01:02:03.456Z as a 'from', or null if there is no way to make one from epoch
+     * milliseconds or epoch days. When there is no converter to 'from' itself, one to a superclass which happens to
+     * create a 'from' is used, e.g. {@link java.util.Calendar} for {@link java.util.GregorianCalendar}. Text is always
+     * the full ISO-8601 instant, so parsing is measured the same way whichever chain would have written it
+     */
+    static Object input(ConverterRegistry registry, Class<?> from) {
+        if (from == long.class) {
+            return EPOCH_MILLI;
+        }
+        if (from == int.class) {
+            return EPOCH_DAY;
+        }
+        if (from == String.class || from == CharSequence.class) {
+            return ISO_TEXT;
+        }
+        if (from == double.class) {
+            // Whatever a double means to the converters registered for it, e.g. an Excel serial date
+            for (ConverterKey key : registry.getRegisteredPairs()) {
+                Object object = key.getTo() == double.class && !key.getFrom().isPrimitive() ? input(registry, key.getFrom()) : null;
+                if (object != null) {
+                    return registry.toDouble(object);
+                }
+            }
+            return null;
+        }
+        try {
+            return registry.fromEpochMilli(EPOCH_MILLI, from);
+        } catch (IllegalArgumentException e) {
+            try {
+                return registry.fromEpochDay(EPOCH_DAY, from);
+            } catch (IllegalArgumentException ignored) {
+                // Fall through to the superclasses
+            }
+        }
+        for (ConverterKey key : registry.getRegisteredPairs()) {
+            if (key.getFrom() == long.class && key.getTo() != from && key.getTo().isAssignableFrom(from)) {
+                Object input = registry.fromEpochMilli(EPOCH_MILLI, key.getTo());
+                if (from.isInstance(input)) {
+                    return input;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Class<?> forName(String name) throws ClassNotFoundException {
+        if (name.equals(long.class.getName())) {
+            return long.class;
+        }
+        if (name.equals(int.class.getName())) {
+            return int.class;
+        }
+        if (name.equals(double.class.getName())) {
+            return double.class;
+        }
+        return Class.forName(name);
+    }
+
+    /**
+     * Which method of {@link ConverterRegistry}, and which functional interface, a pair goes through
+     */
+    private enum Shape {
+        OBJECT, FROM_EPOCH_MILLI, FROM_EPOCH_DAY, FROM_DOUBLE, TO_EPOCH_MILLI, TO_EPOCH_DAY, TO_DOUBLE;
+
+        static Shape of(Class<?> from, Class<?> to) {
+            if (from == long.class) {
+                return FROM_EPOCH_MILLI;
+            }
+            if (from == int.class) {
+                return FROM_EPOCH_DAY;
+            }
+            if (from == double.class) {
+                return FROM_DOUBLE;
+            }
+            if (to == long.class) {
+                return TO_EPOCH_MILLI;
+            }
+            if (to == int.class) {
+                return TO_EPOCH_DAY;
+            }
+            if (to == double.class) {
+                return TO_DOUBLE;
+            }
+            return OBJECT;
+        }
+    }
+
+    /**
+     * @param args optionally, a regular expression to only run the pairs which it is found in
+     */
+    public static void main(String[] args) throws RunnerException {
+        Pattern filter = Pattern.compile(args.length > 0 ? args[0] : "");
+        String[] pairs = pairs(ConverterRegistry.load()).stream().filter(pair -> filter.matcher(pair).find()).toArray(String[]::new);
+        new Runner(new OptionsBuilder()
+                .include(AllPairsBenchmark.class.getSimpleName())
+                .param("pair", pairs)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
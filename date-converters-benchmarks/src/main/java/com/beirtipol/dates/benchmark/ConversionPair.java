@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.benchmark;
+
+import com.beirtipol.dates.ThreeTenDates;
+import com.beirtipol.dates.UtilDates;
+import com.beirtipol.dates.XMLDates;
+import com.beirtipol.dates.converter.CalendarConverters;
+import com.beirtipol.dates.converter.LocalDateConverters;
+import com.beirtipol.dates.converter.LocalDateTimeConverters;
+import com.beirtipol.dates.converter.UtilDateConverters;
+import com.beirtipol.dates.converter.XMLDateConverters;
+import com.beirtipol.dates.converter.ZonedDateTimeConverters;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * The conversions which used to detour through a {@link Calendar}, each with an input built from epoch milliseconds,
+ * the old implementation from {@link LegacyConverters} and the current one from the core converters.
+ *
+ * @author beirtipol@gmail.com
+ */
+public enum ConversionPair {
+    XMLDateToZonedDateTime(XMLDates::ofEpochMilli, LegacyConverters::xmlDateToZonedDateTime, new ZonedDateTimeConverters().XMLDateToZonedDateTime()),
+    CalendarToZonedDateTime(UtilDates::newCalendar, LegacyConverters::calendarToZonedDateTime, new ZonedDateTimeConverters().CalendarToZonedDateTime()),
+    UtilDateToZonedDateTime(Date::new, LegacyConverters::utilDateToZonedDateTime, new ZonedDateTimeConverters().UtilDateToZonedDateTime()),
+    ZonedDateTimeToCalendar(ThreeTenDates::toZonedDateTime, LegacyConverters::zonedDateTimeToCalendar, new CalendarConverters().ZonedDateTimeToCalendar()),
+    LocalDateTimeToCalendar(ThreeTenDates::toLocalDateTime, LegacyConverters::localDateTimeToCalendar, new CalendarConverters().LocalDateTimeToCalendar()),
+    XMLDateToCalendar(XMLDates::ofEpochMilli, LegacyConverters::xmlDateToCalendar, new CalendarConverters().XMLGregorianCalendarToCalendar()),
+    ZonedDateTimeToUtilDate(ThreeTenDates::toZonedDateTime, LegacyConverters::zonedDateTimeToUtilDate, new UtilDateConverters().ZonedDateTimeToUtilDate()),
+    LocalDateTimeToUtilDate(ThreeTenDates::toLocalDateTime, LegacyConverters::localDateTimeToUtilDate, new UtilDateConverters().LocalDateTimeToUtilDate()),
+    XMLDateToUtilDate(XMLDates::ofEpochMilli, LegacyConverters::xmlDateToUtilDate, new UtilDateConverters().XMLDateToUtilDate()),
+    ZonedDateTimeToSQLTimestamp(ThreeTenDates::toZonedDateTime, LegacyConverters::zonedDateTimeToSQLTimestamp, new UtilDateConverters().ZonedDateTimeToSQLTimestamp()),
+    UtilDateToLocalDate(Date::new, LegacyConverters::utilDateToLocalDate, new LocalDateConverters().UtilDateToLocalDate()),
+    UtilDateToLocalDateTime(Date::new, LegacyConverters::utilDateToLocalDateTime, new LocalDateTimeConverters().UtilDateToLocalDateTime()),
+    XMLDateToLocalDate(XMLDates::ofEpochMilli, LegacyConverters::xmlDateToLocalDate, new LocalDateConverters().XMLDateToLocalDate()),
+    XMLDateToLocalDateTime(XMLDates::ofEpochMilli, LegacyConverters::xmlDateToLocalDateTime, new LocalDateTimeConverters().XMLDateToLocalDateTime()),
+    ZonedDateTimeToXMLDate(ThreeTenDates::toZonedDateTime, LegacyConverters::zonedDateTimeToXMLDate, new XMLDateConverters().ZonedDateTimeToXMLGregorianCalendar()),
+    LocalDateTimeToXMLDate(ThreeTenDates::toLocalDateTime, LegacyConverters::localDateTimeToXMLDate, new XMLDateConverters().LocalDateTimeToXMLGregorianCalendar()),
+    UtilDateToXMLDate(Date::new, LegacyConverters::utilDateToXMLDate, new XMLDateConverters().UtilDateToXMLGregorianCalendar());
+
+    private final LongFunction<?> input;
+    private final Function legacy;
+    private final Function direct;
+
+    <F> ConversionPair(LongFunction<F> input, Function<F, ?> legacy, Function<F, ?> direct) {
+        this.input = input;
+        this.legacy = legacy;
+        this.direct = direct;
+    }
+
+    public Object input(long epochMilli) {
+        return input.apply(epochMilli);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Object legacy(Object from) {
+        return legacy.apply(from);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Object direct(Object from) {
+        return direct.apply(from);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.benchmark;
+
+import com.beirtipol.dates.ThreeTenDates;
+import com.beirtipol.dates.UtilDates;
+import com.beirtipol.dates.XMLDates;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+/**
+ * The core conversions as they were before they moved to epoch arithmetic, going through a {@link Calendar} or a
+ * {@link GregorianCalendar#toZonedDateTime()} on the way. Kept here only as the baseline for
+ * {@link LegacyVsDirectBenchmark} and to check that the direct versions give the same answers.
+ *
+ * @author beirtipol@gmail.com
+ */
+public class LegacyConverters {
+
+    public static ZonedDateTime xmlDateToZonedDateTime(XMLGregorianCalendar from) {
+        Calendar result = GregorianCalendar.getInstance(UtilDates.UTC);
+        result.setTimeInMillis(from.toGregorianCalendar().getTimeInMillis());
+        return ((GregorianCalendar) result).toZonedDateTime();
+    }
+
+    public static ZonedDateTime calendarToZonedDateTime(Calendar from) {
+        return from.getTime().toInstant().atZone(ThreeTenDates.UTC);
+    }
+
+    public static ZonedDateTime utilDateToZonedDateTime(Date from) {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.setTime(from);
+        return calendarToZonedDateTime(cal);
+    }
+
+    public static Calendar zonedDateTimeToCalendar(ZonedDateTime from) {
+        Calendar result = GregorianCalendar.getInstance(UtilDates.UTC);
+        result.setTimeInMillis(from.toInstant().toEpochMilli());
+        return result;
+    }
+
+    public static Calendar localDateTimeToCalendar(LocalDateTime from) {
+        return zonedDateTimeToCalendar(from.atZone(ThreeTenDates.UTC));
+    }
+
+    public static Calendar xmlDateToCalendar(XMLGregorianCalendar from) {
+        Calendar result = GregorianCalendar.getInstance(UtilDates.UTC);
+        result.setTimeInMillis(from.toGregorianCalendar().getTimeInMillis());
+        return result;
+    }
+
+    public static Date zonedDateTimeToUtilDate(ZonedDateTime from) {
+        return Date.from(zonedDateTimeToCalendar(from).toInstant());
+    }
+
+    public static Date localDateTimeToUtilDate(LocalDateTime from) {
+        return zonedDateTimeToUtilDate(from.atZone(ThreeTenDates.UTC));
+    }
+
+    public static Date xmlDateToUtilDate(XMLGregorianCalendar from) {
+        return xmlDateToCalendar(from).getTime();
+    }
+
+    public static Timestamp zonedDateTimeToSQLTimestamp(ZonedDateTime from) {
+        return Timestamp.from(zonedDateTimeToUtilDate(from).toInstant());
+    }
+
+    public static LocalDate utilDateToLocalDate(Date from) {
+        return utilDateToZonedDateTime(from).toLocalDate();
+    }
+
+    public static LocalDateTime utilDateToLocalDateTime(Date from) {
+        return utilDateToZonedDateTime(from).toLocalDateTime();
+    }
+
+    public static LocalDate xmlDateToLocalDate(XMLGregorianCalendar from) {
+        return from.toGregorianCalendar().toZonedDateTime().toLocalDate();
+    }
+
+    public static LocalDateTime xmlDateToLocalDateTime(XMLGregorianCalendar from) {
+        return from.toGregorianCalendar().toZonedDateTime().toLocalDateTime();
+    }
+
+    public static XMLGregorianCalendar zonedDateTimeToXMLDate(ZonedDateTime from) {
+        return XMLDates.datatypeFactory().newXMLGregorianCalendar(GregorianCalendar.from(from));
+    }
+
+    public static XMLGregorianCalendar localDateTimeToXMLDate(LocalDateTime from) {
+        return zonedDateTimeToXMLDate(from.atZone(ThreeTenDates.UTC));
+    }
+
+    public static XMLGregorianCalendar utilDateToXMLDate(Date from) {
+        return XMLDates.datatypeFactory().newXMLGregorianCalendar(GregorianCalendar.from(utilDateToZonedDateTime(from)));
+    }
+}
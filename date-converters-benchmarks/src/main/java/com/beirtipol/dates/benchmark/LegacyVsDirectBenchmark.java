@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares each {@link ConversionPair} before and after the Calendar detours were removed. Run with
+ * <pre>
+ * mvn -pl date-converters-benchmarks -am package -DskipTests
+ * java -jar date-converters-benchmarks/target/benchmarks.jar LegacyVsDirectBenchmark -prof gc
+ * </pre>
+ * The gc profiler's 'gc.alloc.rate.norm' shows the bytes allocated per conversion.
+ *
+ * @author beirtipol@gmail.com
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LegacyVsDirectBenchmark {
+    /**
+     * 2019-09-01T01:02:03.456Z
+     */
+    private static final long EPOCH_MILLI = 1567299723456L;
+
+    @Param
+    public ConversionPair pair;
+
+    private Object input;
+
+    @Setup
+    public void setUp() {
+        input = pair.input(EPOCH_MILLI);
+    }
+
+    @Benchmark
+    public Object legacy() {
+        return pair.legacy(input);
+    }
+
+    @Benchmark
+    public Object direct() {
+        return pair.direct(input);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LegacyVsDirectBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
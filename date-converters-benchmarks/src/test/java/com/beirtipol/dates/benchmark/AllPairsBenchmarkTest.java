@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.benchmark;
+
+import com.beirtipol.dates.ConverterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * Checks that every pair from every module can be set up and run by {@link AllPairsBenchmark}, so that a long run is
+ * not cut short by one broken pair.
+ */
+public class AllPairsBenchmarkTest {
+
+    @Test
+    public void everyPairRuns() throws ClassNotFoundException {
+        ConverterRegistry registry = ConverterRegistry.load();
+        List<String> pairs = AllPairsBenchmark.pairs(registry);
+        Assertions.assertEquals(registry.getRegisteredPairs().size(), pairs.size());
+        Assertions.assertTrue(pairs.contains("java.lang.Double->java.time.LocalDate"), "excel");
+        Assertions.assertTrue(pairs.contains("double->java.time.LocalDate"), "excel");
+        Assertions.assertTrue(pairs.contains("org.joda.time.LocalDate->java.time.LocalDate"), "joda");
+        Assertions.assertTrue(pairs.contains("com.mydate.dates.MyDate->java.time.LocalDate"), "sample-extension");
+
+        Blackhole blackhole = new Blackhole("Today's password is swordfish. I understand instantiating Blackholes directly is dangerous.");
+        AllPairsBenchmark benchmark = new AllPairsBenchmark();
+        for (String pair : pairs) {
+            benchmark.pair = pair;
+            benchmark.setUp();
+            benchmark.registry(blackhole);
+            benchmark.direct(blackhole);
+        }
+        blackhole.evaporate("Yes, I am Stephen Hawking, and know a thing or two about black holes.");
+    }
+}
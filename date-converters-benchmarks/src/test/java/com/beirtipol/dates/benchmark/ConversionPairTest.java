@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Checks that the direct conversions give the same results as the legacy ones they replaced, whatever the default
+ * timezone. Instants are kept to 1900-2100 as the legacy versions switch to the Julian calendar before 1582.
+ */
+public class ConversionPairTest {
+    private static final long FROM = -2208988800000L;
+    private static final long TO = 4102444800000L;
+    private static final String[] ZONES = {"UTC", "Europe/London", "America/New_York", "Asia/Kolkata", "Australia/Lord_Howe"};
+
+    private final TimeZone defaultZone = TimeZone.getDefault();
+
+    @AfterEach
+    public void resetZone() {
+        TimeZone.setDefault(defaultZone);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ConversionPair.class)
+    public void sameAsLegacy(ConversionPair pair) {
+        Random random = new Random(pair.ordinal());
+        for (String zone : ZONES) {
+            TimeZone.setDefault(TimeZone.getTimeZone(zone));
+            for (int i = 0; i < 1000; i++) {
+                long epochMilli = FROM + (long) (random.nextDouble() * (TO - FROM));
+                Object input = pair.input(epochMilli);
+                Assertions.assertEquals(pair.legacy(input), pair.direct(input), () -> zone + " " + input);
+            }
+        }
+    }
+}
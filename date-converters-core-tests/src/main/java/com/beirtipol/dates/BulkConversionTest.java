@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith({SpringExtension.class})
+@SpringBootTest
+public class BulkConversionTest {
+
+    @Autowired
+    protected Converters converters;
+
+    private Object[] mixedInput() {
+        Date date = UtilDates.newUtilDate(2019, 9, 1, 1, 2, 3, 456, UtilDates.UTC);
+        return new Object[]{
+                date,
+                new Timestamp(date.getTime()),
+                new Timestamp(date.getTime() + 1000),
+                null,
+                LocalDate.of(2019, 9, 1),
+                LocalDateTime.of(2019, 9, 1, 1, 2, 3),
+                null,
+                ZonedDateTime.of(2019, 9, 1, 1, 2, 3, 0, ThreeTenDates.UTC),
+                GregorianCalendar.getInstance(UtilDates.UTC)
+        };
+    }
+
+    private List<LocalDate> expected(Object[] input) {
+        List<LocalDate> expected = new ArrayList<>();
+        for (Object value : input) {
+            expected.add(converters.from(value, LocalDate.class));
+        }
+        return expected;
+    }
+
+    @Test
+    public void array() {
+        Object[] input = mixedInput();
+        Assertions.assertEquals(expected(input), converters.convertAll(input, LocalDate.class));
+    }
+
+    @Test
+    public void list() {
+        Object[] input = mixedInput();
+        Assertions.assertEquals(expected(input), converters.convertAll(Arrays.asList(input), LocalDate.class));
+    }
+
+    @Test
+    public void iterable() {
+        Object[] input = mixedInput();
+        Iterable<Object> iterable = () -> Arrays.asList(input).iterator();
+        Assertions.assertEquals(expected(input), converters.convertAll(iterable, LocalDate.class));
+    }
+
+    @Test
+    public void destination() {
+        Object[] input = mixedInput();
+        LocalDate[] destination = new LocalDate[input.length + 1];
+        Assertions.assertSame(destination, converters.convertAll(input, LocalDate.class, destination));
+        Assertions.assertEquals(expected(input), Arrays.asList(destination).subList(0, input.length));
+    }
+
+    @Test
+    public void destinationTooShort() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> converters.convertAll(mixedInput(), LocalDate.class, new LocalDate[1]));
+    }
+
+    @Test
+    public void stream() {
+        Object[] input = mixedInput();
+        Assertions.assertEquals(expected(input), converters.stream(Arrays.stream(input), LocalDate.class).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void parallelStream() {
+        Object[] input = new Object[10_000];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = mixedInput()[i % 9];
+        }
+        Assertions.assertEquals(expected(input), converters.stream(Arrays.stream(input).parallel(), LocalDate.class).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void spliteratorKeepsSizing() {
+        Spliterator<LocalDate> spliterator = converters.spliterator(Arrays.spliterator(mixedInput()), LocalDate.class);
+        Assertions.assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        Assertions.assertEquals(mixedInput().length, spliterator.getExactSizeIfKnown());
+    }
+
+    @Test
+    public void streamIsLazy() {
+        Object[] input = {LocalDate.of(2019, 9, 1), 1};
+        Stream<LocalDate> stream = converters.stream(Arrays.stream(input), LocalDate.class);
+        Assertions.assertEquals(LocalDate.of(2019, 9, 1), stream.findFirst().orElseThrow());
+    }
+
+    @Test
+    public void missingConverter() {
+        Object[] input = {LocalDate.of(2019, 9, 1), 1};
+        Assertions.assertThrows(NoSuchBeanDefinitionException.class, () -> converters.convertAll(input, LocalDate.class));
+    }
+}
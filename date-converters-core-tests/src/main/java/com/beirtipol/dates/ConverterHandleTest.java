@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.function.Function;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith({SpringExtension.class})
+@SpringBootTest
+public class ConverterHandleTest {
+
+    @Autowired
+    protected Converters converters;
+
+    @Test
+    public void sameResultAsFrom() {
+        ConverterHandle<ZonedDateTime, Date> handle = converters.handle(ZonedDateTime.class, Date.class);
+        ZonedDateTime zdt = ZonedDateTime.of(2019, 9, 1, 1, 2, 3, 456000000, ThreeTenDates.UTC);
+        Assertions.assertEquals(converters.from(zdt, Date.class), handle.apply(zdt));
+    }
+
+    @Test
+    public void nullIsNull() {
+        Assertions.assertNull(converters.handle(LocalDate.class, Timestamp.class).apply(null));
+    }
+
+    @Test
+    public void followsLaterRegistrations() {
+        ConverterRegistry registry = new ConverterRegistry();
+        registry.register(Integer.class, String.class, (Function<Integer, String>) from -> "a" + from);
+        ConverterHandle<Integer, String> handle = registry.handle(Integer.class, String.class);
+        Assertions.assertEquals("a1", handle.apply(1));
+        registry.register(Integer.class, String.class, (Function<Integer, String>) from -> "b" + from);
+        Assertions.assertEquals("b1", handle.apply(1));
+        Assertions.assertEquals(registry.from(1, String.class), handle.apply(1));
+    }
+
+    @Test
+    public void missingConverterFailsOnUse() {
+        ConverterHandle<Integer, LocalDate> handle = converters.handle(Integer.class, LocalDate.class);
+        Assertions.assertThrows(NoSuchBeanDefinitionException.class, () -> handle.apply(20190901));
+    }
+}
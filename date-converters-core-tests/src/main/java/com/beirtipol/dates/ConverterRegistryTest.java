@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Optional;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.ToDoubleFunction;
+
+public class ConverterRegistryTest {
+
+    @Test
+    public void loadFindsCoreConverters() {
+        ConverterRegistry registry = ConverterRegistry.load();
+        Assertions.assertEquals(LocalDate.of(2019, 9, 1), registry.from(new Date(1567299723456L), LocalDate.class));
+        Assertions.assertEquals(18140, registry.toEpochDay(LocalDate.of(2019, 9, 1)));
+    }
+
+    @Test
+    public void missingConverter() {
+        ConverterRegistry registry = new ConverterRegistry();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.from(1, String.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.handle(Integer.class, String.class).apply(1));
+    }
+
+    @Test
+    public void withoutExceptions() {
+        ConverterRegistry registry = ConverterRegistry.load();
+        Date date = new Date(1567299723456L);
+        Assertions.assertTrue(registry.canConvert(Date.class, LocalDate.class));
+        Assertions.assertFalse(registry.canConvert(LocalDate.class, long.class));
+        Assertions.assertFalse(registry.canConvert(Integer.class, LocalDate.class));
+        Assertions.assertEquals(Optional.of(LocalDate.of(2019, 9, 1)), registry.tryFrom(date, LocalDate.class));
+        Assertions.assertEquals(Optional.empty(), registry.tryFrom(1, LocalDate.class));
+        Assertions.assertEquals(Optional.empty(), registry.tryFrom(null, LocalDate.class));
+        Assertions.assertEquals(LocalDate.of(2019, 9, 1), registry.fromOrDefault(date, LocalDate.class, LocalDate.MIN));
+        Assertions.assertEquals(LocalDate.MIN, registry.fromOrDefault(1, LocalDate.class, LocalDate.MIN));
+    }
+
+    @Test
+    public void primitiveTargets() {
+        ConverterRegistry registry = ConverterRegistry.load();
+        Date date = new Date(0);
+        Assertions.assertFalse(registry.canConvert(Date.class, long.class));
+        Assertions.assertFalse(registry.canConvert(Date.class, int.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.from(date, long.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.tryFrom(date, long.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.fromOrDefault(date, int.class, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.handle(Date.class, long.class).apply(date));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.convertAll(Collections.singletonList(date), long.class));
+        Assertions.assertEquals(0L, registry.toEpochMilli(date));
+
+        registry.setStatsEnabled(true);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.from(date, long.class));
+    }
+
+    @Test
+    public void registerAll() {
+        ConverterRegistry registry = new ConverterRegistry();
+        registry.registerAll(new NumberConverters());
+        Assertions.assertEquals("1", registry.from(1, String.class));
+        Assertions.assertEquals("2.5", registry.from(2.5, String.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.from(1, Integer.class));
+    }
+
+    @Test
+    public void replaceAll() {
+        ConverterRegistry registry = new ConverterRegistry();
+        registry.registerAll(new PrefixConverters("a"));
+        Assertions.assertEquals("a1", registry.from(1, String.class));
+        registry.replaceAll(new PrefixConverters("b"));
+        Assertions.assertEquals("b1", registry.from(1, String.class));
+    }
+
+    @Test
+    public void failingConverterMethod() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ConverterRegistry().registerAll(new FailingConverters()));
+    }
+
+    @Test
+    public void calibrationPrefersFasterChain() {
+        ConverterRegistry registry = new ConverterRegistry();
+        registry.register(long.class, Integer.class, (LongFunction<Integer>) from -> (int) from);
+        registry.register(Integer.class, Double.class, (Function<Integer, Double>) ConverterRegistryTest::slowly);
+        registry.register(Double.class, String.class, (Function<Double, String>) from -> "double");
+        registry.register(Integer.class, Long.class, (Function<Integer, Long>) Integer::longValue);
+        registry.register(Long.class, BigDecimal.class, (Function<Long, BigDecimal>) BigDecimal::valueOf);
+        registry.register(BigDecimal.class, String.class, (Function<BigDecimal, String>) from -> "decimal");
+
+        Assertions.assertEquals("double", registry.from(1, String.class));
+        Assertions.assertTrue(registry.explain(Integer.class, String.class).contains("not calibrated"));
+        registry.calibrate(100);
+        Assertions.assertEquals("decimal", registry.from(1, String.class));
+        String explained = registry.explain(Integer.class, String.class);
+        Assertions.assertTrue(explained.startsWith("java.lang.Integer to java.lang.String: "), explained);
+        Assertions.assertTrue(explained.contains("java.lang.Long -> java.math.BigDecimal: "), explained);
+        Assertions.assertFalse(explained.contains("not calibrated"), explained);
+    }
+
+    @Test
+    public void explain() {
+        ConverterRegistry registry = ConverterRegistry.load();
+        registry.calibrate(100);
+        String explained = registry.explain(java.sql.Date.class, LocalDate.class);
+        Assertions.assertTrue(explained.contains("java.sql.Date -> java.time.LocalDate: "), explained);
+        Assertions.assertTrue(explained.contains(" ns/op"), explained);
+        Assertions.assertEquals("No converter from java.lang.Integer to java.lang.String", registry.explain(Integer.class, String.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.calibrate(0));
+    }
+
+    @Test
+    public void doubles() {
+        ConverterRegistry registry = new ConverterRegistry();
+        registry.register(double.class, BigDecimal.class, (DoubleFunction<BigDecimal>) BigDecimal::valueOf);
+        registry.register(BigDecimal.class, double.class, (ToDoubleFunction<BigDecimal>) BigDecimal::doubleValue);
+        registry.register(BigDecimal.class, String.class, (Function<BigDecimal, String>) BigDecimal::toPlainString);
+        registry.register(long.class, BigDecimal.class, (LongFunction<BigDecimal>) BigDecimal::valueOf);
+        Assertions.assertEquals(new BigDecimal("2.5"), registry.fromDouble(2.5, BigDecimal.class));
+        Assertions.assertEquals(1.5, registry.toDouble(new BigDecimal("1.5")));
+        Assertions.assertEquals("2.5", registry.fromDouble(2.5, String.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.fromDouble(1, Integer.class));
+
+        registry.calibrate(100);
+        String explained = registry.explain(double.class, String.class);
+        Assertions.assertTrue(explained.contains("double -> java.math.BigDecimal: "), explained);
+        Assertions.assertFalse(explained.contains("not calibrated"), explained);
+    }
+
+    @Test
+    public void zone() {
+        ConverterRegistry registry = ConverterRegistry.load();
+        ZoneId london = UtilDates.EUROPE_LONDON.toZoneId();
+        LocalDateTime summer = LocalDateTime.of(2020, 7, 1, 9, 30);
+        Assertions.assertEquals(ThreeTenDates.UTC, registry.getZone());
+        Assertions.assertEquals(Instant.parse("2020-07-01T09:30:00Z").toEpochMilli(), registry.toEpochMilli(summer));
+
+        Date date = registry.from(summer, Date.class, london);
+        Assertions.assertEquals(Instant.parse("2020-07-01T08:30:00Z").toEpochMilli(), date.getTime());
+        Assertions.assertEquals(summer.minusHours(1), registry.from(date, LocalDateTime.class));
+        Assertions.assertEquals(summer.plusHours(1), registry.from(date, LocalDateTime.class, ZoneOffset.ofHours(2)));
+
+        ConverterHandle<Date, LocalDateTime> handle = registry.handle(Date.class, LocalDateTime.class);
+        registry.setZone(london);
+        Assertions.assertEquals(london, registry.getZone());
+        Assertions.assertEquals(summer, handle.apply(date));
+        Assertions.assertEquals(summer.atZone(london), registry.from(date, ZonedDateTime.class));
+        Assertions.assertEquals(summer.minusHours(1), registry.from(date, LocalDateTime.class, ThreeTenDates.UTC));
+        Assertions.assertEquals(london, registry.from(summer, Calendar.class).getTimeZone().toZoneId());
+        Assertions.assertEquals(60, registry.from(summer, XMLGregorianCalendar.class).getTimezone());
+        Assertions.assertEquals(Instant.parse("2020-06-30T23:00:00Z").toEpochMilli(), registry.fromEpochDay((int) summer.toLocalDate().toEpochDay(), Date.class).getTime());
+        Assertions.assertEquals(summer.toLocalDate(), registry.from(new Date(Instant.parse("2020-06-30T23:30:00Z").toEpochMilli()), LocalDate.class));
+    }
+
+    @Test
+    public void chainsKeepTheTimeOfDay() {
+        ConverterRegistry registry = ConverterRegistry.load();
+        assertChainsKeepTheTimeOfDay(registry);
+        registry.calibrate(100);
+        assertChainsKeepTheTimeOfDay(registry);
+    }
+
+    private static void assertChainsKeepTheTimeOfDay(ConverterRegistry registry) {
+        long millis = Instant.parse("2019-09-01T13:45:30.123Z").toEpochMilli();
+        Assertions.assertEquals("2019-09-01T13:45:30.123Z", registry.fromEpochMilli(millis, String.class));
+        Assertions.assertEquals("2019-09-01T13:45:30.123Z", registry.from(new StringBuilder("2019-09-01T13:45:30.123Z"), String.class));
+        Assertions.assertEquals("2019-09-01", registry.fromEpochDay(18140, String.class));
+        Assertions.assertFalse(registry.explain(long.class, String.class).contains("java.sql.Date"));
+    }
+
+    private static Double slowly(Integer from) {
+        double result = from;
+        for (int i = 0; i < 100_000; i++) {
+            result = Math.sqrt(result + i);
+        }
+        return result;
+    }
+
+    public static class NumberConverters {
+        @Converter(from = {Integer.class, Double.class}, to = String.class)
+        public Function<Number, String> NumberToString() {
+            return String::valueOf;
+        }
+
+        public Function<Integer, Integer> notAConverter() {
+            return from -> from;
+        }
+    }
+
+    public static class PrefixConverters {
+        private final String prefix;
+
+        public PrefixConverters(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Converter(from = Integer.class, to = String.class)
+        public Function<Integer, String> IntegerToString() {
+            return from -> prefix + from;
+        }
+    }
+
+    public static class FailingConverters {
+        @Converter(from = Integer.class, to = String.class)
+        public Function<Integer, String> IntegerToString() {
+            throw new IllegalStateException();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+public class ConverterResolverTest {
+
+    @Test
+    public void exactMatch() {
+        ConverterResolver resolver = new ConverterResolver();
+        Function<Object, Object> converter = from -> from;
+        resolver.register(String.class, String.class, converter);
+        Assertions.assertSame(converter, resolver.resolve(String.class, String.class).converter);
+    }
+
+    @Test
+    public void superclassFallback() {
+        ConverterResolver resolver = new ConverterResolver();
+        Function<Object, Object> converter = from -> from;
+        resolver.register(Number.class, String.class, converter);
+        Assertions.assertSame(converter, resolver.resolve(Integer.class, String.class).converter);
+    }
+
+    @Test
+    public void interfaceFallback() {
+        ConverterResolver resolver = new ConverterResolver();
+        Function<Object, Object> converter = from -> from;
+        resolver.register(CharSequence.class, String.class, converter);
+        Assertions.assertSame(converter, resolver.resolve(StringBuilder.class, String.class).converter);
+    }
+
+    @Test
+    public void closestMatchWins() {
+        ConverterResolver resolver = new ConverterResolver();
+        Function<Object, Object> superclass = from -> from;
+        Function<Object, Object> iface = from -> from;
+        resolver.register(Number.class, String.class, superclass);
+        resolver.register(Comparable.class, String.class, iface);
+        Assertions.assertSame(superclass, resolver.resolve(Integer.class, String.class).converter);
+    }
+
+    @Test
+    public void missIsMemoizedUntilRegistration() {
+        ConverterResolver resolver = new ConverterResolver();
+        Assertions.assertFalse(resolver.resolve(Integer.class, String.class).isResolved());
+        Assertions.assertSame(resolver.resolve(Integer.class, String.class), resolver.resolve(Integer.class, String.class));
+
+        Function<Object, Object> converter = from -> from;
+        resolver.register(Integer.class, String.class, converter);
+        Assertions.assertSame(converter, resolver.resolve(Integer.class, String.class).converter);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void multiHopChain() {
+        ConverterResolver resolver = new ConverterResolver();
+        resolver.register(Integer.class, Long.class, (Function<Integer, Long>) Integer::longValue);
+        resolver.register(Long.class, String.class, (Function<Long, String>) from -> "L" + from);
+        ConverterResolver.Resolution resolution = resolver.resolve(Integer.class, String.class);
+        Assertions.assertEquals(Arrays.asList(new ConverterKey(Integer.class, Long.class), new ConverterKey(Long.class, String.class)), resolution.path);
+        Assertions.assertEquals("L1", ((Function<Object, Object>) resolution.converter).apply(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shortestChainWins() {
+        ConverterResolver resolver = new ConverterResolver();
+        resolver.register(Integer.class, Long.class, (Function<Integer, Long>) Integer::longValue);
+        resolver.register(Long.class, Double.class, (Function<Long, Double>) Long::doubleValue);
+        resolver.register(Double.class, String.class, (Function<Double, String>) from -> "D" + from);
+        resolver.register(Long.class, String.class, (Function<Long, String>) from -> "L" + from);
+        Assertions.assertEquals("L1", ((Function<Object, Object>) resolver.resolve(Integer.class, String.class).converter).apply(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void chainThroughSuperclass() {
+        ConverterResolver resolver = new ConverterResolver();
+        resolver.register(Number.class, Long.class, (Function<Number, Long>) Number::longValue);
+        resolver.register(Long.class, String.class, (Function<Long, String>) String::valueOf);
+        Assertions.assertEquals("1", ((Function<Object, Object>) resolver.resolve(Integer.class, String.class).converter).apply(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void primitiveEnds() {
+        ConverterResolver resolver = new ConverterResolver();
+        resolver.register(long.class, Long.class, (LongFunction<Long>) Long::valueOf);
+        resolver.register(Long.class, String.class, (Function<Long, String>) String::valueOf);
+        resolver.register(String.class, long.class, (ToLongFunction<String>) Long::parseLong);
+        Assertions.assertEquals("2", ((LongFunction<Object>) resolver.resolve(long.class, String.class).converter).apply(2));
+        Assertions.assertEquals(3, ((ToLongFunction<Object>) resolver.resolve(Long.class, long.class).converter).applyAsLong(3L));
+        Assertions.assertFalse(resolver.resolve(long.class, long.class).isResolved());
+
+        resolver.register(double.class, Long.class, (DoubleFunction<Long>) Math::round);
+        resolver.register(String.class, double.class, (ToDoubleFunction<String>) Double::parseDouble);
+        Assertions.assertEquals("3", ((DoubleFunction<Object>) resolver.resolve(double.class, String.class).converter).apply(2.6));
+        Assertions.assertEquals(4.0, ((ToDoubleFunction<Object>) resolver.resolve(Long.class, double.class).converter).applyAsDouble(4L));
+        Assertions.assertFalse(resolver.resolve(double.class, long.class).isResolved());
+    }
+
+    @Test
+    public void noChainThroughPrimitive() {
+        ConverterResolver resolver = new ConverterResolver();
+        resolver.register(Integer.class, long.class, (ToLongFunction<Integer>) Integer::longValue);
+        resolver.register(long.class, String.class, (LongFunction<String>) String::valueOf);
+        Assertions.assertFalse(resolver.resolve(Integer.class, String.class).isResolved());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void chainOnlyThroughHubs() {
+        ConverterResolver resolver = new ConverterResolver();
+        resolver.register(Integer.class, Short.class, (Function<Integer, Short>) Integer::shortValue);
+        resolver.register(Short.class, String.class, (Function<Short, String>) from -> "S" + from);
+        resolver.register(Integer.class, Long.class, (Function<Integer, Long>) Integer::longValue);
+        resolver.register(Long.class, String.class, (Function<Long, String>) from -> "L" + from);
+        resolver.register(Integer.class, Double.class, (Function<Integer, Double>) Integer::doubleValue);
+        resolver.register(Double.class, String.class, (Function<Double, String>) from -> "D" + from);
+        Assertions.assertEquals("D1.0", ((Function<Object, Object>) resolver.resolve(Integer.class, String.class).converter).apply(1));
+
+        resolver.registerHub(Short.class);
+        Assertions.assertEquals("S1", ((Function<Object, Object>) resolver.resolve(Integer.class, String.class).converter).apply(1));
+        resolver.registerHub(Long.class);
+        Assertions.assertEquals("S1", ((Function<Object, Object>) resolver.resolve(Integer.class, String.class).converter).apply(1));
+        resolver.registerHub(Number.class, Long.class);
+        Assertions.assertEquals("L1", ((Function<Object, Object>) resolver.resolve(Integer.class, String.class).converter).apply(1));
+
+        // A type with hubs of its own is only converted through those
+        resolver.register(Short.class, StringBuilder.class, (Function<Short, StringBuilder>) from -> new StringBuilder("S"));
+        Assertions.assertFalse(resolver.resolve(Integer.class, StringBuilder.class).isResolved());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+
+public class ConverterStatsTest {
+
+    @Test
+    public void disabledByDefault() {
+        ConverterRegistry registry = registry();
+        Assertions.assertFalse(registry.isStatsEnabled());
+        Assertions.assertEquals("1", registry.from(1, String.class));
+        Assertions.assertTrue(registry.getStats().isEmpty());
+    }
+
+    @Test
+    public void countsEachOutcome() {
+        ConverterRegistry registry = registry();
+        registry.setStatsEnabled(true);
+        registry.from(1, String.class);
+        registry.from(2, String.class);
+        registry.from(3L, String.class);
+        registry.from(null, String.class);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.from("4", Integer.class));
+
+        Map<ConverterKey, ConverterStats> stats = registry.getStats();
+        ConverterStats integers = stats.get(new ConverterKey(Integer.class, String.class));
+        Assertions.assertEquals(2, integers.getInvocations());
+        Assertions.assertEquals(0, integers.getFallbacks());
+        Assertions.assertEquals(2, Arrays.stream(integers.getHistogram()).sum());
+        Assertions.assertTrue(integers.getPercentileNanos(100) >= integers.getPercentileNanos(50));
+
+        ConverterStats longs = stats.get(new ConverterKey(Long.class, String.class));
+        Assertions.assertEquals(1, longs.getInvocations());
+        Assertions.assertEquals(1, longs.getFallbacks());
+
+        Assertions.assertEquals(1, stats.get(new ConverterKey(null, String.class)).getNulls());
+
+        ConverterStats failed = stats.get(new ConverterKey(String.class, Integer.class));
+        Assertions.assertEquals(1, failed.getFailures());
+        Assertions.assertEquals(0, failed.getInvocations());
+        Assertions.assertEquals(0, failed.getPercentileNanos(99));
+    }
+
+    @Test
+    public void disablingDiscards() {
+        ConverterRegistry registry = registry();
+        registry.setStatsEnabled(true);
+        registry.from(1, String.class);
+        registry.setStatsEnabled(true);
+        Assertions.assertEquals(1, registry.getStats().size());
+        registry.setStatsEnabled(false);
+        Assertions.assertTrue(registry.getStats().isEmpty());
+        registry.setStatsEnabled(true);
+        Assertions.assertTrue(registry.getStats().isEmpty());
+    }
+
+    @Test
+    public void buckets() {
+        Assertions.assertEquals(0, ConverterStats.bucket(0));
+        Assertions.assertEquals(1, ConverterStats.bucket(1));
+        Assertions.assertEquals(7, ConverterStats.bucket(100));
+        Assertions.assertTrue(100 < ConverterStats.bucketLimitNanos(7));
+        Assertions.assertEquals(ConverterStats.BUCKETS - 1, ConverterStats.bucket(Long.MAX_VALUE));
+        Assertions.assertEquals(Long.MAX_VALUE, ConverterStats.bucketLimitNanos(ConverterStats.BUCKETS - 1));
+    }
+
+    private static ConverterRegistry registry() {
+        ConverterRegistry registry = new ConverterRegistry();
+        registry.register(Integer.class, String.class, (Function<Integer, String>) String::valueOf);
+        registry.register(Number.class, String.class, (Function<Number, String>) String::valueOf);
+        return registry;
+    }
+}
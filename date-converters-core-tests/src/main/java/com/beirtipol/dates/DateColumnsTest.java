@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.Date;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith({SpringExtension.class})
+@SpringBootTest
+public class DateColumnsTest {
+    private static final long[] EPOCH_MILLIS = {-62135596800000L, -ThreeTenDates.MILLIS_PER_DAY - 1, -1, 0, 1, 1567299723456L, 253402300799999L};
+
+    @Autowired
+    protected Converters converters;
+
+    @Test
+    public void epochMillisAndDays() {
+        int[] days = DateColumns.toEpochDays(EPOCH_MILLIS);
+        long[] starts = DateColumns.toEpochMillis(days);
+        for (int i = 0; i < EPOCH_MILLIS.length; i++) {
+            Assertions.assertEquals(Math.floorDiv(EPOCH_MILLIS[i], ThreeTenDates.MILLIS_PER_DAY), days[i]);
+            Assertions.assertEquals(days[i] * ThreeTenDates.MILLIS_PER_DAY, starts[i]);
+        }
+    }
+
+    @Test
+    public void localDates() {
+        int[] days = {-719528, -1, 0, 18140, 2932896};
+        LocalDate[] dates = DateColumns.toLocalDates(days);
+        for (int i = 0; i < days.length; i++) {
+            Assertions.assertEquals(LocalDate.ofEpochDay(days[i]), dates[i]);
+        }
+        Assertions.assertArrayEquals(days, DateColumns.toEpochDays(dates));
+    }
+
+    @Test
+    public void utilDates() {
+        Date[] dates = DateColumns.toUtilDates(EPOCH_MILLIS);
+        for (int i = 0; i < EPOCH_MILLIS.length; i++) {
+            Assertions.assertEquals(new Date(EPOCH_MILLIS[i]), dates[i]);
+        }
+        Assertions.assertArrayEquals(EPOCH_MILLIS, DateColumns.toEpochMillis(dates));
+    }
+
+    @Test
+    public void destinationTooShort() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DateColumns.toEpochDays(EPOCH_MILLIS, new int[1]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> converters.toEpochMillis(new Object[2], new long[1]));
+    }
+
+    @Test
+    public void mixedObjects() {
+        long millis = 1567299723456L;
+        Object[] from = {new Date(millis), new Timestamp(millis), LocalDateTime.of(2019, 9, 1, 1, 2, 3, 456_000_000), ZonedDateTime.of(2019, 9, 1, 1, 2, 3, 456_000_000, ThreeTenDates.UTC)};
+        long[] epochMillis = converters.toEpochMillis(from);
+        int[] epochDays = converters.toEpochDays(from);
+        for (int i = 0; i < from.length; i++) {
+            Assertions.assertEquals(millis, epochMillis[i]);
+            Assertions.assertEquals(LocalDate.of(2019, 9, 1).toEpochDay(), epochDays[i]);
+        }
+    }
+
+    @Test
+    public void toObjects() {
+        int[] days = {-1, 0, 18140};
+        Assertions.assertArrayEquals(DateColumns.toLocalDates(days), converters.fromEpochDays(days, LocalDate.class));
+        Assertions.assertArrayEquals(DateColumns.toUtilDates(EPOCH_MILLIS), converters.fromEpochMillis(EPOCH_MILLIS, Date.class));
+        ZonedDateTime[] zoned = converters.fromEpochMillis(EPOCH_MILLIS, ZonedDateTime.class);
+        Assertions.assertArrayEquals(EPOCH_MILLIS, converters.toEpochMillis(zoned));
+    }
+
+    @Test
+    public void missingConverter() {
+        Assertions.assertThrows(NoSuchBeanDefinitionException.class, () -> converters.toEpochMillis(new Object[]{1}));
+        Assertions.assertThrows(NoSuchBeanDefinitionException.class, () -> converters.fromEpochDays(new int[]{1}, Integer.class));
+    }
+}
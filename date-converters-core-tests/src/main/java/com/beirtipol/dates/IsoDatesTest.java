@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+/**
+ * Checks {@link IsoDates} against the ISO formatters in {@link DateTimeFormatter}, across the whole range of years they
+ * support.
+ */
+public class IsoDatesTest {
+    private static final long MIN_EPOCH_DAY = LocalDate.MIN.toEpochDay();
+    private static final long MAX_EPOCH_DAY = LocalDate.MAX.toEpochDay();
+
+    @Test
+    public void sameAsFormatter() {
+        Random random = new Random(20190901);
+        for (int i = 0; i < 100_000; i++) {
+            // Mostly dates either side of 1970, with some from anywhere in the range
+            long epochDay = i % 10 == 0 ? MIN_EPOCH_DAY + (long) (random.nextDouble() * (MAX_EPOCH_DAY - MIN_EPOCH_DAY)) : random.nextInt(200_000) - 100_000;
+            int nano = i % 3 == 0 ? 0 : i % 3 == 1 ? random.nextInt(1000) * 1_000_000 : random.nextInt(1_000_000_000);
+            int offsetSeconds = i % 4 == 0 ? 0 : (random.nextInt(36 * 4 + 1) - 18 * 4) * 900 + (i % 5 == 0 ? random.nextInt(60) : 0);
+            if (Math.abs(offsetSeconds) > 18 * 3600) {
+                offsetSeconds = 0;
+            }
+            LocalDateTime local = LocalDate.ofEpochDay(epochDay).atStartOfDay().plusNanos((long) (random.nextDouble() * 86_400_000_000_000L)).withNano(nano);
+            OffsetDateTime offset = local.atOffset(ZoneOffset.ofTotalSeconds(offsetSeconds));
+
+            String date = DateTimeFormatter.ISO_LOCAL_DATE.format(local);
+            String dateTime = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(local);
+            String offsetDateTime = DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(offset);
+            Assertions.assertEquals(date, IsoDates.appendDate(epochDay, new StringBuilder()).toString());
+            Assertions.assertEquals(dateTime, IsoDates.appendDateTime(local.toEpochSecond(ZoneOffset.UTC), nano, new StringBuilder()).toString());
+            Assertions.assertEquals(offsetDateTime, IsoDates.appendOffsetDateTime(offset.toEpochSecond(), nano, offsetSeconds, new StringBuilder()).toString());
+
+            Assertions.assertEquals(epochDay, IsoDates.parseEpochDay(date), date);
+            Assertions.assertEquals(epochDay, IsoDates.parseEpochDay(offsetDateTime), offsetDateTime);
+            Assertions.assertEquals(local.toEpochSecond(ZoneOffset.UTC), IsoDates.parseEpochSecond(dateTime), dateTime);
+            Assertions.assertEquals(local.toLocalTime().toNanoOfDay(), IsoDates.parseNanoOfDay(offsetDateTime), offsetDateTime);
+            Assertions.assertEquals(offset.toEpochSecond(), IsoDates.parseEpochSecond(offsetDateTime), offsetDateTime);
+            Assertions.assertEquals(nano, IsoDates.parseNano(offsetDateTime), offsetDateTime);
+            Assertions.assertEquals(offsetSeconds, IsoDates.parseOffsetSeconds(offsetDateTime), offsetDateTime);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2019-09-01T01:02Z", "2019-09-01t01:02:03z", "2019-09-01T01:02:03.4+01:00", "1969-12-31T23:59:59.999999999-00:30:15", "+10000-01-01T00:00Z", "-0001-02-28T12:00Z", "0000-02-29T00:00Z"})
+    public void parse(String text) {
+        OffsetDateTime expected = OffsetDateTime.parse(text);
+        Assertions.assertEquals(expected.toEpochSecond(), IsoDates.parseEpochSecond(text));
+        Assertions.assertEquals(expected.getNano(), IsoDates.parseNano(text));
+        Assertions.assertEquals(Math.addExact(expected.toEpochSecond() * 1000, expected.getNano() / 1_000_000), IsoDates.parseEpochMilli(text));
+        Assertions.assertEquals(expected.toLocalDate().toEpochDay(), IsoDates.parseEpochDay(text));
+        Assertions.assertEquals(expected.getOffset().getTotalSeconds(), IsoDates.parseOffsetSeconds(text));
+
+        IsoDates.Fields fields = IsoDates.parse(text);
+        Assertions.assertEquals(expected.toLocalDate().toEpochDay(), fields.getEpochDay());
+        Assertions.assertEquals(expected.toLocalTime().toNanoOfDay(), fields.getNanoOfDay());
+        Assertions.assertEquals(expected.getNano(), fields.getNano());
+        Assertions.assertEquals(expected.getOffset().getTotalSeconds(), fields.getOffsetSeconds());
+        Assertions.assertEquals(expected.toEpochSecond(), fields.getEpochSecond());
+        Assertions.assertTrue(fields.hasOffset());
+    }
+
+    @Test
+    public void noOffsetIsUTC() {
+        Assertions.assertEquals(1567299723456L, IsoDates.parseEpochMilli("2019-09-01T01:02:03.456"));
+        Assertions.assertEquals(1567296000000L, IsoDates.parseEpochMilli("2019-09-01"));
+        Assertions.assertEquals(1567296000000L, IsoDates.parseEpochMilli(new StringBuilder("2019-09-01Z")));
+        Assertions.assertEquals(0, IsoDates.parseOffsetSeconds("2019-09-01T01:02"));
+        Assertions.assertFalse(IsoDates.parse("2019-09-01T01:02").hasOffset());
+        Assertions.assertFalse(IsoDates.parse("2019-09-01").hasOffset());
+        Assertions.assertTrue(IsoDates.parse("2019-09-01Z").hasOffset());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"20190901", "00000229", "99991231", "19700101"})
+    public void basic(String text) {
+        LocalDate expected = LocalDate.parse(text, DateTimeFormatter.BASIC_ISO_DATE);
+        Assertions.assertEquals(expected.toEpochDay(), IsoDates.parseEpochDay(text));
+        Assertions.assertEquals(expected.toEpochDay() * ThreeTenDates.MILLIS_PER_DAY, IsoDates.parseEpochMilli(text));
+        Assertions.assertEquals(text, IsoDates.appendBasicDate(expected.toEpochDay(), new StringBuilder()).toString());
+    }
+
+    @Test
+    public void basicYearOutOfRange() {
+        Assertions.assertThrows(DateTimeException.class, () -> IsoDates.appendBasicDate(LocalDate.of(10000, 1, 1).toEpochDay(), new StringBuilder()));
+        Assertions.assertThrows(DateTimeException.class, () -> IsoDates.appendBasicDate(LocalDate.of(-1, 12, 31).toEpochDay(), new StringBuilder()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "2019", "2019-09", "19-09-01", "02019-09-01", "+201-09-01", "2019/09/01", "2019-13-01", "2019-00-01", "2019-02-29", "2019-09-31", "2019-09-01T", "2019-09-01T24:00",
+            "2019-09-01T01:60", "2019-09-01T01:02:60", "2019-09-01T01:02:03.", "2019-09-01T01:02:03.1234567890", "2019-09-01T01:02:03X", "2019-09-01T01:02+1", "2019-09-01T01:02+18:01",
+            "2019-09-01T01:02+01:60", "2019-09-01T01:02Z ", "2019-09-01 01:02",
+            "20190931", "20191301", "2019090", "201909011", "20190901Z", "20190901T0102", "+20190901"})
+    public void invalid(String text) {
+        DateTimeParseException e = Assertions.assertThrows(DateTimeParseException.class, () -> IsoDates.parseEpochMilli(text));
+        Assertions.assertEquals(text, e.getParsedString());
+        Assertions.assertThrows(DateTimeParseException.class, () -> IsoDates.parseEpochDay(text));
+        Assertions.assertThrows(DateTimeParseException.class, () -> IsoDates.parse(text));
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.lang.reflect.Array;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * Checks that parallel conversion gives the same answers as sequential conversion, and that every core converter can be
+ * hammered from many threads at once.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith({SpringExtension.class})
+@SpringBootTest
+public class ParallelConversionTest {
+    private static final Logger LOG     = LoggerFactory.getLogger(ParallelConversionTest.class);
+    private static final int    SIZE    = 50_000;
+    private static final int    THREADS = 8;
+
+    @Autowired
+    protected Converters converters;
+
+    private Object[] input;
+
+    @BeforeAll
+    public void createInput() throws Exception {
+        DatatypeFactory dtFactory = DatatypeFactory.newInstance();
+        Random random = new Random(42);
+        input = new Object[SIZE];
+        long start = UtilDates.newUtilDate(1990, 1, 1, 0, 0, 0, 0, UtilDates.UTC).getTime();
+        for (int i = 0; i < SIZE; i++) {
+            // Runs of the same class to exercise run grouping, interspersed with nulls
+            long millis = start + random.nextInt(1_000_000_000) * 1000L;
+            Date date = new Date(millis);
+            switch ((i / 97) % 9) {
+                case 0:
+                    input[i] = date;
+                    break;
+                case 1:
+                    input[i] = new Timestamp(millis);
+                    break;
+                case 2:
+                    input[i] = new java.sql.Date(millis);
+                    break;
+                case 3:
+                    Calendar calendar = GregorianCalendar.getInstance(UtilDates.UTC);
+                    calendar.setTime(date);
+                    input[i] = calendar;
+                    break;
+                case 4:
+                    GregorianCalendar gregorianCalendar = new GregorianCalendar(UtilDates.UTC);
+                    gregorianCalendar.setTime(date);
+                    input[i] = dtFactory.newXMLGregorianCalendar(gregorianCalendar);
+                    break;
+                case 5:
+                    input[i] = date.toInstant().atZone(ThreeTenDates.UTC).toLocalDate();
+                    break;
+                case 6:
+                    input[i] = date.toInstant().atZone(ThreeTenDates.UTC).toLocalDateTime();
+                    break;
+                case 7:
+                    input[i] = date.toInstant().atZone(ThreeTenDates.UTC);
+                    break;
+                default:
+                    input[i] = i % 2 == 0 ? null : date;
+            }
+        }
+    }
+
+    protected Stream<Class<?>> targets() {
+        return Stream.of(LocalDate.class, LocalDateTime.class, ZonedDateTime.class, Date.class, java.sql.Date.class, Timestamp.class, Calendar.class, XMLGregorianCalendar.class);
+    }
+
+    @ParameterizedTest
+    @MethodSource("targets")
+    public void parallelMatchesSequential(Class<?> to) {
+        Object[] expected = converters.convertAll(input, (Class) to, (Object[]) Array.newInstance(to, SIZE));
+        Assertions.assertArrayEquals(expected, converters.convertAllParallel(input, (Class) to, (Object[]) Array.newInstance(to, SIZE)));
+        for (int parallelism : new int[]{1, 2, 4}) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                Assertions.assertArrayEquals(expected, converters.convertAllParallel(input, (Class) to, (Object[]) Array.newInstance(to, SIZE), pool));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("targets")
+    public void concurrentConverterUse(Class<?> to) throws Exception {
+        Object[] expected = converters.convertAll(input, (Class) to, (Object[]) Array.newInstance(to, SIZE));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch ready = new CountDownLatch(THREADS);
+            List<Future<Object[]>> results = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    ready.await();
+                    Object[] result = new Object[SIZE];
+                    for (int i = 0; i < SIZE; i++) {
+                        result[i] = converters.from(input[i], to);
+                    }
+                    return result;
+                }));
+            }
+            for (Future<Object[]> result : results) {
+                Assertions.assertArrayEquals(expected, result.get(1, TimeUnit.MINUTES));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void scaling() {
+        int cores = Math.max(2, Runtime.getRuntime().availableProcessors());
+        Object[] large = new Object[SIZE * 10];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = input[i % SIZE];
+        }
+        Object[] expected = converters.convertAll(large, XMLGregorianCalendar.class, new XMLGregorianCalendar[large.length]);
+        for (int parallelism = 1; parallelism <= cores; parallelism *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                // Once to warm up, once to measure
+                converters.convertAllParallel(large, XMLGregorianCalendar.class, new XMLGregorianCalendar[large.length], pool);
+                long start = System.nanoTime();
+                XMLGregorianCalendar[] result = converters.convertAllParallel(large, XMLGregorianCalendar.class, new XMLGregorianCalendar[large.length], pool);
+                long elapsed = System.nanoTime() - start;
+                Assertions.assertArrayEquals(expected, result);
+                LOG.info(String.format("Converted %d values with parallelism %d in %d ms", large.length, parallelism, TimeUnit.NANOSECONDS.toMillis(elapsed)));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Checks the field-level calculations in {@link XMLDates} against {@link XMLGregorianCalendar#toGregorianCalendar()}
+ * when the timezone or some of the date fields are undefined, including times which are skipped or repeated when the
+ * clocks change. Years are kept to 1900-2100 as {@link java.util.GregorianCalendar} switches to the Julian calendar
+ * before 1582.
+ */
+public class XMLDatesTest {
+    private static final int UNDEFINED = DatatypeConstants.FIELD_UNDEFINED;
+
+    private final TimeZone defaultZone = TimeZone.getDefault();
+
+    @AfterEach
+    public void resetZone() {
+        TimeZone.setDefault(defaultZone);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTC", "Europe/London", "Europe/Dublin", "America/New_York", "Asia/Kolkata", "Australia/Lord_Howe"})
+    public void undefinedTimezone(String zone) {
+        TimeZone.setDefault(TimeZone.getTimeZone(zone));
+        Random random = new Random(zone.hashCode());
+        for (int i = 0; i < 5000; i++) {
+            // Every half hour of a few days either side of the clock changes, and random times across the range
+            int month = i < 2000 ? (i < 1000 ? 3 : 10) : 1 + random.nextInt(12);
+            int day = i < 2000 ? 24 + i % 1000 / 48 % 8 : 1 + random.nextInt(28);
+            int hour = i < 2000 ? i % 48 / 2 : random.nextInt(24);
+            int minute = i < 2000 ? i % 2 * 30 : random.nextInt(60);
+            XMLGregorianCalendar from = XMLDates.datatypeFactory().newXMLGregorianCalendar(1900 + random.nextInt(200), month, day, hour, minute, random.nextInt(60), random.nextInt(1000), UNDEFINED);
+            assertSameAsGregorianCalendar(from);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTC", "America/New_York", "Asia/Kolkata"})
+    public void undefinedDate(String zone) {
+        TimeZone.setDefault(TimeZone.getTimeZone(zone));
+        assertSameAsGregorianCalendar(XMLDates.datatypeFactory().newXMLGregorianCalendarTime(13, 14, 15, 0));
+        assertSameAsGregorianCalendar(XMLDates.datatypeFactory().newXMLGregorianCalendarTime(13, 14, 15, UNDEFINED));
+        assertSameAsGregorianCalendar(XMLDates.datatypeFactory().newXMLGregorianCalendarDate(UNDEFINED, 9, 1, 60));
+        assertSameAsGregorianCalendar(XMLDates.datatypeFactory().newXMLGregorianCalendarDate(2019, UNDEFINED, UNDEFINED, UNDEFINED));
+        assertSameAsGregorianCalendar(XMLDates.datatypeFactory().newXMLGregorianCalendar("--09-01"));
+    }
+
+    private static void assertSameAsGregorianCalendar(XMLGregorianCalendar from) {
+        Assertions.assertEquals(from.toGregorianCalendar().getTimeInMillis(), XMLDates.toEpochMilli(from), from::toXMLFormat);
+        Assertions.assertEquals(from.toGregorianCalendar().toZonedDateTime().toLocalDate().toEpochDay(), XMLDates.toEpochDay(from), from::toXMLFormat);
+    }
+}
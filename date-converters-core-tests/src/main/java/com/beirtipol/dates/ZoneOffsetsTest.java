@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Random;
+
+/**
+ * Checks {@link ZoneOffsets} against {@link ZoneRules}, inside and outside the years it holds, around every transition
+ * and at random.
+ */
+public class ZoneOffsetsTest {
+    private static final long HOUR = 3_600_000L;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Europe/London", "America/New_York", "America/Sao_Paulo", "Australia/Lord_Howe", "Asia/Kolkata", "Pacific/Apia", "UTC", "+05:30"})
+    public void sameAsZoneRules(String id) {
+        ZoneId zone = ZoneId.of(id);
+        ZoneRules rules = zone.getRules();
+        ZoneOffsets offsets = ZoneOffsets.of(zone, 1950, 2050);
+
+        ZoneOffsetTransition transition = rules.nextTransition(Instant.parse("1900-01-01T00:00:00Z"));
+        while (transition != null && transition.getInstant().isBefore(Instant.parse("2100-01-01T00:00:00Z"))) {
+            long instant = transition.toEpochSecond() * 1000;
+            for (long epochMilli = instant - 3 * HOUR; epochMilli <= instant + 3 * HOUR; epochMilli += 15 * 60_000) {
+                check(zone, offsets, epochMilli);
+                check(zone, offsets, epochMilli - 1);
+            }
+            transition = rules.nextTransition(transition.getInstant());
+        }
+        Random random = new Random(20190901);
+        for (int i = 0; i < 10_000; i++) {
+            check(zone, offsets, LocalDate.of(1800 + random.nextInt(400), 1, 1).toEpochDay() * ThreeTenDates.MILLIS_PER_DAY + (long) (random.nextDouble() * 366 * ThreeTenDates.MILLIS_PER_DAY));
+        }
+    }
+
+    private static void check(ZoneId zone, ZoneOffsets offsets, long epochMilli) {
+        Instant instant = Instant.ofEpochMilli(epochMilli);
+        LocalDateTime local = LocalDateTime.ofInstant(instant, zone);
+        Assertions.assertEquals(zone.getRules().getOffset(instant).getTotalSeconds() * 1000, offsets.getOffsetMillis(epochMilli), local::toString);
+        Assertions.assertEquals(local, offsets.toLocalDateTime(epochMilli));
+        Assertions.assertEquals(instant.atZone(zone), offsets.toZonedDateTime(epochMilli));
+        Assertions.assertEquals(local.toLocalDate().toEpochDay(), offsets.toEpochDay(epochMilli));
+
+        // The same milliseconds read as a date and time in the zone, which may fall in a gap or an overlap
+        LocalDateTime wallClock = ThreeTenDates.toLocalDateTime(epochMilli);
+        Assertions.assertEquals(wallClock.atZone(zone).toInstant().toEpochMilli(), offsets.toEpochMilli(wallClock), wallClock::toString);
+        Assertions.assertEquals(wallClock.toLocalDate().atStartOfDay(zone).toInstant().toEpochMilli(), offsets.startOfDay(wallClock.toLocalDate().toEpochDay()));
+    }
+
+    @Test
+    public void londonAroundDaylightSaving() {
+        ZoneOffsets london = ZoneOffsets.of(UtilDates.EUROPE_LONDON.toZoneId());
+        // Clocks went forward at 01:00 UTC on 2020-03-29, and back at 01:00 UTC on 2020-10-25
+        Assertions.assertEquals(Instant.parse("2020-03-29T01:30:00Z").toEpochMilli(), london.toEpochMilli(LocalDateTime.parse("2020-03-29T01:30")));
+        Assertions.assertEquals(Instant.parse("2020-03-29T01:00:00Z").toEpochMilli(), london.toEpochMilli(LocalDateTime.parse("2020-03-29T02:00")));
+        Assertions.assertEquals(Instant.parse("2020-10-25T00:30:00Z").toEpochMilli(), london.toEpochMilli(LocalDateTime.parse("2020-10-25T01:30")));
+        Assertions.assertEquals(Instant.parse("2020-10-25T02:00:00Z").toEpochMilli(), london.toEpochMilli(LocalDateTime.parse("2020-10-25T02:00")));
+        Assertions.assertEquals(LocalDateTime.parse("2020-07-01T00:30"), london.toLocalDateTime(Instant.parse("2020-06-30T23:30:00Z").toEpochMilli()));
+        Assertions.assertEquals(ZoneId.of("Europe/London"), london.getZone());
+        Assertions.assertSame(london, ZoneOffsets.of(ZoneId.of("Europe/London")));
+        Assertions.assertEquals(366, london.getTransitionCount());
+    }
+
+    @Test
+    public void fixedOffset() {
+        Assertions.assertEquals(0, ZoneOffsets.UTC.getTransitionCount());
+        Assertions.assertEquals(0, ZoneOffsets.UTC.getOffsetMillis(Long.MIN_VALUE / 2));
+        Assertions.assertEquals(-5 * HOUR, ZoneOffsets.of(ZoneOffset.ofHours(5)).toEpochMilli(0));
+        Assertions.assertEquals(UtilDates.UTC, ZoneOffsets.UTC.getTimeZone());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ZoneOffsets.of(ThreeTenDates.UTC, 2000, 1999));
+    }
+}
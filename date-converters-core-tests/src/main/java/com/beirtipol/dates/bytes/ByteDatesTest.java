@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.bytes;
+
+import com.beirtipol.dates.ConverterRegistry;
+import com.beirtipol.dates.IsoDates;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+
+/**
+ * Checks {@link ByteDates} against {@link IsoDates} reading and writing the same values as text
+ */
+public class ByteDatesTest {
+    private static final long   EPOCH_MILLI = 1567299723456L;
+    private static final String INSTANT     = "2019-09-01T01:02:03.456Z";
+
+    private final ConverterRegistry registry = ConverterRegistry.load();
+
+    @Test
+    public void parse() {
+        byte[] bytes = ("id," + INSTANT + ",20190901\n").getBytes(StandardCharsets.US_ASCII);
+        Assertions.assertEquals(EPOCH_MILLI, ByteDates.parseEpochMilli(bytes, 3, INSTANT.length()));
+        Assertions.assertEquals(LocalDate.of(2019, 9, 1).toEpochDay(), ByteDates.parseEpochDay(bytes, 28, 8));
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+        Assertions.assertEquals(EPOCH_MILLI, ByteDates.parseEpochMilli(buffer, 3, INSTANT.length()));
+        Assertions.assertEquals(LocalDate.of(2019, 9, 1).toEpochDay(), ByteDates.parseEpochDay(buffer, 28, 8));
+        Assertions.assertEquals(bytes.length, buffer.position());
+    }
+
+    @Test
+    public void parseWithRegistry() {
+        byte[] bytes = INSTANT.getBytes(StandardCharsets.US_ASCII);
+        Assertions.assertEquals(LocalDateTime.of(2019, 9, 1, 1, 2, 3, 456_000_000), ByteDates.parse(registry, bytes, 0, bytes.length, LocalDateTime.class));
+        Assertions.assertEquals(new Date(EPOCH_MILLI), ByteDates.parse(registry, ByteBuffer.wrap(bytes), 0, bytes.length, Date.class));
+        Assertions.assertEquals(LocalDate.of(2019, 9, 1), ByteDates.parse(registry, "20190901".getBytes(StandardCharsets.US_ASCII), 0, 8, LocalDate.class));
+        Assertions.assertEquals(EPOCH_MILLI, ByteDates.parse(registry, bytes, 0, bytes.length, ZonedDateTime.class).toInstant().toEpochMilli());
+    }
+
+    @Test
+    public void columns() {
+        // Fixed-width records of an id and a date, then a newline
+        String[] dates = {"2019-09-01", "1969-12-31", "0001-01-01", "9999-12-31"};
+        StringBuilder records = new StringBuilder();
+        for (int i = 0; i < dates.length; i++) {
+            records.append(String.format("%04d", i)).append(dates[i]).append('\n');
+        }
+        byte[] bytes = records.toString().getBytes(StandardCharsets.US_ASCII);
+        int[] epochDays = ByteDates.parseEpochDays(bytes, 4, 10, 15, dates.length);
+        long[] epochMillis = ByteDates.parseEpochMillis(ByteBuffer.wrap(bytes), 4, 10, 15, dates.length);
+        for (int i = 0; i < dates.length; i++) {
+            Assertions.assertEquals(LocalDate.parse(dates[i]).toEpochDay(), epochDays[i]);
+            Assertions.assertEquals(IsoDates.parseEpochMilli(dates[i]), epochMillis[i]);
+        }
+        Assertions.assertArrayEquals(epochDays, ByteDates.parseEpochDays(ByteBuffer.wrap(bytes), 4, 10, 15, new int[dates.length]));
+        Assertions.assertArrayEquals(epochMillis, ByteDates.parseEpochMillis(bytes, 4, 10, 15, new long[dates.length]));
+
+        ByteBuffer written = ByteDates.writeDates(epochDays, (byte) '\n', ByteBuffer.allocate(64));
+        Assertions.assertEquals(String.join("\n", dates) + "\n", new String(written.array(), 0, written.position(), StandardCharsets.US_ASCII));
+        written = ByteDates.writeInstants(new long[]{EPOCH_MILLI, 0}, (byte) ',', ByteBuffer.allocate(64));
+        Assertions.assertEquals(INSTANT + ",1970-01-01T00:00:00Z,", new String(written.array(), 0, written.position(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void write() {
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        long epochDay = LocalDate.of(2019, 9, 1).toEpochDay();
+        ByteDates.writeDate(epochDay, buffer).put((byte) ' ');
+        ByteDates.writeBasicDate(epochDay, buffer).put((byte) ' ');
+        ByteDates.writeDateTime(EPOCH_MILLI / 1000, 456_000_000, buffer).put((byte) ' ');
+        ByteDates.writeOffsetDateTime(EPOCH_MILLI / 1000, 456_000_000, 3600, buffer).put((byte) ' ');
+        ByteDates.writeInstant(EPOCH_MILLI, buffer);
+        Assertions.assertEquals("2019-09-01 20190901 2019-09-01T01:02:03.456 2019-09-01T02:02:03.456+01:00 " + INSTANT,
+                new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void invalid() {
+        byte[] bytes = "2019-09-01T01:02:03é".getBytes(StandardCharsets.UTF_8);
+        DateTimeParseException e = Assertions.assertThrows(DateTimeParseException.class, () -> ByteDates.parseEpochMilli(bytes, 0, bytes.length));
+        Assertions.assertEquals(19, e.getErrorIndex());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ByteDates.parseEpochDay(bytes, 10, bytes.length));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ByteDates.parseEpochDay(ByteBuffer.wrap(bytes), -1, 10));
+    }
+}
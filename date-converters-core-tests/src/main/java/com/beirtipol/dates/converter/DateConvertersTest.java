@@ -17,6 +17,7 @@
 
 package com.beirtipol.dates.converter;
 
+import com.beirtipol.dates.ConverterRegistry;
 import com.beirtipol.dates.Converters;
 import com.beirtipol.dates.ThreeTenDates;
 import com.beirtipol.dates.UtilDates;
@@ -57,6 +58,8 @@ public class DateConvertersTest {
     @Autowired
     protected Converters converters;
 
+    protected ConverterRegistry registry = ConverterRegistry.load();
+
     private static DatatypeFactory dtFactory;
 
     @BeforeAll
@@ -140,4 +143,52 @@ public class DateConvertersTest {
     public void fromNull_isNull(Class<?> clazz) {
         assertNull(converters.from(null, clazz));
     }
+
+    /**
+     * The scalar paths must agree with converting through {@link ZonedDateTime} and {@link LocalDate}
+     *
+     * @param clazz the class of the expected value to convert
+     */
+    @ParameterizedTest
+    @MethodSource("supportedClasses")
+    public void toEpochMilli(Class<?> clazz) {
+        Object from = expectedResults.get(clazz);
+        assertEquals(converters.from(from, ZonedDateTime.class).toInstant().toEpochMilli(), converters.toEpochMilli(from));
+    }
+
+    @ParameterizedTest
+    @MethodSource("supportedClasses")
+    public void toEpochDay(Class<?> clazz) {
+        Object from = expectedResults.get(clazz);
+        assertEquals(converters.from(from, LocalDate.class).toEpochDay(), converters.toEpochDay(from));
+    }
+
+    @ParameterizedTest
+    @MethodSource("supportedClasses")
+    public void fromEpochMilli(Class<?> clazz) {
+        long epochMilli = converters.from(expectedResults.get(clazz), ZonedDateTime.class).toInstant().toEpochMilli();
+        assertEquals(expectedResults.get(clazz), converters.fromEpochMilli(epochMilli, clazz));
+    }
+
+    @ParameterizedTest
+    @MethodSource("supportedClasses")
+    public void fromEpochDay(Class<?> clazz) {
+        LocalDate date = converters.from(expectedResults.get(clazz), LocalDate.class);
+        assertEquals(converters.from(date, clazz), converters.fromEpochDay((int) date.toEpochDay(), clazz));
+    }
+
+    /**
+     * The converters found by {@link ConverterRegistry#load()} must give the same results without Spring
+     *
+     * @param clazz the class of the expected value to convert
+     */
+    @ParameterizedTest
+    @MethodSource("supportedClasses")
+    public void withoutSpring(Class<?> clazz) {
+        Object from = expectedResults.get(clazz);
+        for (Map.Entry<Class<?>, Object> expected : expectedResults.entrySet()) {
+            assertEquals(expected.getValue(), registry.from(from, expected.getKey()), "Failed conversion to " + expected.getKey());
+        }
+        assertEquals(converters.toEpochMilli(from), registry.toEpochMilli(from));
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.converter;
+
+import com.beirtipol.dates.ConverterRegistry;
+import com.beirtipol.dates.ThreeTenDates;
+import com.beirtipol.dates.UtilDates;
+import com.beirtipol.dates.XMLDates;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+import java.util.stream.Stream;
+
+/**
+ * Checks {@link StringConverters} in both directions for each of the core types
+ */
+public class StringConvertersTest {
+    private static final long   EPOCH_MILLI = 1567299723456L;
+    private static final String INSTANT     = "2019-09-01T01:02:03.456Z";
+
+    private final ConverterRegistry registry = ConverterRegistry.load();
+
+    private static Stream<Arguments> values() {
+        Timestamp timestamp = new Timestamp(EPOCH_MILLI);
+        timestamp.setNanos(456_789_000);
+        Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone("Asia/Kolkata"));
+        calendar.setTimeInMillis(EPOCH_MILLI);
+        return Stream.of(
+                Arguments.of(LocalDate.class, LocalDate.of(2019, 9, 1), "2019-09-01"),
+                Arguments.of(LocalDateTime.class, LocalDateTime.of(2019, 9, 1, 1, 2, 3, 456_000_000), "2019-09-01T01:02:03.456"),
+                Arguments.of(ZonedDateTime.class, ZonedDateTime.of(2019, 9, 1, 1, 2, 3, 456_000_000, ThreeTenDates.UTC), INSTANT),
+                Arguments.of(ZonedDateTime.class, ZonedDateTime.of(2019, 9, 1, 1, 2, 3, 456_000_000, ZoneId.of("America/New_York")), "2019-09-01T01:02:03.456-04:00"),
+                Arguments.of(Date.class, new Date(EPOCH_MILLI), INSTANT),
+                Arguments.of(java.sql.Date.class, new java.sql.Date(EPOCH_MILLI), "2019-09-01"),
+                Arguments.of(Timestamp.class, timestamp, "2019-09-01T01:02:03.456789Z"),
+                Arguments.of(Calendar.class, UtilDates.newCalendar(EPOCH_MILLI), INSTANT),
+                Arguments.of(Calendar.class, calendar, "2019-09-01T06:32:03.456+05:30"),
+                Arguments.of(XMLGregorianCalendar.class, XMLDates.ofEpochMilli(EPOCH_MILLI), INSTANT),
+                Arguments.of(XMLGregorianCalendar.class, XMLDates.ofEpochMilli(EPOCH_MILLI, -3_600_000), "2019-09-01T00:02:03.456-01:00"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("values")
+    public void format(Class<?> fromClass, Object from, String expected) {
+        Assertions.assertEquals(expected, registry.from(from, String.class));
+    }
+
+    @ParameterizedTest
+    @MethodSource("values")
+    public void parse(Class<?> toClass, Object expected, String from) {
+        // Calendar is read in UTC, as from any other type, and ZonedDateTime with the offset rather than the region
+        Object result = registry.from(from, toClass);
+        if (expected instanceof java.sql.Date) {
+            Assertions.assertEquals(LocalDate.of(2019, 9, 1), ((java.sql.Date) result).toLocalDate());
+        } else if (expected instanceof ZonedDateTime) {
+            Assertions.assertEquals(((ZonedDateTime) expected).toOffsetDateTime(), ((ZonedDateTime) result).toOffsetDateTime());
+        } else if (expected instanceof Calendar) {
+            Assertions.assertEquals(((Calendar) expected).getTimeInMillis(), ((Calendar) result).getTimeInMillis());
+        } else if (expected instanceof XMLGregorianCalendar) {
+            Assertions.assertEquals(XMLDates.toEpochMilli((XMLGregorianCalendar) expected), XMLDates.toEpochMilli((XMLGregorianCalendar) result));
+            Assertions.assertEquals(((XMLGregorianCalendar) expected).getTimezone(), ((XMLGregorianCalendar) result).getTimezone());
+        } else {
+            Assertions.assertEquals(expected, result);
+        }
+    }
+
+    @Test
+    public void fromCharSequence() {
+        StringBuilder text = new StringBuilder("2019-09-01T02:02:03.456+01:00");
+        Assertions.assertEquals(LocalDate.of(2019, 9, 1), registry.from(text, LocalDate.class));
+        Assertions.assertEquals(LocalDateTime.of(2019, 9, 1, 2, 2, 3, 456_000_000), registry.from(text, LocalDateTime.class));
+        Assertions.assertEquals(new Date(EPOCH_MILLI), registry.from(text, Date.class));
+        Assertions.assertEquals(ZonedDateTime.of(2019, 9, 1, 2, 2, 3, 456_000_000, ZoneOffset.ofHours(1)), registry.from(text, ZonedDateTime.class));
+        Assertions.assertEquals(ZonedDateTime.of(2019, 9, 1, 1, 2, 3, 456_000_000, ThreeTenDates.UTC), registry.from(INSTANT, ZonedDateTime.class));
+        Assertions.assertEquals(EPOCH_MILLI, registry.toEpochMilli(text));
+        Assertions.assertEquals(LocalDate.of(2019, 9, 1).toEpochDay(), registry.toEpochDay(text));
+    }
+
+    @Test
+    public void inAnotherZone() {
+        // Text without an offset is read in the zone of the registry, as a LocalDateTime is, while text with one is not
+        ConverterRegistry london = ConverterRegistry.load();
+        london.setZone(UtilDates.EUROPE_LONDON.toZoneId());
+        LocalDateTime dateTime = LocalDateTime.of(2019, 9, 1, 10, 0);
+        Date expected = london.from(dateTime, Date.class);
+        Assertions.assertEquals(expected, london.from("2019-09-01T10:00:00", Date.class));
+        Assertions.assertEquals(expected.getTime(), london.toEpochMilli("2019-09-01T10:00:00"));
+        Assertions.assertEquals(expected.getTime(), london.from("2019-09-01T10:00:00", Calendar.class).getTimeInMillis());
+        Assertions.assertEquals(dateTime.atZone(UtilDates.EUROPE_LONDON.toZoneId()), london.from("2019-09-01T10:00:00", ZonedDateTime.class));
+        Assertions.assertEquals(60, london.from("2019-09-01T10:00:00", XMLGregorianCalendar.class).getTimezone());
+        Assertions.assertEquals(new Date(EPOCH_MILLI), london.from(INSTANT, Date.class));
+
+        java.sql.Date date = london.from(LocalDate.of(2019, 9, 1), java.sql.Date.class);
+        Assertions.assertEquals("2019-09-01", london.from(date, String.class));
+        Assertions.assertEquals(date, london.from("2019-09-01", java.sql.Date.class));
+    }
+}
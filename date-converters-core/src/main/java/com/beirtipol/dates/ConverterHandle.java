@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import java.util.function.Function;
+
+/**
+ * A strongly typed converter for a fixed 'from' and 'to' class, obtained from
+ * {@link ConverterRegistry#handle(Class, Class)}. Keep it in a field and call {@link #apply(Object)} instead of
+ * {@link ConverterRegistry#from(Object, Class)} when the 'from' type never changes.
+ * <p>
+ * The converter is resolved on the first call and then reused, so every call after that is a check that the registry
+ * has not changed and a direct call to the converter. Registering a converter or a hub, or calibrating, discards it
+ * just as it does the registry's own lookups, so a handle always uses the same converter as
+ * {@link ConverterRegistry#from(Object, Class)}. Resolving lazily means handles can be created while converters are
+ * still being registered, e.g. from inside a {@link Converter} bean method.
+ * <p>
+ * The converter is resolved for the declared 'from' class. If you pass in a subclass which has a more specific
+ * converter of its own, that converter is not used.
+ *
+ * @param <S> the type to convert from
+ * @param <T> the type to convert to
+ * @author beirtipol@gmail.com
+ */
+public final class ConverterHandle<S, T> implements Function<S, T> {
+    private final ConverterRegistry converters;
+    private final Class<S>          from;
+    private final Class<T>          to;
+
+    private volatile Resolved<S, T> resolved;
+
+    ConverterHandle(ConverterRegistry converters, Class<S> from, Class<T> to) {
+        this.converters = converters;
+        this.from       = from;
+        this.to         = to;
+    }
+
+    public Class<S> getFrom() {
+        return from;
+    }
+
+    public Class<T> getTo() {
+        return to;
+    }
+
+    /**
+     * @param from the object to convert. May be null, in which case null is returned
+     * @return the converted object
+     * @throws IllegalArgumentException if there is no converter available for the pair, or a
+     *                                  {@link org.springframework.beans.factory.NoSuchBeanDefinitionException} if the
+     *                                  handle came from {@link Converters}
+     */
+    @Override
+    public T apply(S from) {
+        if (from == null) {
+            return null;
+        }
+        // Read before resolving, so that anything registered while resolving is picked up on the next call
+        Object generation = converters.generation();
+        Resolved<S, T> current = resolved;
+        if (current == null || current.generation != generation) {
+            // Resolution gives the same answer within a generation, so it does not matter if two threads race to do it
+            current  = new Resolved<>(generation, converters.converter(this.from, to));
+            resolved = current;
+        }
+        return current.converter.apply(from);
+    }
+
+    @Override
+    public String toString() {
+        return "ConverterHandle[from=" + from + ", to=" + to + "]";
+    }
+
+    private static final class Resolved<S, T> {
+        private final Object         generation;
+        private final Function<S, T> converter;
+
+        private Resolved(Object generation, Function<S, T> converter) {
+            this.generation = generation;
+            this.converter  = converter;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The live counters behind {@link ConverterStats}, one {@link Pair} for each (from, to) seen. Every counter is a
+ * {@link LongAdder}, so threads converting the same pair do not contend, and the {@link Pair} for a call is found
+ * through {@link ClassValue} tables so that recording does not allocate.
+ *
+ * @author beirtipol@gmail.com
+ */
+final class ConverterMetrics {
+    private final Map<ConverterKey, Pair> pairs = new ConcurrentHashMap<>();
+
+    private final ClassValue<ClassValue<Pair>> byPair = new ClassValue<>() {
+        @Override
+        protected ClassValue<Pair> computeValue(Class<?> to) {
+            return new ClassValue<>() {
+                @Override
+                protected Pair computeValue(Class<?> from) {
+                    return pairs.computeIfAbsent(new ConverterKey(from, to), Pair::new);
+                }
+            };
+        }
+    };
+
+    private final ClassValue<Pair> byNullTo = new ClassValue<>() {
+        @Override
+        protected Pair computeValue(Class<?> to) {
+            return pairs.computeIfAbsent(new ConverterKey(null, to), Pair::new);
+        }
+    };
+
+    Pair get(Class<?> from, Class<?> to) {
+        return byPair.get(to).get(from);
+    }
+
+    /**
+     * @return the counters for a null 'from', whose class is not known
+     */
+    Pair getNull(Class<?> to) {
+        return byNullTo.get(to);
+    }
+
+    /**
+     * @return a copy of every counter, sorted by 'from' and then 'to' class name
+     */
+    Map<ConverterKey, ConverterStats> snapshot() {
+        Map<ConverterKey, ConverterStats> result = new TreeMap<>(ConverterStats.KEY_ORDER);
+        pairs.forEach((key, pair) -> result.put(key, pair.snapshot()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    static final class Pair {
+        private final ConverterKey key;
+        private final LongAdder    invocations = new LongAdder();
+        private final LongAdder    nulls       = new LongAdder();
+        private final LongAdder    fallbacks   = new LongAdder();
+        private final LongAdder    failures    = new LongAdder();
+        private final LongAdder    totalNanos  = new LongAdder();
+        private final LongAdder[]  histogram   = new LongAdder[ConverterStats.BUCKETS];
+
+        private Pair(ConverterKey key) {
+            this.key = key;
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        void recordNull() {
+            nulls.increment();
+        }
+
+        void recordFallback() {
+            fallbacks.increment();
+        }
+
+        void recordFailure() {
+            failures.increment();
+        }
+
+        void recordInvocation(long nanos) {
+            invocations.increment();
+            totalNanos.add(nanos);
+            histogram[ConverterStats.bucket(nanos)].increment();
+        }
+
+        private ConverterStats snapshot() {
+            long[] counts = new long[histogram.length];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = histogram[i].sum();
+            }
+            return new ConverterStats(key, invocations.sum(), nulls.sum(), fallbacks.sum(), failures.sum(), totalNanos.sum(), counts);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+/**
+ * Registers a set of converters with a {@link ConverterRegistry}. Implementations are found with
+ * {@link java.util.ServiceLoader} by {@link ConverterRegistry#load()}, so list them in
+ * {@code META-INF/services/com.beirtipol.dates.ConverterProvider}.
+ * <p>
+ * Each module of this project has its provider generated from its {@link Converter} methods by the
+ * date-converters-processor annotation processor, which also writes the services entry. Extensions can do the same
+ * by adding it as a 'provided' dependency and naming the provider with
+ * {@code -Adateconverters.provider=<fully qualified class name>}.
+ * <p>
+ * Converters which delegate to others should use {@link ConverterRegistry#handle(Class, Class)} on the registry they
+ * are given, as the handle is resolved on first use and so does not depend on the order providers are loaded in.
+ *
+ * @author beirtipol@gmail.com
+ */
+public interface ConverterProvider {
+
+    /**
+     * Register this provider's converters, usually with {@link ConverterRegistry#registerAll(Object)}
+     */
+    void registerConverters(ConverterRegistry registry);
+}
@@ -0,0 +1,853 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link ConverterRegistry} indexes converters by the 'from' and 'to' types they are registered with. Its main method
+ * is {@link #from(Object, Class)} which allows passing in any {@link Object} along with the desired return type
+ * {@link Class} and will search for an appropriate converter to apply the conversion. When the 'from' type is known up
+ * front, {@link #handle(Class, Class)} gives a {@link ConverterHandle} which skips the search on every call.
+ * <p>
+ * A converter may also use {@code long.class} for epoch milliseconds or {@code int.class} for epoch days as its 'from'
+ * or 'to' type, in which case it is the matching primitive functional interface rather than a {@link Function}. These
+ * back {@link #toEpochMilli(Object)}, {@link #toEpochDay(Object)}, {@link #fromEpochMilli(long, Class)} and
+ * {@link #fromEpochDay(int, Class)}, which avoid boxing and intermediate objects. In the same way, a module may use
+ * {@code double.class} for a number which it gives a meaning to, such as an Excel serial date, behind
+ * {@link #toDouble(Object)} and {@link #fromDouble(double, Class)}.
+ * <p>
+ * Nothing here needs Spring. {@link #load()} gives a registry holding the converters of every {@link ConverterProvider}
+ * found by {@link ServiceLoader}, and each module of this project provides one. Within a Spring application, use
+ * {@link Converters} instead, which registers the {@link Converter} beans of the application context.
+ * <p>
+ * Types without a timezone, such as {@link java.time.LocalDateTime}, are read in the zone of the registry, which is UTC
+ * unless {@link #setZone(ZoneId)} says otherwise, and the core converters create any {@link java.util.Calendar} or
+ * {@link java.time.ZonedDateTime} in it. {@link #from(Object, Class, ZoneId)} uses a different zone for one call.
+ * <p>
+ * Converters may be registered at any time and all methods are safe to call from multiple threads. Registering
+ * discards every cached lookup, so it is best done up front.
+ *
+ * @author beirtipol@gmail.com
+ * @see ConverterProvider
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class ConverterRegistry {
+    /**
+     * The number of elements below which {@link #convertAllParallel(Object[], Class, Object[], ForkJoinPool)} stops
+     * splitting the work
+     */
+    public static final int PARALLEL_THRESHOLD = 4096;
+    /**
+     * The number of calls {@link #calibrate()} warms each converter up with, and then times
+     */
+    public static final int CALIBRATION_ITERATIONS = 10_000;
+    /**
+     * The hubs which {@link #load()} and {@link Converters} let every planned chain pass through, in order of
+     * preference. Each of them keeps the instant, so neither the time of day nor the offset of a zoned value is lost
+     */
+    public static final List<Class<?>> CORE_HUBS = List.of(ZonedDateTime.class, Timestamp.class, Date.class, Calendar.class, XMLGregorianCalendar.class);
+
+    private final ConverterResolver resolver = new ConverterResolver();
+
+    /**
+     * Null unless stats are enabled, so that {@link #from(Object, Class)} only has to check this to skip recording them
+     */
+    private volatile ConverterMetrics metrics;
+
+    private volatile ZoneOffsets zone = ZoneOffsets.UTC;
+
+    /**
+     * The zone of the current {@link #from(Object, Class, ZoneId)} call on each thread, which is only looked up once
+     * 'callZones' is set so that registries which never use it skip the {@link ThreadLocal}
+     */
+    private final ThreadLocal<ZoneOffsets> callZone = new ThreadLocal<>();
+    private volatile boolean callZones;
+
+    /**
+     * @return a new registry holding the converters of every {@link ConverterProvider} visible to the context class
+     * loader of the current thread
+     */
+    public static ConverterRegistry load() {
+        return load(Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * @return a new registry holding the converters of every {@link ConverterProvider} visible to 'classLoader'
+     */
+    public static ConverterRegistry load(ClassLoader classLoader) {
+        ConverterRegistry registry = new ConverterRegistry();
+        registry.registerCoreHubs();
+        for (ConverterProvider provider : ServiceLoader.load(ConverterProvider.class, classLoader)) {
+            provider.registerConverters(registry);
+        }
+        return registry;
+    }
+
+    /**
+     * Register a converter, replacing any already registered for the same pair.
+     *
+     * @param converter a {@link Function}, or the primitive functional interface matching a {@code long.class},
+     *                  {@code int.class} or {@code double.class} 'from' or 'to'
+     */
+    public void register(Class<?> from, Class<?> to, Object converter) {
+        resolver.register(Objects.requireNonNull(from, "from"), Objects.requireNonNull(to, "to"), Objects.requireNonNull(converter, "converter"));
+    }
+
+    /**
+     * Let every chain of converters planned by {@link #from(Object, Class)} pass through 'hub'. Until a hub is
+     * registered a chain may pass through any class, and after that only through hubs, so that it does not go through
+     * a class which loses part of the value. {@link #load()} and {@link Converters} register {@link #CORE_HUBS}.
+     * Chains which cost the same go through the hub registered first.
+     */
+    public void registerHub(Class<?> hub) {
+        resolver.registerHub(Objects.requireNonNull(hub, "hub"));
+    }
+
+    /**
+     * Let chains which start or end at 'type', or at a subclass of it, pass through 'hub' instead of the hubs for
+     * every chain. This lets a module route its own types through a hub which would lose part of other values, e.g. a
+     * date-only type through {@link LocalDate}, however fast the other hubs are. Call it from the constructor of the
+     * class declaring the converters.
+     *
+     * @see #registerHub(Class)
+     */
+    public void registerHub(Class<?> type, Class<?> hub) {
+        resolver.registerHub(Objects.requireNonNull(type, "type"), Objects.requireNonNull(hub, "hub"));
+    }
+
+    /**
+     * Register {@link #CORE_HUBS}, and {@link LocalDate} for epoch days and {@link java.sql.Date} as they have no time
+     * of day to lose
+     */
+    void registerCoreHubs() {
+        CORE_HUBS.forEach(this::registerHub);
+        registerHub(int.class, LocalDate.class);
+        registerHub(java.sql.Date.class, LocalDate.class);
+    }
+
+    /**
+     * Register the result of every public, no-argument method of 'source' which is annotated with {@link Converter},
+     * once for each of its 'from' types. This lets a hand-written {@link ConverterProvider} register the same classes
+     * which Spring picks up as {@link Converter} beans. The providers generated by date-converters-processor call each
+     * method directly instead.
+     *
+     * @throws IllegalArgumentException if one of the methods throws
+     */
+    public void registerAll(Object source) {
+        registerAll(source, false);
+    }
+
+    /**
+     * As {@link #registerAll(Object)}, for replacing converters which are already registered, e.g. with those of an
+     * instance of the same class configured differently. Unlike {@link #register(Class, Class, Object)}, this does not
+     * log a warning for each pair it replaces.
+     *
+     * @throws IllegalArgumentException if one of the methods throws
+     */
+    public void replaceAll(Object source) {
+        registerAll(source, true);
+    }
+
+    private void registerAll(Object source, boolean replace) {
+        for (Method method : source.getClass().getMethods()) {
+            Converter annotation = method.getAnnotation(Converter.class);
+            if (annotation != null && method.getParameterCount() == 0) {
+                Object converter = invoke(source, method);
+                for (Class<?> from : annotation.from()) {
+                    resolver.register(from, annotation.to(), converter, replace);
+                }
+            }
+        }
+    }
+
+    private static Object invoke(Object source, Method method) {
+        try {
+            return method.invoke(source);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalArgumentException(String.format("Could not get the converter from %s", method), e);
+        }
+    }
+
+    /**
+     * @return every pair registered so far. Pairs reached through a superclass, an interface or a chain of converters
+     * are not included
+     */
+    public Set<ConverterKey> getRegisteredPairs() {
+        return Collections.unmodifiableSet(resolver.keys());
+    }
+
+    /**
+     * Get the converter {@link #from(Object, Class)} would use, e.g. to call it without any lookup at all. Prefer
+     * {@link #handle(Class, Class)} unless 'from' or 'to' is primitive.
+     *
+     * @return a {@link Function}, or the primitive functional interface matching a {@code long.class},
+     * {@code int.class} or {@code double.class} 'from' or 'to'
+     * @throws IllegalArgumentException if there is no converter available for the pair
+     */
+    public Object getConverter(Class<?> from, Class<?> to) {
+        return resolved(Objects.requireNonNull(from, "from"), Objects.requireNonNull(to, "to"));
+    }
+
+    /**
+     * Start or stop recording {@link ConverterStats} for each pair converted by {@link #from(Object, Class)}. Recording
+     * adds two calls to {@link System#nanoTime()} and a few uncontended counter increments to each conversion, but no
+     * allocation once a pair has been seen. Conversions through {@link #handle(Class, Class)}, the bulk methods and the
+     * epoch methods are not recorded. Stopping discards everything recorded so far, and enabling when already enabled
+     * does nothing.
+     */
+    public synchronized void setStatsEnabled(boolean enabled) {
+        if (!enabled) {
+            metrics = null;
+        } else if (metrics == null) {
+            metrics = new ConverterMetrics();
+        }
+    }
+
+    public boolean isStatsEnabled() {
+        return metrics != null;
+    }
+
+    /**
+     * @return a snapshot of the stats for every pair converted since they were enabled, sorted by 'from' and then 'to'
+     * class name. Empty if stats are not enabled
+     * @see #setStatsEnabled(boolean)
+     */
+    public Map<ConverterKey, ConverterStats> getStats() {
+        ConverterMetrics current = metrics;
+        return current == null ? Collections.emptyMap() : current.snapshot();
+    }
+
+    /**
+     * Set the zone which types without a timezone are read in, and which new {@link java.util.Calendar} and
+     * {@link java.time.ZonedDateTime} instances are created in. This takes effect for every converter of the
+     * registry, including those already held by a {@link ConverterHandle}. The offsets are shared from
+     * {@link ZoneOffsets#of(ZoneId)}.
+     */
+    public void setZone(ZoneId zone) {
+        setZone(ZoneOffsets.of(zone));
+    }
+
+    /**
+     * As {@link #setZone(ZoneId)}, with offsets built for a range of years by {@link ZoneOffsets#of(ZoneId, int, int)}.
+     */
+    public void setZone(ZoneOffsets zone) {
+        this.zone = Objects.requireNonNull(zone, "zone");
+    }
+
+    /**
+     * @return the zone set by {@link #setZone(ZoneId)}, UTC by default
+     */
+    public ZoneId getZone() {
+        return zone.getZone();
+    }
+
+    /**
+     * Get the offsets which converters should use for the current conversion: those of the zone given to
+     * {@link #from(Object, Class, ZoneId)} when called within it, otherwise those of {@link #getZone()}. Converters
+     * which need a zone should call this for every conversion rather than keeping the result.
+     */
+    public ZoneOffsets getZoneOffsets() {
+        if (callZones) {
+            ZoneOffsets current = callZone.get();
+            if (current != null) {
+                return current;
+            }
+        }
+        return zone;
+    }
+
+    /**
+     * Time every registered converter so that chains are planned by how long they take rather than by how many
+     * converters they use. This is optional and takes a second or two with the bundled converters, so call it once at
+     * startup if at all, after every converter has been registered. Converters registered afterwards are planned with
+     * the average measured time until this is called again.
+     *
+     * @see #explain(Class, Class)
+     */
+    public void calibrate() {
+        calibrate(CALIBRATION_ITERATIONS);
+    }
+
+    /**
+     * As {@link #calibrate()}, with the number of calls to warm each converter up with and then time.
+     */
+    public void calibrate(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException(String.format("Iterations must be positive but was %s", iterations));
+        }
+        resolver.calibrate(iterations);
+    }
+
+    /**
+     * Describe how 'from' would be converted to 'to': the converter used, or each converter in the planned chain, and
+     * the nanoseconds per call measured for each by {@link #calibrate()}. This is a quick way to see why a conversion
+     * is slow without attaching a profiler. For example:
+     * <pre>
+     * com.mydate.dates.MyDate to java.util.Calendar: 61.4 ns/op
+     *   com.mydate.dates.MyDate -&gt; java.time.LocalDate: 4.2 ns/op
+     *   java.time.LocalDate -&gt; java.util.Calendar: 57.2 ns/op
+     * </pre>
+     *
+     * @return the description, over one or more lines. This says so if there is no converter for the pair
+     */
+    public String explain(Class<?> from, Class<?> to) {
+        return resolver.explain(Objects.requireNonNull(from, "from"), Objects.requireNonNull(to, "to"));
+    }
+
+    /**
+     * Convert 'from' to an instance of 'to'. If there is no converter registered for the runtime class of 'from', the
+     * converters registered for its superclasses and then its interfaces are tried. If none of those match either, the
+     * shortest chain of registered converters between the two is used, e.g. via {@link java.time.ZonedDateTime}, or
+     * the fastest if {@link #calibrate()} has been called. The converter found for each pair of classes is remembered,
+     * so this search is only done on the first call.
+     *
+     * @param from the object to convert. May be null, in which case null is returned
+     * @param to   the desired return type
+     * @return the converted object
+     * @throws IllegalArgumentException if there is no converter available for the pair, or 'to' is primitive
+     */
+    public <T> T from(Object from, Class<T> to) {
+        requireObjectTarget(to);
+        ConverterMetrics current = metrics;
+        if (current != null) {
+            return recordedFrom(current, from, to);
+        }
+        if (from == null) {
+            return null;
+        }
+
+        Function converter = converter(from.getClass(), to);
+        return (T) converter.apply(from);
+    }
+
+    /**
+     * As {@link #from(Object, Class)}, reading types without a timezone in 'zone' rather than in {@link #getZone()}.
+     * This applies to every converter used for this call, including those called by other converters, on the current
+     * thread. The offsets are shared from {@link ZoneOffsets#of(ZoneId)}.
+     *
+     * @param from the object to convert. May be null, in which case null is returned
+     * @param to   the desired return type
+     * @param zone the zone to convert in
+     * @return the converted object
+     * @throws IllegalArgumentException if there is no converter available for the pair
+     */
+    public <T> T from(Object from, Class<T> to, ZoneId zone) {
+        ZoneOffsets offsets = ZoneOffsets.of(zone);
+        ZoneOffsets previous = callZone.get();
+        callZones = true;
+        callZone.set(offsets);
+        try {
+            return from(from, to);
+        } finally {
+            if (previous == null) {
+                callZone.remove();
+            } else {
+                callZone.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Check whether {@link #from(Object, Class)} would find a converter for an instance of 'from', in the same way and
+     * with the same memoization, so a pair which has no converter costs one lookup and no allocation every time after
+     * the first. This is always false for a primitive 'to', which {@link #from(Object, Class)} can't return.
+     */
+    public boolean canConvert(Class<?> from, Class<?> to) {
+        Objects.requireNonNull(from, "from");
+        return !Objects.requireNonNull(to, "to").isPrimitive() && resolver.resolve(from, to).isResolved();
+    }
+
+    /**
+     * Convert 'from' to an instance of 'to' if there is a converter for it, without the cost of building and throwing
+     * an exception if there is not. Use this when probing types which are expected to be missing. Misses are memoized,
+     * so a repeated miss costs one lookup and no allocation.
+     *
+     * @return the converted object, or empty if there is no converter for the pair or 'from' is null
+     * @throws IllegalArgumentException if 'to' is primitive
+     */
+    public <T> Optional<T> tryFrom(Object from, Class<T> to) {
+        return Optional.ofNullable(fromOrDefault(from, to, null));
+    }
+
+    /**
+     * As {@link #tryFrom(Object, Class)}, but without creating an {@link Optional}.
+     *
+     * @return the converted object, or 'defaultValue' if there is no converter for the pair or 'from' is null
+     * @throws IllegalArgumentException if 'to' is primitive
+     */
+    public <T> T fromOrDefault(Object from, Class<T> to, T defaultValue) {
+        requireObjectTarget(to);
+        if (from == null) {
+            return defaultValue;
+        }
+        Object converter = resolver.resolve(from.getClass(), to).converter;
+        if (converter == null) {
+            return defaultValue;
+        }
+        return (T) ((Function) converter).apply(from);
+    }
+
+    private <T> T recordedFrom(ConverterMetrics current, Object from, Class<T> to) {
+        if (from == null) {
+            current.getNull(to).recordNull();
+            return null;
+        }
+        Class<?> fromClass = from.getClass();
+        ConverterMetrics.Pair pair = current.get(fromClass, to);
+        ConverterResolver.Resolution resolution = resolver.resolve(fromClass, to);
+        if (!resolution.isResolved()) {
+            pair.recordFailure();
+            throw noConverter(fromClass, to);
+        }
+        if (resolution.fallback) {
+            pair.recordFallback();
+        }
+        long start = System.nanoTime();
+        try {
+            return (T) ((Function) resolution.converter).apply(from);
+        } finally {
+            pair.recordInvocation(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Get the instant of 'from' without creating any intermediate objects. Types without a timezone are taken to be in
+     * {@link #getZone()}, as they are by {@link #from(Object, Class)}, so this gives the same answer as converting to
+     * {@link java.time.ZonedDateTime} and calling {@code toInstant().toEpochMilli()}.
+     *
+     * @param from the object to convert. Must not be null
+     * @return milliseconds since 1970-01-01T00:00:00Z
+     * @throws IllegalArgumentException if there is no {@link ToLongFunction} registered 'to' {@code long.class}
+     *                                  for the class of 'from'
+     */
+    public long toEpochMilli(Object from) {
+        ToLongFunction converter = (ToLongFunction) resolved(Objects.requireNonNull(from, "from").getClass(), long.class);
+        return converter.applyAsLong(from);
+    }
+
+    /**
+     * Get the date of 'from' as a count of days since 1970-01-01 without creating any intermediate objects. This gives
+     * the same answer as converting to {@link java.time.LocalDate} and calling {@code toEpochDay()}.
+     *
+     * @param from the object to convert. Must not be null
+     * @return days since 1970-01-01
+     * @throws IllegalArgumentException if there is no {@link ToIntFunction} registered 'to' {@code int.class} for
+     *                                  the class of 'from'
+     */
+    public int toEpochDay(Object from) {
+        ToIntFunction converter = (ToIntFunction) resolved(Objects.requireNonNull(from, "from").getClass(), int.class);
+        return converter.applyAsInt(from);
+    }
+
+    /**
+     * Create an instance of 'to' at an instant. The only object created is the result.
+     *
+     * @param epochMilli milliseconds since 1970-01-01T00:00:00Z
+     * @param to         the desired return type
+     * @throws IllegalArgumentException if there is no {@link LongFunction} registered 'from' {@code long.class}
+     *                                  for 'to'
+     */
+    public <T> T fromEpochMilli(long epochMilli, Class<T> to) {
+        LongFunction<T> converter = (LongFunction<T>) resolved(long.class, to);
+        return converter.apply(epochMilli);
+    }
+
+    /**
+     * Create an instance of 'to' at the start of a day in {@link #getZone()}. The only object created is the result.
+     *
+     * @param epochDay days since 1970-01-01
+     * @param to       the desired return type
+     * @throws IllegalArgumentException if there is no {@link IntFunction} registered 'from' {@code int.class} for
+     *                                  'to'
+     */
+    public <T> T fromEpochDay(int epochDay, Class<T> to) {
+        IntFunction<T> converter = (IntFunction<T>) resolved(int.class, to);
+        return converter.apply(epochDay);
+    }
+
+    /**
+     * Get 'from' as a {@code double} without boxing it, e.g. as an Excel serial date when the excel module is loaded.
+     *
+     * @param from the object to convert. Must not be null
+     * @throws IllegalArgumentException if there is no {@link ToDoubleFunction} registered 'to' {@code double.class}
+     *                                  for the class of 'from'
+     */
+    public double toDouble(Object from) {
+        ToDoubleFunction converter = (ToDoubleFunction) resolved(Objects.requireNonNull(from, "from").getClass(), double.class);
+        return converter.applyAsDouble(from);
+    }
+
+    /**
+     * Create an instance of 'to' from a {@code double} without boxing it. The only object created is the result.
+     *
+     * @param value the value to convert, e.g. an Excel serial date when the excel module is loaded
+     * @param to    the desired return type
+     * @throws IllegalArgumentException if there is no {@link DoubleFunction} registered 'from' {@code double.class}
+     *                                  for 'to'
+     */
+    public <T> T fromDouble(double value, Class<T> to) {
+        DoubleFunction<T> converter = (DoubleFunction<T>) resolved(double.class, to);
+        return converter.apply(value);
+    }
+
+    /**
+     * Get a typed converter between two classes which can be kept and called repeatedly without looking it up each
+     * time. Prefer this to {@link #from(Object, Class)} in loops and in converters which delegate to other
+     * converters.
+     *
+     * @param from the class to convert from
+     * @param to   the class to convert to
+     * @return a {@link ConverterHandle} which resolves its converter on first use
+     */
+    public <S, T> ConverterHandle<S, T> handle(Class<S> from, Class<T> to) {
+        return new ConverterHandle<>(this, from, to);
+    }
+
+    /**
+     * Convert every element of 'from' in to 'to'. The converter is looked up once for each run of elements which share
+     * a runtime class rather than once per element, so mixed inputs are best grouped by class. Null elements are
+     * converted to null.
+     *
+     * @param from the objects to convert
+     * @param to   the desired type of every element in the result
+     * @return a fixed-size {@link List} of the converted elements, in the same order as 'from'
+     * @throws IllegalArgumentException if there is no converter available for one of the elements, or 'to' is
+     *                                  primitive
+     */
+    public <T> List<T> convertAll(Object[] from, Class<T> to) {
+        requireObjectTarget(to);
+        return Arrays.asList(convertAll(from, to, (T[]) Array.newInstance(to, from.length)));
+    }
+
+    /**
+     * As {@link #convertAll(Object[], Class)}, for a {@link List}.
+     */
+    public <T> List<T> convertAll(List<?> from, Class<T> to) {
+        return convertAll(from.toArray(), to);
+    }
+
+    /**
+     * As {@link #convertAll(Object[], Class)}, for any {@link Iterable}. If 'from' is a {@link Collection} the result is
+     * sized up front.
+     *
+     * @return a {@link List} of the converted elements, in iteration order
+     */
+    public <T> List<T> convertAll(Iterable<?> from, Class<T> to) {
+        List<T> result = from instanceof Collection ? new ArrayList<>(((Collection<?>) from).size()) : new ArrayList<>();
+        Class<?> runClass = null;
+        Function converter = null;
+        for (Object value : from) {
+            if (value == null) {
+                result.add(null);
+                continue;
+            }
+            if (value.getClass() != runClass) {
+                runClass  = value.getClass();
+                converter = converter(runClass, to);
+            }
+            result.add((T) converter.apply(value));
+        }
+        return result;
+    }
+
+    /**
+     * As {@link #convertAll(Object[], Class)}, writing the results in to a caller-supplied array.
+     *
+     * @param destination the array to write to. Element i of 'from' is written to element i of 'destination', so it
+     *                    must be at least as long as 'from'
+     * @return 'destination'
+     */
+    public <T> T[] convertAll(Object[] from, Class<T> to, T[] destination) {
+        DateColumns.checkLength(from.length, destination.length);
+        convertRange(from, 0, from.length, to, destination);
+        return destination;
+    }
+
+    /**
+     * As {@link #convertAll(Object[], Class, Object[])}, splitting the work across the common {@link ForkJoinPool}.
+     */
+    public <T> T[] convertAllParallel(Object[] from, Class<T> to, T[] destination) {
+        return convertAllParallel(from, to, destination, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * As {@link #convertAll(Object[], Class, Object[])}, splitting the work across the supplied {@link ForkJoinPool}.
+     * Arrays shorter than {@link #PARALLEL_THRESHOLD} are converted on the calling thread. Every converter provided by
+     * this project is safe to call from multiple threads; your own converters must be too if you use this method.
+     *
+     * @param pool the pool to run the conversion in. The calling thread blocks until it completes
+     * @return 'destination'
+     */
+    public <T> T[] convertAllParallel(Object[] from, Class<T> to, T[] destination, ForkJoinPool pool) {
+        DateColumns.checkLength(from.length, destination.length);
+        if (from.length <= PARALLEL_THRESHOLD) {
+            convertRange(from, 0, from.length, to, destination);
+        } else {
+            pool.invoke(new ConvertRangeTask(from, 0, from.length, to, destination));
+        }
+        return destination;
+    }
+
+    /**
+     * Lazily convert each element of a {@link Stream}. This is equivalent to mapping with
+     * {@link #from(Object, Class)}, but the converter is only looked up when the runtime class of the elements changes
+     * and the stream sizing is kept, so parallel streams split as well as the source does.
+     *
+     * @param source the stream to convert. Closing the result closes the source
+     * @param to     the desired type of every element in the result
+     * @return a stream of converted elements, parallel if the source is
+     */
+    public <T> Stream<T> stream(Stream<?> source, Class<T> to) {
+        return StreamSupport.stream(spliterator(source.spliterator(), to), source.isParallel()).onClose(source::close);
+    }
+
+    /**
+     * @return a {@link ConvertingSpliterator} which lazily converts each element of 'source' in to 'to'
+     */
+    public <T> Spliterator<T> spliterator(Spliterator<?> source, Class<T> to) {
+        return new ConvertingSpliterator<>(source, this, to);
+    }
+
+    /**
+     * As {@link #toEpochMilli(Object)}, for every element of 'from'. The converter is looked up once for each run of
+     * elements which share a runtime class.
+     *
+     * @param from the objects to convert. Must not contain nulls
+     * @return the epoch milliseconds of each element
+     */
+    public long[] toEpochMillis(Object[] from) {
+        return toEpochMillis(from, new long[from.length]);
+    }
+
+    /**
+     * As {@link #toEpochMillis(Object[])}, writing in to 'destination', which must be at least as long as 'from'
+     *
+     * @return 'destination'
+     */
+    public long[] toEpochMillis(Object[] from, long[] destination) {
+        DateColumns.checkLength(from.length, destination.length);
+        Class<?> runClass = null;
+        ToLongFunction converter = null;
+        for (int i = 0; i < from.length; i++) {
+            Object value = from[i];
+            if (value.getClass() != runClass) {
+                runClass  = value.getClass();
+                converter = (ToLongFunction) resolved(runClass, long.class);
+            }
+            destination[i] = converter.applyAsLong(value);
+        }
+        return destination;
+    }
+
+    /**
+     * As {@link #toEpochDay(Object)}, for every element of 'from'. The converter is looked up once for each run of
+     * elements which share a runtime class.
+     *
+     * @param from the objects to convert. Must not contain nulls
+     * @return the epoch day of each element
+     */
+    public int[] toEpochDays(Object[] from) {
+        return toEpochDays(from, new int[from.length]);
+    }
+
+    /**
+     * As {@link #toEpochDays(Object[])}, writing in to 'destination', which must be at least as long as 'from'
+     *
+     * @return 'destination'
+     */
+    public int[] toEpochDays(Object[] from, int[] destination) {
+        DateColumns.checkLength(from.length, destination.length);
+        Class<?> runClass = null;
+        ToIntFunction converter = null;
+        for (int i = 0; i < from.length; i++) {
+            Object value = from[i];
+            if (value.getClass() != runClass) {
+                runClass  = value.getClass();
+                converter = (ToIntFunction) resolved(runClass, int.class);
+            }
+            destination[i] = converter.applyAsInt(value);
+        }
+        return destination;
+    }
+
+    /**
+     * As {@link #fromEpochMilli(long, Class)}, for every element of 'from'
+     *
+     * @return an array of 'to' with one element for each element of 'from'
+     */
+    public <T> T[] fromEpochMillis(long[] from, Class<T> to) {
+        return fromEpochMillis(from, to, (T[]) Array.newInstance(to, from.length));
+    }
+
+    /**
+     * As {@link #fromEpochMillis(long[], Class)}, writing in to 'destination', which must be at least as long as 'from'
+     *
+     * @return 'destination'
+     */
+    public <T> T[] fromEpochMillis(long[] from, Class<T> to, T[] destination) {
+        DateColumns.checkLength(from.length, destination.length);
+        LongFunction<T> converter = (LongFunction<T>) resolved(long.class, to);
+        for (int i = 0; i < from.length; i++) {
+            destination[i] = converter.apply(from[i]);
+        }
+        return destination;
+    }
+
+    /**
+     * As {@link #fromEpochDay(int, Class)}, for every element of 'from'
+     *
+     * @return an array of 'to' with one element for each element of 'from'
+     */
+    public <T> T[] fromEpochDays(int[] from, Class<T> to) {
+        return fromEpochDays(from, to, (T[]) Array.newInstance(to, from.length));
+    }
+
+    /**
+     * As {@link #fromEpochDays(int[], Class)}, writing in to 'destination', which must be at least as long as 'from'
+     *
+     * @return 'destination'
+     */
+    public <T> T[] fromEpochDays(int[] from, Class<T> to, T[] destination) {
+        DateColumns.checkLength(from.length, destination.length);
+        IntFunction<T> converter = (IntFunction<T>) resolved(int.class, to);
+        for (int i = 0; i < from.length; i++) {
+            destination[i] = converter.apply(from[i]);
+        }
+        return destination;
+    }
+
+    /**
+     * Convert from[start] to from[end - 1] in to the same positions in 'destination', looking up one converter per run
+     * of elements which share a runtime class.
+     */
+    private void convertRange(Object[] from, int start, int end, Class<?> to, Object[] destination) {
+        int runStart = start;
+        while (runStart < end) {
+            Object first = from[runStart];
+            if (first == null) {
+                destination[runStart++] = null;
+                continue;
+            }
+            Class<?> runClass = first.getClass();
+            int runEnd = runStart + 1;
+            while (runEnd < end && (from[runEnd] == null || from[runEnd].getClass() == runClass)) {
+                runEnd++;
+            }
+            applyRun(converter(runClass, to), from, runStart, runEnd, destination);
+            runStart = runEnd;
+        }
+    }
+
+    private static void applyRun(Function converter, Object[] from, int start, int end, Object[] destination) {
+        for (int i = start; i < end; i++) {
+            Object value = from[i];
+            destination[i] = value == null ? null : converter.apply(value);
+        }
+    }
+
+    <S, T> Function<S, T> converter(Class<S> from, Class<T> to) {
+        requireObjectTarget(to);
+        return (Function<S, T>) resolved(from, to);
+    }
+
+    /**
+     * @return a token which changes whenever a converter or hub is registered or the registry is calibrated
+     * @see ConverterHandle
+     */
+    Object generation() {
+        return resolver.generation();
+    }
+
+    /**
+     * The converters to a primitive class are {@link ToLongFunction}s or {@link ToDoubleFunction}s, which can only be
+     * called through {@link #toEpochMilli(Object)}, {@link #toEpochDay(Object)} or {@link #toDouble(Object)}
+     */
+    private static void requireObjectTarget(Class<?> to) {
+        if (to.isPrimitive()) {
+            throw new IllegalArgumentException(String.format("Can't convert to %s, use toEpochMilli, toEpochDay or toDouble instead", to));
+        }
+    }
+
+    private Object resolved(Class<?> from, Class<?> to) {
+        Object converter = resolver.resolve(from, to).converter;
+        if (converter == null) {
+            throw noConverter(from, to);
+        }
+        return converter;
+    }
+
+    /**
+     * @return the exception to throw when there is no converter for the pair
+     */
+    protected RuntimeException noConverter(Class<?> from, Class<?> to) {
+        return new IllegalArgumentException(String.format("No converter available to convert from %s to %s", from, to));
+    }
+
+    private class ConvertRangeTask extends RecursiveAction {
+        private final Object[] from;
+        private final int      start;
+        private final int      end;
+        private final Class<?> to;
+        private final Object[] destination;
+
+        ConvertRangeTask(Object[] from, int start, int end, Class<?> to, Object[] destination) {
+            this.from        = from;
+            this.start       = start;
+            this.end         = end;
+            this.to          = to;
+            this.destination = destination;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= PARALLEL_THRESHOLD) {
+                convertRange(from, start, end, to, destination);
+            } else {
+                int middle = (start + end) >>> 1;
+                invokeAll(new ConvertRangeTask(from, start, middle, to, destination),
+                        new ConvertRangeTask(from, middle, end, to, destination));
+            }
+        }
+    }
+}
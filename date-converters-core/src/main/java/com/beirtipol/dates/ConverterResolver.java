@@ -0,0 +1,486 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Indexes converters by {@link ConverterKey} and resolves the converter to use for a runtime 'from' class and a 'to'
+ * class.
+ * <p>
+ * Resolutions are held in two levels of {@link ClassValue} tables, the first keyed by the 'to' class and the second by
+ * the 'from' class, so that a lookup does not allocate. The first lookup for a pair tries the exact class, then each
+ * superclass (stopping before {@link Object}) and then every interface in the hierarchy, breadth first. If none of
+ * those are registered, the shortest chain of registered converters is planned and composed in to a single converter,
+ * so a new type only needs converters to and from one hub type to reach every other. The outcome, including a miss,
+ * is memoized so the hierarchy and the graph are only searched once per pair. Registering a converter discards all
+ * memoized resolutions, and registering over an existing pair logs a warning as only the last converter is kept.
+ * <p>
+ * Once any hub has been registered, a chain may only pass through hubs. If the 'from' class, one of its superclasses
+ * or interfaces, or the 'to' class has hubs of its own, only those are used, otherwise only those registered for every
+ * pair. This keeps chains away from types which would lose part of the value, such as {@link java.sql.Date} dropping
+ * the time of day, while letting a date-only type go through {@link java.time.LocalDate}. Chains which cost the same
+ * go through the hub registered first.
+ * <p>
+ * Until {@link #calibrate(int)} is called every converter costs the same, so the chain with the fewest converters is
+ * planned. Calibrating times each converter on a sample value and plans the chain with the lowest total time instead.
+ * Converters registered afterwards are given the average measured cost until the next calibration. A direct or
+ * hierarchy match is always used ahead of a chain, however slow it is, as it is what was asked for.
+ * <p>
+ * Converters are held as {@link Object} because those with a primitive 'from' or 'to' class are the matching primitive
+ * functional interface, e.g. {@link java.util.function.ToLongFunction} for 'to' {@code long.class}, rather than a
+ * {@link java.util.function.Function}.
+ *
+ * @author beirtipol@gmail.com
+ */
+final class ConverterResolver {
+    private static final Logger LOG = LoggerFactory.getLogger(ConverterResolver.class);
+
+    /**
+     * 2019-09-01T01:02:03.456Z, converted to each 'from' class to get the sample values for {@link #calibrate(int)}
+     */
+    static final long CALIBRATION_EPOCH_MILLI = 1567299723456L;
+
+    private final Map<ConverterKey, Object> converters = new ConcurrentHashMap<>();
+    /**
+     * Measured nanoseconds per call for each pair. Empty until calibrated
+     */
+    private final Map<ConverterKey, Double> costs      = new ConcurrentHashMap<>();
+
+    /**
+     * Hubs for every pair, in the order they were registered
+     */
+    private final List<Class<?>>                hubs     = new CopyOnWriteArrayList<>();
+    /**
+     * Hubs for the pairs which start or end at a class
+     */
+    private final Map<Class<?>, List<Class<?>>> typeHubs = new ConcurrentHashMap<>();
+
+    private volatile ClassValue<ClassValue<Resolution>> resolutions = newResolutions();
+
+    void register(Class<?> from, Class<?> to, Object converter) {
+        register(from, to, converter, false);
+    }
+
+    /**
+     * @param replace true if the caller means to replace any converter already registered for the pair, so that
+     *                doing so is not logged
+     */
+    synchronized void register(Class<?> from, Class<?> to, Object converter, boolean replace) {
+        ConverterKey key = new ConverterKey(from, to);
+        Object previous = converters.put(key, converter);
+        if (previous != null && previous != converter) {
+            if (!replace) {
+                LOG.warn(String.format("Replacing the converter from %s to %s. Only the last one registered is used.", from, to));
+            }
+            costs.remove(key);
+        }
+        resolutions = newResolutions();
+    }
+
+    /**
+     * Allow chains between any pair of classes to pass through 'hub'
+     */
+    synchronized void registerHub(Class<?> hub) {
+        if (!hubs.contains(hub)) {
+            hubs.add(hub);
+        }
+        resolutions = newResolutions();
+    }
+
+    /**
+     * Allow chains which start or end at 'type', or at a subclass of it, to pass through 'hub' rather than the hubs for
+     * every pair
+     */
+    synchronized void registerHub(Class<?> type, Class<?> hub) {
+        List<Class<?>> forType = typeHubs.computeIfAbsent(type, ignored -> new CopyOnWriteArrayList<>());
+        if (!forType.contains(hub)) {
+            forType.add(hub);
+        }
+        resolutions = newResolutions();
+    }
+
+    /**
+     * @return a copy of every pair registered so far
+     */
+    Set<ConverterKey> keys() {
+        return new HashSet<>(converters.keySet());
+    }
+
+    /**
+     * @return a token which changes whenever the memoized resolutions are discarded, so that anything holding on to a
+     * resolution can tell whether it still applies
+     */
+    Object generation() {
+        return resolutions;
+    }
+
+    /**
+     * @return the {@link Resolution} for the pair. This is never null, check {@link Resolution#isResolved()} to see
+     * whether a converter was found
+     */
+    Resolution resolve(Class<?> from, Class<?> to) {
+        return resolutions.get(to).get(from);
+    }
+
+    /**
+     * Time every registered converter on a sample value made by converting {@link #CALIBRATION_EPOCH_MILLI} to its
+     * 'from' class, replacing any earlier measurements, and discard all memoized resolutions so that chains are planned
+     * by cost. A converter is left unmeasured if there is no way to make a sample for it, or if it throws.
+     *
+     * @param iterations the number of calls to warm up each converter with, and then to time
+     */
+    synchronized void calibrate(int iterations) {
+        Map<Class<?>, Object> samples = new HashMap<>();
+        Map<ConverterKey, Double> measured = new HashMap<>();
+        for (Map.Entry<ConverterKey, Object> entry : converters.entrySet()) {
+            ConverterKey key = entry.getKey();
+            try {
+                Object sample = samples.computeIfAbsent(key.getFrom(), this::sample);
+                if (sample != null) {
+                    measured.put(key, ConverterTimer.nanosPerOp(entry.getValue(), sample, iterations));
+                }
+            } catch (RuntimeException e) {
+                LOG.debug(String.format("Could not calibrate the converter from %s to %s", key.getFrom(), key.getTo()), e);
+            }
+        }
+        costs.clear();
+        costs.putAll(measured);
+        resolutions = newResolutions();
+    }
+
+    /**
+     * @return {@link #CALIBRATION_EPOCH_MILLI} as an instance of 'type', or null if there is no converter to it from
+     * epoch milliseconds or epoch days. A {@code double} sample is converted from another sample, as what it means is
+     * up to the converters registered for it
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Object sample(Class<?> type) {
+        int epochDay = (int) Math.floorDiv(CALIBRATION_EPOCH_MILLI, ThreeTenDates.MILLIS_PER_DAY);
+        if (type == long.class) {
+            return CALIBRATION_EPOCH_MILLI;
+        }
+        if (type == int.class) {
+            return epochDay;
+        }
+        Resolution fromEpochMilli = resolve(long.class, type);
+        if (fromEpochMilli.isResolved()) {
+            return ((LongFunction<?>) fromEpochMilli.converter).apply(CALIBRATION_EPOCH_MILLI);
+        }
+        Resolution fromEpochDay = resolve(int.class, type);
+        if (fromEpochDay.isResolved()) {
+            return ((IntFunction<?>) fromEpochDay.converter).apply(epochDay);
+        }
+        if (type == double.class) {
+            for (ConverterKey key : converters.keySet()) {
+                Object from = key.getTo() == double.class && !key.getFrom().isPrimitive() ? sample(key.getFrom()) : null;
+                if (from != null) {
+                    return ((ToDoubleFunction) converters.get(key)).applyAsDouble(from);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return a description of the converter or chain of converters used for the pair, with the measured nanoseconds
+     * per call of each if {@link #calibrate(int)} has been called
+     */
+    String explain(Class<?> from, Class<?> to) {
+        Resolution resolution = resolve(from, to);
+        if (!resolution.isResolved()) {
+            return String.format("No converter from %s to %s", from.getName(), to.getName());
+        }
+        StringBuilder result = new StringBuilder();
+        result.append(String.format("%s to %s: %s%n", from.getName(), to.getName(), describe(resolution.cost)));
+        for (ConverterKey key : resolution.path) {
+            result.append(String.format("  %s -> %s: %s%n", key.getFrom().getName(), key.getTo().getName(), describe(costs.getOrDefault(key, Double.NaN))));
+        }
+        return result.toString();
+    }
+
+    private static String describe(double cost) {
+        return Double.isNaN(cost) ? "not calibrated" : String.format("%.1f ns/op", cost);
+    }
+
+    private ClassValue<ClassValue<Resolution>> newResolutions() {
+        return new ClassValue<>() {
+            @Override
+            protected ClassValue<Resolution> computeValue(Class<?> to) {
+                return new ClassValue<>() {
+                    @Override
+                    protected Resolution computeValue(Class<?> from) {
+                        return lookup(from, to);
+                    }
+                };
+            }
+        };
+    }
+
+    private Resolution lookup(Class<?> from, Class<?> to) {
+        for (Class<?> candidate : hierarchy(from)) {
+            Object converter = converters.get(new ConverterKey(candidate, to));
+            if (converter != null) {
+                if (candidate != from && LOG.isDebugEnabled()) {
+                    LOG.debug(String.format("No direct converter found between %s and %s. Attempting to convert from %s to %s instead.", from, to, candidate, to));
+                }
+                return resolution(converter, Collections.singletonList(new ConverterKey(candidate, to)), candidate != from);
+            }
+        }
+        return plan(from, to);
+    }
+
+    /**
+     * @return 'type', then each superclass (stopping before {@link Object}) and then every interface in the hierarchy,
+     * breadth first so the closest match comes first
+     */
+    private static List<Class<?>> hierarchy(Class<?> type) {
+        List<Class<?>> result = new ArrayList<>();
+        for (Class<?> candidate = type; candidate != null && candidate != Object.class; candidate = candidate.getSuperclass()) {
+            result.add(candidate);
+        }
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        Set<Class<?>> seen = new HashSet<>();
+        for (Class<?> candidate = type; candidate != null; candidate = candidate.getSuperclass()) {
+            queue.add(candidate);
+        }
+        while (!queue.isEmpty()) {
+            for (Class<?> iface : queue.poll().getInterfaces()) {
+                if (seen.add(iface)) {
+                    result.add(iface);
+                    queue.add(iface);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Search the registered pairs for the cheapest chain of converters from 'from' to 'to' and compose them in to one.
+     * Each step may use a converter registered for a superclass or interface of the type reached so far, tried in the
+     * same order as a direct lookup. Chains which cost the same are chosen in a fixed order, preferring the hubs
+     * listed first by {@link #hubs(Class, Class)}. A primitive class can only start or end a chain, and a chain cannot
+     * go from one primitive to another.
+     */
+    private Resolution plan(Class<?> from, Class<?> to) {
+        if (from == to || (from.isPrimitive() && to.isPrimitive())) {
+            return Resolution.MISSING;
+        }
+        Map<Class<?>, List<ConverterKey>> byFrom = new HashMap<>();
+        for (ConverterKey key : converters.keySet()) {
+            byFrom.computeIfAbsent(key.getFrom(), ignored -> new ArrayList<>()).add(key);
+        }
+        List<Class<?>> allowed = hubs(from, to);
+        // Sorted so that equally cheap chains are always chosen the same way, preferring the hubs listed first
+        Comparator<ConverterKey> byHub = Comparator.comparingInt(key -> rank(allowed, key.getTo()));
+        byFrom.values().forEach(keys -> keys.sort(byHub.thenComparing(key -> key.getTo().getName())));
+        double unmeasured = costs.values().stream().mapToDouble(Double::doubleValue).average().orElse(1);
+
+        // The cheapest total cost found to each type, the type it was reached from and the converter used to get there
+        Map<Class<?>, Double> totals = new HashMap<>();
+        Map<Class<?>, Class<?>> previous = new HashMap<>();
+        Map<Class<?>, ConverterKey> reachedBy = new HashMap<>();
+        Set<Class<?>> settled = new HashSet<>();
+        PriorityQueue<Step> queue = new PriorityQueue<>();
+        int order = 0;
+        totals.put(from, 0d);
+        queue.add(new Step(from, 0, order++));
+        while (!queue.isEmpty()) {
+            Step step = queue.poll();
+            if (!settled.add(step.type)) {
+                continue;
+            }
+            if (step.type == to) {
+                return compose(from, to, previous, reachedBy);
+            }
+            for (Class<?> candidate : hierarchy(step.type)) {
+                for (ConverterKey key : byFrom.getOrDefault(candidate, Collections.emptyList())) {
+                    Class<?> next = key.getTo();
+                    if (settled.contains(next) || (next != to && (next.isPrimitive() || (allowed != null && !allowed.contains(next))))) {
+                        continue;
+                    }
+                    double total = step.total + costs.getOrDefault(key, unmeasured);
+                    if (total < totals.getOrDefault(next, Double.POSITIVE_INFINITY)) {
+                        totals.put(next, total);
+                        previous.put(next, step.type);
+                        reachedBy.put(next, key);
+                        queue.add(new Step(next, total, order++));
+                    }
+                }
+            }
+        }
+        return Resolution.MISSING;
+    }
+
+    /**
+     * @return the hubs a chain from 'from' to 'to' may pass through in order of preference, those for the classes at
+     * either end if there are any and otherwise those for every pair, or null if no hubs have been registered and so any
+     * class may be passed through
+     */
+    private List<Class<?>> hubs(Class<?> from, Class<?> to) {
+        if (hubs.isEmpty() && typeHubs.isEmpty()) {
+            return null;
+        }
+        List<Class<?>> ends = hierarchy(from);
+        ends.addAll(hierarchy(to));
+        List<Class<?>> result = new ArrayList<>();
+        for (Class<?> end : ends) {
+            typeHubs.getOrDefault(end, Collections.emptyList()).stream().filter(hub -> !result.contains(hub)).forEach(result::add);
+        }
+        return result.isEmpty() ? hubs : result;
+    }
+
+    private static int rank(List<Class<?>> allowed, Class<?> type) {
+        int index = allowed == null ? -1 : allowed.indexOf(type);
+        return index < 0 ? Integer.MAX_VALUE : index;
+    }
+
+    private Resolution compose(Class<?> from, Class<?> to, Map<Class<?>, Class<?>> previous, Map<Class<?>, ConverterKey> reachedBy) {
+        LinkedList<ConverterKey> path = new LinkedList<>();
+        for (Class<?> type = to; type != from; type = previous.get(type)) {
+            path.addFirst(reachedBy.get(type));
+        }
+        Object converter = null;
+        for (ConverterKey key : path) {
+            converter = converter == null ? converters.get(key) : andThen(converter, converters.get(key));
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(String.format("No direct converter found between %s and %s. Converting via %s instead.", from, to, path));
+        }
+        return resolution(converter, path, true);
+    }
+
+    private Resolution resolution(Object converter, List<ConverterKey> path, boolean fallback) {
+        double cost = 0;
+        for (ConverterKey key : path) {
+            cost += costs.getOrDefault(key, Double.NaN);
+        }
+        return new Resolution(converter, path, cost, fallback);
+    }
+
+    /**
+     * @return a converter which applies 'first' and then 'second'. Only 'first' may take a primitive and only 'second'
+     * may return one
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Object andThen(Object first, Object second) {
+        if (first instanceof LongFunction) {
+            LongFunction<?> start = (LongFunction<?>) first;
+            Function next = (Function) second;
+            return (LongFunction<?>) from -> next.apply(start.apply(from));
+        }
+        if (first instanceof IntFunction) {
+            IntFunction<?> start = (IntFunction<?>) first;
+            Function next = (Function) second;
+            return (IntFunction<?>) from -> next.apply(start.apply(from));
+        }
+        if (first instanceof DoubleFunction) {
+            DoubleFunction<?> start = (DoubleFunction<?>) first;
+            Function next = (Function) second;
+            return (DoubleFunction<?>) from -> next.apply(start.apply(from));
+        }
+        Function start = (Function) first;
+        if (second instanceof ToLongFunction) {
+            ToLongFunction next = (ToLongFunction) second;
+            return (ToLongFunction<?>) from -> next.applyAsLong(start.apply(from));
+        }
+        if (second instanceof ToIntFunction) {
+            ToIntFunction next = (ToIntFunction) second;
+            return (ToIntFunction<?>) from -> next.applyAsInt(start.apply(from));
+        }
+        if (second instanceof ToDoubleFunction) {
+            ToDoubleFunction next = (ToDoubleFunction) second;
+            return (ToDoubleFunction<?>) from -> next.applyAsDouble(start.apply(from));
+        }
+        return start.andThen((Function) second);
+    }
+
+    /**
+     * A type reached while planning, ordered by the total cost of getting there and then by when it was reached
+     */
+    private static final class Step implements Comparable<Step> {
+        private final Class<?> type;
+        private final double   total;
+        private final int      order;
+
+        private Step(Class<?> type, double total, int order) {
+            this.type  = type;
+            this.total = total;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Step other) {
+            int result = Double.compare(total, other.total);
+            return result != 0 ? result : Integer.compare(order, other.order);
+        }
+    }
+
+    /**
+     * The memoized outcome of resolving a (from, to) pair.
+     */
+    static final class Resolution {
+        static final Resolution MISSING = new Resolution(null, Collections.emptyList(), Double.NaN, false);
+
+        final Object             converter;
+        final List<ConverterKey> path;
+        /**
+         * The measured nanoseconds per call of the whole path, or NaN if any part of it has not been calibrated
+         */
+        final double             cost;
+        /**
+         * True if there is no converter registered for the pair itself, so one for a superclass or interface, or a
+         * chain, is used instead
+         */
+        final boolean            fallback;
+
+        private Resolution(Object converter, List<ConverterKey> path, double cost, boolean fallback) {
+            this.converter = converter;
+            this.path      = Collections.unmodifiableList(path);
+            this.cost      = cost;
+            this.fallback  = fallback;
+        }
+
+        boolean isResolved() {
+            return converter != null;
+        }
+    }
+}
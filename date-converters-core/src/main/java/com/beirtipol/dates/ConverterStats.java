@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import java.util.Comparator;
+
+/**
+ * A snapshot of what {@link ConverterRegistry#from(Object, Class)} has done for one (from, to) pair since
+ * {@link ConverterRegistry#setStatsEnabled(boolean) stats were enabled}. The 'from' class is the runtime class of the
+ * object passed in, not the class the converter was registered for, so a pair which is only converted through a
+ * superclass converter shows up under its own classes with every invocation counted as a fallback. Calls with a null
+ * 'from' are counted under a key with a null 'from' class, as the class is not known.
+ * <p>
+ * The counters are read one after another while other threads may still be converting, so they are each accurate but
+ * may be slightly out of step with each other.
+ * <p>
+ * Latencies are counted in {@link #BUCKETS} power-of-two buckets: bucket 0 holds calls which took under 1ns, bucket
+ * {@code i} those which took from 2<sup>i-1</sup>ns to under 2<sup>i</sup>ns and the last bucket everything slower.
+ *
+ * @author beirtipol@gmail.com
+ */
+public final class ConverterStats {
+    /**
+     * The number of latency histogram buckets. The last starts at 2<sup>30</sup>ns, just over a second
+     */
+    public static final int BUCKETS = 32;
+
+    static final Comparator<ConverterKey> KEY_ORDER = Comparator
+            .comparing((ConverterKey key) -> key.getFrom() == null ? "" : key.getFrom().getName())
+            .thenComparing(key -> key.getTo().getName());
+
+    private final ConverterKey key;
+    private final long         invocations;
+    private final long         nulls;
+    private final long         fallbacks;
+    private final long         failures;
+    private final long         totalNanos;
+    private final long[]       histogram;
+
+    ConverterStats(ConverterKey key, long invocations, long nulls, long fallbacks, long failures, long totalNanos, long[] histogram) {
+        this.key         = key;
+        this.invocations = invocations;
+        this.nulls       = nulls;
+        this.fallbacks   = fallbacks;
+        this.failures    = failures;
+        this.totalNanos  = totalNanos;
+        this.histogram   = histogram;
+    }
+
+    static int bucket(long nanos) {
+        return nanos <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    /**
+     * @return the exclusive upper bound, in nanoseconds, of a latency bucket. {@link Long#MAX_VALUE} for the last
+     */
+    public static long bucketLimitNanos(int bucket) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    public ConverterKey getKey() {
+        return key;
+    }
+
+    /**
+     * @return the number of times a converter was called, whether or not it threw
+     */
+    public long getInvocations() {
+        return invocations;
+    }
+
+    /**
+     * @return the number of calls which returned null straight away because 'from' was null
+     */
+    public long getNulls() {
+        return nulls;
+    }
+
+    /**
+     * @return the number of invocations which used a converter registered for a superclass or interface of 'from', or a
+     * planned chain of converters, because there was none registered for the pair itself
+     */
+    public long getFallbacks() {
+        return fallbacks;
+    }
+
+    /**
+     * @return the number of calls which failed because there was no converter for the pair
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return the average nanoseconds per invocation, or 0 if there have been none
+     */
+    public double getMeanNanos() {
+        return invocations == 0 ? 0 : (double) totalNanos / invocations;
+    }
+
+    /**
+     * @return a copy of the invocation count in each latency bucket
+     */
+    public long[] getHistogram() {
+        return histogram.clone();
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return an upper bound, in nanoseconds, on the latency of that percentile of invocations, from the bucket it falls
+     * in. 0 if there have been no invocations
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException(String.format("Percentile must be between 0 and 100 but was %s", percentile));
+        }
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        long target = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= target && seen > 0) {
+                return bucketLimitNanos(i);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: invocations=%s, nulls=%s, fallbacks=%s, failures=%s, mean=%.1fns, p99<%sns", key, invocations, nulls, fallbacks, failures, getMeanNanos(), getPercentileNanos(99));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Times a single converter on a sample value. This is a rough estimate to compare converters against each other, not
+ * a benchmark. Use date-converters-benchmarks for that.
+ *
+ * @author beirtipol@gmail.com
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+final class ConverterTimer {
+    /**
+     * Holds the last result so that the JIT cannot remove the calls being timed
+     */
+    private static volatile Object sink;
+
+    private ConverterTimer() {
+    }
+
+    /**
+     * Call 'converter' on 'sample' 'iterations' times to warm it up, then as many times again while timing it.
+     *
+     * @param converter a {@link Function}, or the primitive functional interface matching a primitive 'from' or 'to'
+     * @param sample    the value to convert, boxed if the converter takes a primitive
+     * @return the average nanoseconds per call
+     */
+    static double nanosPerOp(Object converter, Object sample, int iterations) {
+        sink = run(converter, sample, iterations);
+        long start = System.nanoTime();
+        sink = run(converter, sample, iterations);
+        return (double) (System.nanoTime() - start) / iterations;
+    }
+
+    private static Object run(Object converter, Object sample, int iterations) {
+        if (converter instanceof ToLongFunction) {
+            ToLongFunction function = (ToLongFunction) converter;
+            long result = 0;
+            for (int i = 0; i < iterations; i++) {
+                result += function.applyAsLong(sample);
+            }
+            return result;
+        }
+        if (converter instanceof ToIntFunction) {
+            ToIntFunction function = (ToIntFunction) converter;
+            int result = 0;
+            for (int i = 0; i < iterations; i++) {
+                result += function.applyAsInt(sample);
+            }
+            return result;
+        }
+        if (converter instanceof ToDoubleFunction) {
+            ToDoubleFunction function = (ToDoubleFunction) converter;
+            double result = 0;
+            for (int i = 0; i < iterations; i++) {
+                result += function.applyAsDouble(sample);
+            }
+            return result;
+        }
+        Object result = null;
+        if (converter instanceof LongFunction) {
+            LongFunction function = (LongFunction) converter;
+            long from = (Long) sample;
+            for (int i = 0; i < iterations; i++) {
+                result = function.apply(from);
+            }
+        } else if (converter instanceof IntFunction) {
+            IntFunction function = (IntFunction) converter;
+            int from = (Integer) sample;
+            for (int i = 0; i < iterations; i++) {
+                result = function.apply(from);
+            }
+        } else if (converter instanceof DoubleFunction) {
+            DoubleFunction function = (DoubleFunction) converter;
+            double from = (Double) sample;
+            for (int i = 0; i < iterations; i++) {
+                result = function.apply(from);
+            }
+        } else {
+            Function function = (Function) converter;
+            for (int i = 0; i < iterations; i++) {
+                result = function.apply(sample);
+            }
+        }
+        return result;
+    }
+}
@@ -18,8 +18,6 @@
 package com.beirtipol.dates;
 
 import com.beirtipol.dates.converter.*;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
@@ -34,15 +32,15 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.MultiValueMap;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.function.Function;
 
 /**
  * {@link Converters} will gather all bean methods which declare the annotation {@link Converter} and index them by the
- * 'from' and 'to' types declared in the annotation. It has a single useful method
- * {@link Converters#from(Object, Class)} which allows passing in any {@link Object} along with the desired return type
- * {@link Class} and will search for an appropriate {@link Converter} to apply the conversion.
+ * 'from' and 'to' types declared in the annotation. All of the conversion methods, e.g.
+ * {@link ConverterRegistry#from(Object, Class)}, come from {@link ConverterRegistry}; the only difference is that a
+ * missing converter is reported with a {@link NoSuchBeanDefinitionException}.
+ * <p>
+ * Converters may be registered while the application context starts up. Once started, all methods are safe to call
+ * from multiple threads. Applications which do not run Spring can use {@link ConverterRegistry#load()} instead.
  * <p>
  * A number of core {@link Converter} beans are provided by this project
  *
@@ -52,17 +50,21 @@ import java.util.function.Function;
  * @see ZonedDateTimeConverters
  * @see UtilDateConverters
  * @see XMLDateConverters
+ * @see EpochConverters
  */
-@SuppressWarnings({"rawtypes", "unchecked"})
 @SpringBootConfiguration
 @ComponentScan
 @Component
-public class Converters implements BeanPostProcessor {
-    private static final Logger      LOG = LoggerFactory.getLogger(Converters.class);
+public class Converters extends ConverterRegistry implements BeanPostProcessor {
     @Autowired
-    private              BeanFactory beanFactory;
+    private BeanFactory beanFactory;
 
-    private final Map<ConverterKey, Function> converters = new HashMap<>();
+    /**
+     * Register {@link #CORE_HUBS}, as {@link #load()} does
+     */
+    public Converters() {
+        registerCoreHubs();
+    }
 
     @Override
     public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
@@ -77,10 +79,7 @@ public class Converters implements BeanPostProcessor {
                     assert attribs != null;
                     Class<?>[] froms = (Class<?>[]) attribs.get("from").get(0);
                     Class<?> to = (Class<?>) attribs.get("to").get(0);
-                    Arrays.stream(froms).forEach(from -> {
-                        ConverterKey key = new ConverterKey(from, to);
-                        converters.put(key, (Function) bean);
-                    });
+                    Arrays.stream(froms).forEach(from -> register(from, to, bean));
 
                 }
             }
@@ -89,32 +88,9 @@ public class Converters implements BeanPostProcessor {
         return bean;
     }
 
-    public <T> T from(Object from, Class<T> to) {
-        if (from == null) {
-            return null;
-        }
-
-        // In the case of java.util.Calendar, we may not have created converters for all types.
-        Class<?> fromClass = from.getClass();
-        Function converter = getConverter(fromClass, to);
-        while (converter == null && fromClass.getSuperclass() != Object.class) {
-            fromClass = fromClass.getSuperclass();
-            converter = getConverter(fromClass, to);
-        }
-        if (converter == null) {
-            throw new NoSuchBeanDefinitionException(to, String.format("No bean available to convert from %s to %s", from.getClass(), to));
-        }
-        if (fromClass != from.getClass() && LOG.isDebugEnabled()) {
-            LOG.debug(String.format("No direct converter found between %s and %s. Attempting to convert from %s to %s instead.", from.getClass(), to, fromClass, to));
-        }
-        return (T) converter.apply(from);
-    }
-
-    private <T> Function getConverter(Class<?> from, Class<T> to) {
-        Function converter;
-        ConverterKey key = new ConverterKey(from, to);
-        converter = converters.get(key);
-        return converter;
+    @Override
+    protected RuntimeException noConverter(Class<?> from, Class<?> to) {
+        return new NoSuchBeanDefinitionException(to, String.format("No bean available to convert from %s to %s", from, to));
     }
 
     @Override
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A {@link Spliterator} which lazily converts each element of another {@link Spliterator}, obtained from
+ * {@link ConverterRegistry#spliterator(Spliterator, Class)}. The converter is looked up again only when the runtime
+ * class of the source elements changes. Splitting delegates to the source, and the SIZED, SUBSIZED, ORDERED, IMMUTABLE
+ * and CONCURRENT characteristics of the source are kept so parallel streams split as well as they would without
+ * conversion.
+ *
+ * @param <T> the type of the converted elements
+ * @author beirtipol@gmail.com
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public final class ConvertingSpliterator<T> implements Spliterator<T> {
+    private static final int KEPT_CHARACTERISTICS = SIZED | SUBSIZED | ORDERED | IMMUTABLE | CONCURRENT;
+
+    private final Spliterator<?>    source;
+    private final ConverterRegistry converters;
+    private final Class<T>          to;
+    private final Consumer<Object>  holder = value -> this.current = value;
+
+    private Object   current;
+    private Class<?> runClass;
+    private Function converter;
+
+    ConvertingSpliterator(Spliterator<?> source, ConverterRegistry converters, Class<T> to) {
+        this.source     = source;
+        this.converters = converters;
+        this.to         = to;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (!source.tryAdvance(holder)) {
+            return false;
+        }
+        Object value = current;
+        current = null;
+        action.accept(convert(value));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        source.forEachRemaining(value -> action.accept(convert(value)));
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        Spliterator<?> split = source.trySplit();
+        return split == null ? null : new ConvertingSpliterator<>(split, converters, to);
+    }
+
+    @Override
+    public long estimateSize() {
+        return source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & KEPT_CHARACTERISTICS;
+    }
+
+    private T convert(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.getClass() != runClass) {
+            converter = converters.converter(value.getClass(), to);
+            runClass  = value.getClass();
+        }
+        return (T) converter.apply(value);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+/**
+ * Conversions between whole columns of dates held as epoch milliseconds ({@code long[]}) or epoch days
+ * ({@code int[]}), and from or to {@link LocalDate} and {@link Date} at the edges. The primitive conversions create no
+ * objects at all. Every method has a variant which writes in to a caller-supplied array so columns can be reused.
+ * <p>
+ * As with the rest of this project, epoch milliseconds are read in UTC when working out the day. Object arrays must
+ * not contain nulls.
+ * <p>
+ * For other types, see {@link ConverterRegistry#toEpochMillis(Object[])} and
+ * {@link ConverterRegistry#fromEpochMillis(long[], Class)}
+ *
+ * @author beirtipol@gmail.com
+ */
+public class DateColumns {
+
+    /**
+     * @return the epoch day of each element of 'epochMillis'
+     */
+    public static int[] toEpochDays(long[] epochMillis) {
+        return toEpochDays(epochMillis, new int[epochMillis.length]);
+    }
+
+    /**
+     * As {@link #toEpochDays(long[])}, writing in to 'destination', which must be at least as long as 'epochMillis'
+     *
+     * @return 'destination'
+     */
+    public static int[] toEpochDays(long[] epochMillis, int[] destination) {
+        checkLength(epochMillis.length, destination.length);
+        for (int i = 0; i < epochMillis.length; i++) {
+            destination[i] = (int) Math.floorDiv(epochMillis[i], ThreeTenDates.MILLIS_PER_DAY);
+        }
+        return destination;
+    }
+
+    /**
+     * @return the start of each day of 'epochDays' in epoch milliseconds
+     */
+    public static long[] toEpochMillis(int[] epochDays) {
+        return toEpochMillis(epochDays, new long[epochDays.length]);
+    }
+
+    /**
+     * As {@link #toEpochMillis(int[])}, writing in to 'destination', which must be at least as long as 'epochDays'
+     *
+     * @return 'destination'
+     */
+    public static long[] toEpochMillis(int[] epochDays, long[] destination) {
+        checkLength(epochDays.length, destination.length);
+        for (int i = 0; i < epochDays.length; i++) {
+            destination[i] = epochDays[i] * ThreeTenDates.MILLIS_PER_DAY;
+        }
+        return destination;
+    }
+
+    public static int[] toEpochDays(LocalDate[] dates) {
+        return toEpochDays(dates, new int[dates.length]);
+    }
+
+    public static int[] toEpochDays(LocalDate[] dates, int[] destination) {
+        checkLength(dates.length, destination.length);
+        for (int i = 0; i < dates.length; i++) {
+            destination[i] = (int) dates[i].toEpochDay();
+        }
+        return destination;
+    }
+
+    public static LocalDate[] toLocalDates(int[] epochDays) {
+        return toLocalDates(epochDays, new LocalDate[epochDays.length]);
+    }
+
+    public static LocalDate[] toLocalDates(int[] epochDays, LocalDate[] destination) {
+        checkLength(epochDays.length, destination.length);
+        for (int i = 0; i < epochDays.length; i++) {
+            destination[i] = LocalDate.ofEpochDay(epochDays[i]);
+        }
+        return destination;
+    }
+
+    public static long[] toEpochMillis(Date[] dates) {
+        return toEpochMillis(dates, new long[dates.length]);
+    }
+
+    public static long[] toEpochMillis(Date[] dates, long[] destination) {
+        checkLength(dates.length, destination.length);
+        for (int i = 0; i < dates.length; i++) {
+            destination[i] = dates[i].getTime();
+        }
+        return destination;
+    }
+
+    public static Date[] toUtilDates(long[] epochMillis) {
+        return toUtilDates(epochMillis, new Date[epochMillis.length]);
+    }
+
+    public static Date[] toUtilDates(long[] epochMillis, Date[] destination) {
+        checkLength(epochMillis.length, destination.length);
+        for (int i = 0; i < epochMillis.length; i++) {
+            destination[i] = new Date(epochMillis[i]);
+        }
+        return destination;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the destination is shorter than the source
+     */
+    public static void checkLength(int sourceLength, int destinationLength) {
+        if (destinationLength < sourceLength) {
+            throw new IllegalArgumentException(String.format("Destination length %d is less than source length %d", destinationLength, sourceLength));
+        }
+    }
+}
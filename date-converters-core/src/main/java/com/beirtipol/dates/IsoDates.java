@@ -0,0 +1,532 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DateTimeException;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Utility class for reading and writing ISO-8601 text without a {@link java.time.format.DateTimeFormatter}. Nothing
+ * is allocated while reading a single field, not even a substring, and writing only appends to the {@link Appendable}
+ * given. To read more than one field, {@link #parse(CharSequence)} reads the text once in to a {@link Fields}.
+ * <p>
+ * The text read is a date, {@code 2019-09-01}, or a date and time, {@code 2019-09-01T01:02:03.456}, optionally followed
+ * by an offset of {@code Z}, {@code +01:00} or {@code +01:00:30}, as accepted by
+ * {@link java.time.format.DateTimeFormatter#ISO_OFFSET_DATE_TIME} or
+ * {@link java.time.format.DateTimeFormatter#ISO_LOCAL_DATE_TIME}. Seconds and the fraction of a second, of up to nine
+ * digits, are optional. Years outside 0000 to 9999 must have a sign, e.g. {@code +10000-01-01}. As elsewhere, text
+ * without an offset is taken to be in UTC. A date may also be written without separators, {@code 20190901}, as
+ * accepted by {@link java.time.format.DateTimeFormatter#BASIC_ISO_DATE}, but then it must be on its own. Anything else
+ * throws a {@link DateTimeParseException} with the index of the problem.
+ * <p>
+ * The text written is the same as {@link java.time.format.DateTimeFormatter#ISO_LOCAL_DATE},
+ * {@link java.time.format.DateTimeFormatter#ISO_LOCAL_DATE_TIME} or
+ * {@link java.time.format.DateTimeFormatter#ISO_OFFSET_DATE_TIME} would write.
+ *
+ * @author beirtipol@gmail.com
+ */
+public class IsoDates {
+    private static final int  SECONDS_PER_DAY     = 86_400;
+    private static final long NANOS_PER_SECOND    = 1_000_000_000L;
+    private static final int  NANOS_PER_MILLI     = 1_000_000;
+    private static final int  MAX_OFFSET          = 18 * 3600;
+    private static final int  BASIC_LENGTH        = 8;
+    private static final long MIN_BASIC_EPOCH_DAY = -719_528;
+    private static final long MAX_BASIC_EPOCH_DAY = 2_932_896;
+
+    /**
+     * @return the days since 1970-01-01 of the date at the start of 'text'. Any time or offset is checked but ignored,
+     * so this is the date as written
+     */
+    public static long parseEpochDay(CharSequence text) {
+        int dateEnd = dateEnd(text);
+        long epochDay = epochDay(text, dateEnd);
+        nanoOfDay(text, dateEnd);
+        offsetSeconds(text, timeEnd(text, dateEnd));
+        return epochDay;
+    }
+
+    /**
+     * @return the instant of 'text' in seconds since 1970-01-01T00:00:00Z. A date on its own is the start of that day
+     */
+    public static long parseEpochSecond(CharSequence text) {
+        int dateEnd = dateEnd(text);
+        return epochSecond(epochDay(text, dateEnd), nanoOfDay(text, dateEnd), offsetSeconds(text, timeEnd(text, dateEnd)));
+    }
+
+    /**
+     * @return the nanosecond of the second of 'text', 0 if there is no fraction
+     */
+    public static int parseNano(CharSequence text) {
+        return (int) (parseNanoOfDay(text) % NANOS_PER_SECOND);
+    }
+
+    /**
+     * @return the instant of 'text' in milliseconds since 1970-01-01T00:00:00Z, dropping any smaller fraction
+     */
+    public static long parseEpochMilli(CharSequence text) {
+        int dateEnd = dateEnd(text);
+        long nanoOfDay = nanoOfDay(text, dateEnd);
+        long epochSecond = epochSecond(epochDay(text, dateEnd), nanoOfDay, offsetSeconds(text, timeEnd(text, dateEnd)));
+        return epochSecond * 1000 + nanoOfDay % NANOS_PER_SECOND / NANOS_PER_MILLI;
+    }
+
+    /**
+     * @return the date and time as written, in nanoseconds since the start of the day, ignoring the offset. 0 for a
+     * date on its own
+     */
+    public static long parseNanoOfDay(CharSequence text) {
+        int dateEnd = dateEnd(text);
+        epochDay(text, dateEnd);
+        long nanoOfDay = nanoOfDay(text, dateEnd);
+        offsetSeconds(text, timeEnd(text, dateEnd));
+        return nanoOfDay;
+    }
+
+    /**
+     * @return the offset from UTC in seconds, 0 if there is none
+     */
+    public static int parseOffsetSeconds(CharSequence text) {
+        int dateEnd = dateEnd(text);
+        epochDay(text, dateEnd);
+        nanoOfDay(text, dateEnd);
+        return offsetSeconds(text, timeEnd(text, dateEnd));
+    }
+
+    /**
+     * Read the date, time and offset of 'text' in one pass, for a caller which needs more than one of them.
+     *
+     * @return the fields of 'text', as the parse methods above would return them
+     */
+    public static Fields parse(CharSequence text) {
+        int dateEnd = dateEnd(text);
+        long epochDay = epochDay(text, dateEnd);
+        long nanoOfDay = nanoOfDay(text, dateEnd);
+        int timeEnd = timeEnd(text, dateEnd);
+        return new Fields(epochDay, nanoOfDay, offsetSeconds(text, timeEnd), timeEnd < text.length());
+    }
+
+    /**
+     * Append a date as {@code yyyy-MM-dd}.
+     *
+     * @param epochDay days since 1970-01-01
+     * @return 'to'
+     */
+    public static <A extends Appendable> A appendDate(long epochDay, A to) {
+        try {
+            writeDate(epochDay, true, to);
+            return to;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Append a date as {@code yyyyMMdd}.
+     *
+     * @param epochDay days since 1970-01-01, which must be in the years 0000 to 9999
+     * @return 'to'
+     * @throws DateTimeException if the year has more than four digits or is negative, as it would be ambiguous
+     */
+    public static <A extends Appendable> A appendBasicDate(long epochDay, A to) {
+        if (epochDay < MIN_BASIC_EPOCH_DAY || epochDay > MAX_BASIC_EPOCH_DAY) {
+            throw new DateTimeException("Only the years 0000 to 9999 can be written without separators, not epoch day " + epochDay);
+        }
+        try {
+            writeDate(epochDay, false, to);
+            return to;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Append a date and time with no offset, as {@code yyyy-MM-ddTHH:mm:ss} followed by as many digits of the fraction
+     * of a second as are needed.
+     *
+     * @param epochSecond seconds since 1970-01-01T00:00:00 of the date and time as it should be written
+     * @param nano        the nanosecond of the second
+     * @return 'to'
+     */
+    public static <A extends Appendable> A appendDateTime(long epochSecond, int nano, A to) {
+        try {
+            writeDateTime(epochSecond, nano, to);
+            return to;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Append an instant as the date and time at an offset from UTC, followed by the offset, which is {@code Z} for UTC.
+     *
+     * @param epochSecond   seconds since 1970-01-01T00:00:00Z
+     * @param nano          the nanosecond of the second
+     * @param offsetSeconds the offset from UTC to write the date and time at
+     * @return 'to'
+     */
+    public static <A extends Appendable> A appendOffsetDateTime(long epochSecond, int nano, int offsetSeconds, A to) {
+        try {
+            writeDateTime(epochSecond + offsetSeconds, nano, to);
+            writeOffset(offsetSeconds, to);
+            return to;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the index just after the date, time and fraction, i.e. where any offset starts
+     */
+    private static int timeEnd(CharSequence text, int dateEnd) {
+        int index = dateEnd;
+        if (index >= text.length() || text.charAt(index) != 'T' && text.charAt(index) != 't') {
+            return Math.min(index, text.length());
+        }
+        index += 6;
+        if (index < text.length() && text.charAt(index) == ':') {
+            index += 3;
+            if (index < text.length() && text.charAt(index) == '.') {
+                index++;
+                int digits = 0;
+                while (index < text.length() && isDigit(text.charAt(index))) {
+                    index++;
+                    digits++;
+                }
+                if (digits == 0 || digits > 9) {
+                    throw error(text, index, "Expected 1 to 9 digits of a fraction of a second");
+                }
+            }
+        }
+        return Math.min(index, text.length());
+    }
+
+    private static int dateEnd(CharSequence text) {
+        int index = 0;
+        if (text.length() > 0 && (text.charAt(0) == '+' || text.charAt(0) == '-')) {
+            index++;
+        }
+        while (index < text.length() && isDigit(text.charAt(index))) {
+            index++;
+        }
+        return isBasic(text, index) ? BASIC_LENGTH : index + 6;
+    }
+
+    /**
+     * @return true if 'text' is a date without separators, given the index after the leading digits
+     */
+    private static boolean isBasic(CharSequence text, int digitsEnd) {
+        return digitsEnd == BASIC_LENGTH && text.length() == BASIC_LENGTH;
+    }
+
+    private static long epochDay(CharSequence text, int dateEnd) {
+        if (dateEnd == BASIC_LENGTH && isBasic(text, BASIC_LENGTH)) {
+            return epochDay(text, digits(text, 0, 4), 4, digits(text, 4, 2), 6, digits(text, 6, 2));
+        }
+        int yearEnd = dateEnd - 6;
+        int year;
+        char sign = text.length() > 0 ? text.charAt(0) : ' ';
+        if (sign == '+' || sign == '-') {
+            if (yearEnd < 5 || yearEnd > 10) {
+                throw error(text, 0, "Expected a signed year of 4 to 9 digits");
+            }
+            year = digits(text, 1, yearEnd - 1);
+            if (sign == '-') {
+                year = -year;
+            }
+        } else {
+            if (yearEnd != 4) {
+                throw error(text, 0, "Expected a year of 4 digits, or a signed year");
+            }
+            year = digits(text, 0, 4);
+        }
+        expect(text, yearEnd, '-');
+        int month = digits(text, yearEnd + 1, 2);
+        expect(text, yearEnd + 3, '-');
+        int day = digits(text, yearEnd + 4, 2);
+        return epochDay(text, year, yearEnd + 1, month, yearEnd + 4, day);
+    }
+
+    private static long epochDay(CharSequence text, int year, int monthIndex, int month, int dayIndex, int day) {
+        if (month < 1 || month > 12) {
+            throw error(text, monthIndex, "Invalid month " + month);
+        }
+        if (day < 1 || day > lengthOfMonth(year, month)) {
+            throw error(text, dayIndex, "Invalid day of month " + day);
+        }
+        return ThreeTenDates.toEpochDay(year, month, day);
+    }
+
+    private static long nanoOfDay(CharSequence text, int dateEnd) {
+        int index = dateEnd;
+        if (index >= text.length() || text.charAt(index) != 'T' && text.charAt(index) != 't') {
+            return 0;
+        }
+        int hour = digits(text, index + 1, 2);
+        expect(text, index + 3, ':');
+        int minute = digits(text, index + 4, 2);
+        int second = 0;
+        long nano = 0;
+        index += 6;
+        if (index < text.length() && text.charAt(index) == ':') {
+            second = digits(text, index + 1, 2);
+            index += 3;
+            if (index < text.length() && text.charAt(index) == '.') {
+                long scale = NANOS_PER_SECOND;
+                for (index++; index < text.length() && isDigit(text.charAt(index)); index++) {
+                    scale /= 10;
+                    nano += (text.charAt(index) - '0') * scale;
+                }
+            }
+        }
+        if (hour > 23 || minute > 59 || second > 59) {
+            throw error(text, dateEnd + 1, String.format("Invalid time %02d:%02d:%02d", hour, minute, second));
+        }
+        return (hour * 3600L + minute * 60 + second) * NANOS_PER_SECOND + nano;
+    }
+
+    private static long epochSecond(long epochDay, long nanoOfDay, int offsetSeconds) {
+        return epochDay * SECONDS_PER_DAY + nanoOfDay / NANOS_PER_SECOND - offsetSeconds;
+    }
+
+    private static int offsetSeconds(CharSequence text, int index) {
+        if (index == text.length()) {
+            return 0;
+        }
+        char first = text.charAt(index);
+        if ((first == 'Z' || first == 'z') && index + 1 == text.length()) {
+            return 0;
+        }
+        if ((first != '+' && first != '-') || (text.length() - index != 6 && text.length() - index != 9)) {
+            throw error(text, index, "Expected the end of the text, Z, or an offset of +HH:MM or +HH:MM:SS");
+        }
+        int hours = digits(text, index + 1, 2);
+        expect(text, index + 3, ':');
+        int minutes = digits(text, index + 4, 2);
+        int seconds = 0;
+        if (text.length() - index == 9) {
+            expect(text, index + 6, ':');
+            seconds = digits(text, index + 7, 2);
+        }
+        int total = hours * 3600 + minutes * 60 + seconds;
+        if (minutes > 59 || seconds > 59 || total > MAX_OFFSET) {
+            throw error(text, index, "Invalid offset, which must be no more than 18 hours");
+        }
+        return first == '-' ? -total : total;
+    }
+
+    private static int digits(CharSequence text, int start, int count) {
+        if (start + count > text.length()) {
+            throw error(text, Math.min(start, text.length()), "Text ended early");
+        }
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                throw error(text, i, "Expected a digit");
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static void expect(CharSequence text, int index, char expected) {
+        if (index >= text.length() || text.charAt(index) != expected) {
+            throw error(text, Math.min(index, text.length()), "Expected '" + expected + "'");
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static DateTimeParseException error(CharSequence text, int index, String message) {
+        return new DateTimeParseException(String.format("Text '%s' could not be parsed at index %s: %s", text, index, message), text, index);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return ThreeTenDates.isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Writes the date in the proleptic ISO calendar, worked out as in {@link java.time.LocalDate#ofEpochDay(long)}
+     */
+    private static void writeDate(long epochDay, boolean separators, Appendable to) throws IOException {
+        long zeroDay = epochDay + 719_528 - 60;
+        long adjust = 0;
+        if (zeroDay < 0) {
+            long adjustCycles = (zeroDay + 1) / 146_097 - 1;
+            adjust = adjustCycles * 400;
+            zeroDay += -adjustCycles * 146_097;
+        }
+        long yearEst = (400 * zeroDay + 591) / 146_097;
+        long doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        if (doyEst < 0) {
+            yearEst--;
+            doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        }
+        yearEst += adjust;
+        int marchDoy0 = (int) doyEst;
+        int marchMonth0 = (marchDoy0 * 5 + 2) / 153;
+        int month = (marchMonth0 + 2) % 12 + 1;
+        int day = marchDoy0 - (marchMonth0 * 306 + 5) / 10 + 1;
+        long year = yearEst + marchMonth0 / 10;
+
+        if (year > 9999) {
+            to.append('+');
+        } else if (year < 0) {
+            to.append('-');
+            year = -year;
+        }
+        pad(year, 4, to);
+        if (separators) {
+            to.append('-');
+        }
+        pad(month, 2, to);
+        if (separators) {
+            to.append('-');
+        }
+        pad(day, 2, to);
+    }
+
+    private static void writeDateTime(long epochSecond, int nano, Appendable to) throws IOException {
+        writeDate(Math.floorDiv(epochSecond, SECONDS_PER_DAY), true, to);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+        to.append('T');
+        pad(secondOfDay / 3600, 2, to);
+        to.append(':');
+        pad(secondOfDay / 60 % 60, 2, to);
+        to.append(':');
+        pad(secondOfDay % 60, 2, to);
+        if (nano > 0) {
+            to.append('.');
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            pad(nano, digits, to);
+        }
+    }
+
+    private static void writeOffset(int offsetSeconds, Appendable to) throws IOException {
+        if (offsetSeconds == 0) {
+            to.append('Z');
+            return;
+        }
+        int total = Math.abs(offsetSeconds);
+        to.append(offsetSeconds < 0 ? '-' : '+');
+        pad(total / 3600, 2, to);
+        to.append(':');
+        pad(total / 60 % 60, 2, to);
+        if (total % 60 != 0) {
+            to.append(':');
+            pad(total % 60, 2, to);
+        }
+    }
+
+    /**
+     * Append 'value', which must not be negative, with leading zeros up to 'width' digits
+     */
+    private static void pad(long value, int width, Appendable to) throws IOException {
+        long divisor = 1;
+        int digits = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+            digits++;
+        }
+        for (int i = digits; i < width; i++) {
+            to.append('0');
+        }
+        for (; divisor > 0; divisor /= 10) {
+            to.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    /**
+     * The date, time and offset of some ISO-8601 text, as read by {@link #parse(CharSequence)}
+     */
+    public static final class Fields {
+        private final long    epochDay;
+        private final long    nanoOfDay;
+        private final int     offsetSeconds;
+        private final boolean offset;
+
+        private Fields(long epochDay, long nanoOfDay, int offsetSeconds, boolean offset) {
+            this.epochDay      = epochDay;
+            this.nanoOfDay     = nanoOfDay;
+            this.offsetSeconds = offsetSeconds;
+            this.offset        = offset;
+        }
+
+        /**
+         * @return the days since 1970-01-01 of the date as written
+         */
+        public long getEpochDay() {
+            return epochDay;
+        }
+
+        /**
+         * @return the time as written in nanoseconds since the start of the day, 0 for a date on its own
+         */
+        public long getNanoOfDay() {
+            return nanoOfDay;
+        }
+
+        /**
+         * @return the nanosecond of the second, 0 if there is no fraction
+         */
+        public int getNano() {
+            return (int) (nanoOfDay % NANOS_PER_SECOND);
+        }
+
+        /**
+         * @return the offset from UTC in seconds, 0 if there is none
+         */
+        public int getOffsetSeconds() {
+            return offsetSeconds;
+        }
+
+        /**
+         * @return true if the text ends with Z or an offset, false if it is a date and time without one
+         */
+        public boolean hasOffset() {
+            return offset;
+        }
+
+        /**
+         * @return the instant in seconds since 1970-01-01T00:00:00Z, taking a date and time without an offset to be in
+         * UTC
+         */
+        public long getEpochSecond() {
+            return epochSecond(epochDay, nanoOfDay, offsetSeconds);
+        }
+    }
+}
@@ -17,11 +17,80 @@
 
 package com.beirtipol.dates;
 
+import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 
 /**
  * Utility class for JSR-310 (java.util.time) related classes
  */
 public class ThreeTenDates {
     public static ZoneId UTC = ZoneId.of("UTC");
+
+    public static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private static final long DAYS_0000_TO_1970 = 719_528L;
+    private static final int  MILLIS_PER_SECOND = 1000;
+    private static final int  NANOS_PER_MILLI   = 1_000_000;
+
+    /**
+     * Calculate the epoch day of a date in the proleptic ISO calendar without creating a {@link java.time.LocalDate}.
+     * This gives the same answer as {@link java.time.LocalDate#toEpochDay()}.
+     *
+     * @param year  the proleptic year
+     * @param month the month of the year, 1-indexed
+     * @param day   the day of the month
+     * @return the number of days since 1970-01-01
+     */
+    public static long toEpochDay(int year, int month, int day) {
+        long y = year;
+        long total = 365 * y;
+        if (y >= 0) {
+            total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        } else {
+            total -= y / -4 - y / -100 + y / -400;
+        }
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * @return the instant of 'from' read as UTC, in milliseconds since 1970-01-01T00:00:00Z
+     */
+    public static long toEpochMilli(LocalDateTime from) {
+        return from.toEpochSecond(ZoneOffset.UTC) * MILLIS_PER_SECOND + from.getNano() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * As {@code from.toInstant().toEpochMilli()}, without creating the {@link java.time.Instant}
+     */
+    public static long toEpochMilli(ZonedDateTime from) {
+        return from.toEpochSecond() * MILLIS_PER_SECOND + from.getNano() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * @return the {@link LocalDateTime} in UTC at the instant
+     */
+    public static LocalDateTime toLocalDateTime(long epochMilli) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMilli, MILLIS_PER_SECOND), Math.floorMod(epochMilli, MILLIS_PER_SECOND) * NANOS_PER_MILLI, ZoneOffset.UTC);
+    }
+
+    /**
+     * @return the {@link ZonedDateTime} in {@link #UTC} at the instant
+     */
+    public static ZonedDateTime toZonedDateTime(long epochMilli) {
+        return ZonedDateTime.ofInstant(toLocalDateTime(epochMilli), ZoneOffset.UTC, UTC);
+    }
+
+    public static boolean isLeapYear(long year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
 }
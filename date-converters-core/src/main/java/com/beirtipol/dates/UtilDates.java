@@ -52,6 +52,26 @@ public class UtilDates {
         return calendar.getTime();
     }
 
+    /**
+     * Create a {@link GregorianCalendar} in {@link #UTC} at an instant. Unlike {@link Calendar#getInstance(TimeZone)},
+     * this does not look up a calendar type for the default locale.
+     *
+     * @param epochMilli milliseconds since 1970-01-01T00:00:00Z
+     * @return a new {@link GregorianCalendar}
+     */
+    public static Calendar newCalendar(long epochMilli) {
+        return newCalendar(epochMilli, UTC);
+    }
+
+    /**
+     * As {@link #newCalendar(long)}, in 'timezone'.
+     */
+    public static Calendar newCalendar(long epochMilli, TimeZone timezone) {
+        Calendar calendar = new GregorianCalendar(timezone);
+        calendar.setTimeInMillis(epochMilli);
+        return calendar;
+    }
+
     /**
      * Add a number of temporal units to a Date
      *
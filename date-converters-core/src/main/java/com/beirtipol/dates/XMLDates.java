@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.TimeZone;
+
+/**
+ * Utility class for {@link XMLGregorianCalendar}
+ */
+public class XMLDates {
+    private static final Logger LOG = LoggerFactory.getLogger(XMLDates.class);
+
+    private static final ThreadLocal<DatatypeFactory> DATATYPE_FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return DatatypeFactory.newInstance();
+        } catch (DatatypeConfigurationException e) {
+            LOG.error("SEVERE: Cannot instantiate DatatypeFactory.", e);
+            throw new IllegalStateException(e);
+        }
+    });
+
+    /**
+     * The JAXP spec does not say whether a {@link DatatypeFactory} is thread-safe, so each thread gets its own.
+     *
+     * @return the {@link DatatypeFactory} for the current thread
+     */
+    public static DatatypeFactory datatypeFactory() {
+        return DATATYPE_FACTORY.get();
+    }
+
+    /**
+     * Calculate the instant of an {@link XMLGregorianCalendar} from its fields, without building a
+     * {@link java.util.GregorianCalendar}. As in {@link XMLGregorianCalendar#toGregorianCalendar()}, an undefined year,
+     * month or day is taken from 1970-01-01, undefined time fields count as zero and an undefined timezone means the
+     * default timezone. In the default timezone, a time which is skipped when the clocks go forward is moved forward by
+     * the length of the gap, and a time which happens twice when the clocks go back is taken to be the later one. Only a
+     * year too large for an int, i.e. one with an eon, falls back to {@link XMLGregorianCalendar#toGregorianCalendar()}.
+     *
+     * @return milliseconds since 1970-01-01T00:00:00Z
+     */
+    public static long toEpochMilli(XMLGregorianCalendar from) {
+        if (from.getEon() != null) {
+            return from.toGregorianCalendar().getTimeInMillis();
+        }
+        int timezone = from.getTimezone();
+        if (timezone == DatatypeConstants.FIELD_UNDEFINED) {
+            return ZonedDateTime.ofLocal(ThreeTenDates.toLocalDateTime(localEpochMilli(from)), ZoneId.systemDefault(), null)
+                    .withLaterOffsetAtOverlap()
+                    .toInstant()
+                    .toEpochMilli();
+        }
+        return localEpochMilli(from) - timezone * 60_000L;
+    }
+
+    /**
+     * @return the epoch day of the year, month and day fields, i.e. the date as seen in the calendar's own timezone.
+     * Undefined fields are taken from 1970-01-01
+     */
+    public static int toEpochDay(XMLGregorianCalendar from) {
+        if (from.getEon() != null) {
+            return (int) from.toGregorianCalendar().toZonedDateTime().toLocalDate().toEpochDay();
+        }
+        return (int) Math.floorDiv(localEpochMilli(from), ThreeTenDates.MILLIS_PER_DAY);
+    }
+
+    /**
+     * @return the date and time fields as a {@link LocalDateTime}, ignoring the timezone. Undefined date fields are
+     * taken from 1970-01-01 and undefined time fields count as zero
+     */
+    public static LocalDateTime toLocalDateTime(XMLGregorianCalendar from) {
+        if (from.getEon() != null) {
+            return from.toGregorianCalendar().toZonedDateTime().toLocalDateTime();
+        }
+        return ThreeTenDates.toLocalDateTime(localEpochMilli(from));
+    }
+
+    /**
+     * @return the offset from UTC of the timezone field in milliseconds or, if it is undefined, that of the default
+     * timezone at 'epochMilli'
+     */
+    public static int offsetMillis(XMLGregorianCalendar from, long epochMilli) {
+        int timezone = from.getTimezone();
+        return timezone == DatatypeConstants.FIELD_UNDEFINED ? TimeZone.getDefault().getOffset(epochMilli) : timezone * 60_000;
+    }
+
+    /**
+     * @return a new {@link XMLGregorianCalendar} at the instant, with a timezone offset of zero
+     */
+    public static XMLGregorianCalendar ofEpochMilli(long epochMilli) {
+        return ofEpochMilli(epochMilli, 0);
+    }
+
+    /**
+     * Create an {@link XMLGregorianCalendar} at an instant, with the fields as seen at an offset from UTC. As with
+     * {@link DatatypeFactory#newXMLGregorianCalendar(java.util.GregorianCalendar)}, the timezone is the offset in whole
+     * minutes, so an offset with seconds, such as some local mean times, does not round trip.
+     *
+     * @param epochMilli   milliseconds since 1970-01-01T00:00:00Z
+     * @param offsetMillis the offset from UTC of the fields
+     * @return a new {@link XMLGregorianCalendar}
+     */
+    public static XMLGregorianCalendar ofEpochMilli(long epochMilli, int offsetMillis) {
+        long local = epochMilli + offsetMillis;
+        LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(local, ThreeTenDates.MILLIS_PER_DAY));
+        int millisOfDay = (int) Math.floorMod(local, ThreeTenDates.MILLIS_PER_DAY);
+        return datatypeFactory().newXMLGregorianCalendar(xmlYear(date.getYear()), date.getMonthValue(), date.getDayOfMonth(),
+                millisOfDay / 3_600_000, millisOfDay / 60_000 % 60, millisOfDay / 1000 % 60, millisOfDay % 1000, offsetMillis / 60_000);
+    }
+
+    /**
+     * @return a new {@link XMLGregorianCalendar} at the start of the day in UTC
+     */
+    public static XMLGregorianCalendar ofEpochDay(long epochDay) {
+        return ofEpochMilli(epochDay * ThreeTenDates.MILLIS_PER_DAY);
+    }
+
+    /**
+     * The milliseconds since 1970-01-01T00:00:00 of the fields, ignoring the timezone. Hours of 24 and leap seconds
+     * roll over in to the next day or minute, as they do in a lenient {@link java.util.GregorianCalendar}.
+     */
+    private static long localEpochMilli(XMLGregorianCalendar from) {
+        int year = from.getYear() == DatatypeConstants.FIELD_UNDEFINED ? 1970 : isoYear(from.getYear());
+        long epochDay = ThreeTenDates.toEpochDay(year, orOne(from.getMonth()), orOne(from.getDay()));
+        long millisOfDay = (((orZero(from.getHour()) * 60L + orZero(from.getMinute())) * 60L) + orZero(from.getSecond())) * 1000L + orZero(from.getMillisecond());
+        return epochDay * ThreeTenDates.MILLIS_PER_DAY + millisOfDay;
+    }
+
+    /**
+     * XML Schema has no year zero, so year -1 is 1 BC, which is year 0 in the proleptic ISO calendar
+     */
+    private static int isoYear(int xmlYear) {
+        return xmlYear < 0 ? xmlYear + 1 : xmlYear;
+    }
+
+    private static int xmlYear(int isoYear) {
+        return isoYear <= 0 ? isoYear - 1 : isoYear;
+    }
+
+    private static int orZero(int field) {
+        return field == DatatypeConstants.FIELD_UNDEFINED ? 0 : field;
+    }
+
+    private static int orOne(int field) {
+        return field == DatatypeConstants.FIELD_UNDEFINED ? 1 : field;
+    }
+}
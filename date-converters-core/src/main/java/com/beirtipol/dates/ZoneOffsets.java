@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The offsets from UTC of a {@link ZoneId} over a range of years, held as sorted arrays of the instants at which they
+ * change. Moving between an instant and the date and time seen in the zone is then a binary search and an addition
+ * rather than a walk through the {@link ZoneRules}. Anything outside the range falls back to the {@link ZoneRules}, so
+ * the answers are the same either way.
+ * <p>
+ * As with {@link LocalDateTime#atZone(ZoneId)}, a date and time in a gap is moved later by the length of the gap and
+ * one in an overlap takes the earlier offset.
+ * <p>
+ * Instances are immutable and safe to share between threads. {@link #of(ZoneId)} keeps one per zone, covering
+ * {@link #DEFAULT_FROM_YEAR} to {@link #DEFAULT_TO_YEAR}.
+ *
+ * @author beirtipol@gmail.com
+ * @see ConverterRegistry#setZone(ZoneId)
+ */
+public final class ZoneOffsets {
+    public static final int DEFAULT_FROM_YEAR = 1900;
+    public static final int DEFAULT_TO_YEAR   = 2100;
+
+    private static final ConcurrentMap<ZoneId, ZoneOffsets> CACHE = new ConcurrentHashMap<>();
+
+    private static final long MAX_OFFSET_MILLIS = ZoneOffset.MAX.getTotalSeconds() * 1000L;
+
+    public static final ZoneOffsets UTC = of(ThreeTenDates.UTC);
+
+    private final ZoneId   zone;
+    private final ZoneRules rules;
+    private final TimeZone timeZone;
+    /**
+     * The instants covered by the arrays, from 'start' inclusive to 'end' exclusive
+     */
+    private final long     start;
+    private final long     end;
+    /**
+     * The dates and times, in milliseconds since 1970-01-01T00:00:00 in the zone, which are covered by the arrays
+     */
+    private final long     localStart;
+    private final long     localEnd;
+    /**
+     * The instant of each transition
+     */
+    private final long[]   transitions;
+    /**
+     * The first date and time of each transition which only has the offset after it
+     */
+    private final long[]   localTransitions;
+    /**
+     * The offset before the first transition, then the offset after each one, in milliseconds
+     */
+    private final int[]    offsets;
+
+    private ZoneOffsets(ZoneId zone, int fromYear, int toYear) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+        this.timeZone = TimeZone.getTimeZone(zone);
+        if (rules.isFixedOffset()) {
+            start = localStart = Long.MIN_VALUE;
+            end = localEnd = Long.MAX_VALUE;
+            transitions = localTransitions = new long[0];
+            offsets = new int[]{offsetMillis(rules.getOffset(Instant.EPOCH))};
+            return;
+        }
+        start = ThreeTenDates.toEpochDay(fromYear, 1, 1) * ThreeTenDates.MILLIS_PER_DAY;
+        end = ThreeTenDates.toEpochDay(toYear + 1, 1, 1) * ThreeTenDates.MILLIS_PER_DAY;
+        localStart = start + MAX_OFFSET_MILLIS;
+        localEnd = end - MAX_OFFSET_MILLIS;
+
+        List<ZoneOffsetTransition> found = new ArrayList<>();
+        ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochMilli(start));
+        while (transition != null && transition.toEpochSecond() * 1000 < end) {
+            found.add(transition);
+            transition = rules.nextTransition(transition.getInstant());
+        }
+        transitions = new long[found.size()];
+        localTransitions = new long[found.size()];
+        offsets = new int[found.size() + 1];
+        offsets[0] = offsetMillis(rules.getOffset(Instant.ofEpochMilli(start)));
+        for (int i = 0; i < transitions.length; i++) {
+            ZoneOffsetTransition next = found.get(i);
+            int before = offsetMillis(next.getOffsetBefore());
+            int after = offsetMillis(next.getOffsetAfter());
+            transitions[i] = next.toEpochSecond() * 1000;
+            localTransitions[i] = transitions[i] + Math.max(before, after);
+            offsets[i + 1] = after;
+        }
+    }
+
+    /**
+     * @return the shared offsets of 'zone' from {@link #DEFAULT_FROM_YEAR} to {@link #DEFAULT_TO_YEAR}
+     */
+    public static ZoneOffsets of(ZoneId zone) {
+        return CACHE.computeIfAbsent(Objects.requireNonNull(zone, "zone"), key -> new ZoneOffsets(key, DEFAULT_FROM_YEAR, DEFAULT_TO_YEAR));
+    }
+
+    /**
+     * Build the offsets of 'zone' from the start of 'fromYear' to the end of 'toYear' in UTC. These are not shared, so
+     * keep the result rather than calling this for every conversion.
+     *
+     * @throws IllegalArgumentException if 'toYear' is before 'fromYear'
+     */
+    public static ZoneOffsets of(ZoneId zone, int fromYear, int toYear) {
+        if (toYear < fromYear) {
+            throw new IllegalArgumentException(String.format("The year range %s to %s is empty", fromYear, toYear));
+        }
+        return new ZoneOffsets(Objects.requireNonNull(zone, "zone"), fromYear, toYear);
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * @return the zone as a {@link TimeZone}. This is shared, so do not modify it
+     */
+    public TimeZone getTimeZone() {
+        return timeZone;
+    }
+
+    /**
+     * @return the number of transitions held, which is 0 for a zone with a fixed offset
+     */
+    public int getTransitionCount() {
+        return transitions.length;
+    }
+
+    /**
+     * @param epochMilli milliseconds since 1970-01-01T00:00:00Z
+     * @return the offset from UTC at the instant, in milliseconds
+     */
+    public int getOffsetMillis(long epochMilli) {
+        if (epochMilli < start || epochMilli >= end) {
+            return offsetMillis(rules.getOffset(Instant.ofEpochMilli(epochMilli)));
+        }
+        return offsets[countAtOrBefore(transitions, epochMilli)];
+    }
+
+    /**
+     * @param epochMilli milliseconds since 1970-01-01T00:00:00Z
+     * @return the date and time seen in the zone at the instant, in milliseconds since 1970-01-01T00:00:00
+     */
+    public long toLocalEpochMilli(long epochMilli) {
+        return epochMilli + getOffsetMillis(epochMilli);
+    }
+
+    /**
+     * @param localEpochMilli a date and time in the zone, in milliseconds since 1970-01-01T00:00:00
+     * @return the instant, in milliseconds since 1970-01-01T00:00:00Z
+     */
+    public long toEpochMilli(long localEpochMilli) {
+        if (localEpochMilli < localStart || localEpochMilli >= localEnd) {
+            return ThreeTenDates.toEpochMilli(ThreeTenDates.toLocalDateTime(localEpochMilli).atZone(zone));
+        }
+        return localEpochMilli - offsets[countAtOrBefore(localTransitions, localEpochMilli)];
+    }
+
+    /**
+     * @return the instant of 'from' in the zone, in milliseconds since 1970-01-01T00:00:00Z
+     */
+    public long toEpochMilli(LocalDateTime from) {
+        return toEpochMilli(ThreeTenDates.toEpochMilli(from));
+    }
+
+    /**
+     * @return the instant at which the day starts in the zone, in milliseconds since 1970-01-01T00:00:00Z
+     */
+    public long startOfDay(long epochDay) {
+        return toEpochMilli(epochDay * ThreeTenDates.MILLIS_PER_DAY);
+    }
+
+    /**
+     * @return the date seen in the zone at the instant, in days since 1970-01-01
+     */
+    public int toEpochDay(long epochMilli) {
+        return (int) Math.floorDiv(toLocalEpochMilli(epochMilli), ThreeTenDates.MILLIS_PER_DAY);
+    }
+
+    /**
+     * @return the {@link LocalDateTime} seen in the zone at the instant
+     */
+    public LocalDateTime toLocalDateTime(long epochMilli) {
+        return ThreeTenDates.toLocalDateTime(toLocalEpochMilli(epochMilli));
+    }
+
+    /**
+     * Create a {@link ZonedDateTime} in the zone at the instant. A {@link ZonedDateTime} checks its offset against the
+     * {@link ZoneRules} of a zone which does not have a fixed offset, so this is not free of them.
+     */
+    public ZonedDateTime toZonedDateTime(long epochMilli) {
+        int offset = getOffsetMillis(epochMilli);
+        return ZonedDateTime.ofInstant(ThreeTenDates.toLocalDateTime(epochMilli + offset), ZoneOffset.ofTotalSeconds(offset / 1000), zone);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ZoneOffsets[%s, %s transitions]", zone, transitions.length);
+    }
+
+    private static int countAtOrBefore(long[] sorted, long key) {
+        int index = Arrays.binarySearch(sorted, key);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private static int offsetMillis(ZoneOffset offset) {
+        return offset.getTotalSeconds() * 1000;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.bytes;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A view of a range of a {@code byte[]} or {@link ByteBuffer} as ASCII text, so that {@link com.beirtipol.dates.IsoDates}
+ * can read from and write to bytes directly. Reading never moves the position of a {@link ByteBuffer}; appending
+ * writes at its position, as {@link ByteBuffer#put(byte)} does.
+ * <p>
+ * A byte outside ASCII is read as a character which is not a digit or separator, so is rejected when parsing. One view
+ * can be pointed at each value in turn, so it is not safe to share between threads.
+ *
+ * @author beirtipol@gmail.com
+ */
+final class AsciiBytes implements CharSequence, Appendable {
+    private byte[]     array;
+    private ByteBuffer buffer;
+    private int        offset;
+    private int        length;
+
+    AsciiBytes of(byte[] array, int offset, int length) {
+        checkRange(array.length, offset, length);
+        this.array = array;
+        this.buffer = null;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    AsciiBytes of(ByteBuffer buffer, int index, int length) {
+        checkRange(buffer.limit(), index, length);
+        this.array = null;
+        this.buffer = buffer;
+        this.offset = index;
+        this.length = length;
+        return this;
+    }
+
+    /**
+     * Point this at 'buffer' to append to it
+     */
+    AsciiBytes to(ByteBuffer buffer) {
+        return of(buffer, buffer.position(), 0);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " is outside a length of " + length);
+        }
+        return (char) ((array != null ? array[offset + index] : buffer.get(offset + index)) & 0xff);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        checkRange(length, start, end - start);
+        return array != null ? new AsciiBytes().of(array, offset + start, end - start) : new AsciiBytes().of(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public Appendable append(CharSequence text) {
+        return append(text, 0, text.length());
+    }
+
+    @Override
+    public Appendable append(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            append(text.charAt(i));
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(char c) {
+        buffer.put((byte) c);
+        length++;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            result.append(charAt(i));
+        }
+        return result.toString();
+    }
+
+    private static void checkRange(int size, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > size - length) {
+            throw new IndexOutOfBoundsException(String.format("Range [%d, %d) is outside a size of %d", offset, offset + length, size));
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.bytes;
+
+import com.beirtipol.dates.ConverterRegistry;
+import com.beirtipol.dates.IsoDates;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Utility class for reading and writing dates as ASCII, or UTF-8, bytes without decoding them to a {@link String}
+ * first. This accepts the same text as {@link IsoDates}, i.e. ISO-8601 dates and date-times such as
+ * {@code 2019-09-01T01:02:03.456Z}, or dates without separators such as {@code 20190901}.
+ * <p>
+ * Values are given by an offset and a length in a {@code byte[]}, or an index and a length in a {@link ByteBuffer},
+ * which is left where it is. Writing puts the text at the position of a {@link ByteBuffer} and moves it on, as
+ * {@link ByteBuffer#put(byte)} does. The column methods read fixed-width records, the value of record 'i' starting at
+ * {@code offset + i * stride}, and create nothing for each record, so a destination array can be reused as with
+ * {@link com.beirtipol.dates.DateColumns}.
+ * <p>
+ * To read any type which there is a {@link CharSequence} converter for, use
+ * {@link #parse(ConverterRegistry, byte[], int, int, Class)}. To write any type with a converter to epoch days or
+ * epoch milliseconds, get those from the {@link ConverterRegistry} and use {@link #writeDate(long, ByteBuffer)} or
+ * {@link #writeInstant(long, ByteBuffer)}.
+ *
+ * @author beirtipol@gmail.com
+ */
+public class ByteDates {
+
+    /**
+     * @return the days since 1970-01-01 of the date as written, as {@link IsoDates#parseEpochDay(CharSequence)}
+     * @throws java.time.format.DateTimeParseException if the bytes are not a date or date-time
+     */
+    public static long parseEpochDay(byte[] bytes, int offset, int length) {
+        return IsoDates.parseEpochDay(new AsciiBytes().of(bytes, offset, length));
+    }
+
+    public static long parseEpochDay(ByteBuffer buffer, int index, int length) {
+        return IsoDates.parseEpochDay(new AsciiBytes().of(buffer, index, length));
+    }
+
+    /**
+     * @return the instant in milliseconds since 1970-01-01T00:00:00Z, as {@link IsoDates#parseEpochMilli(CharSequence)}
+     * @throws java.time.format.DateTimeParseException if the bytes are not a date or date-time
+     */
+    public static long parseEpochMilli(byte[] bytes, int offset, int length) {
+        return IsoDates.parseEpochMilli(new AsciiBytes().of(bytes, offset, length));
+    }
+
+    public static long parseEpochMilli(ByteBuffer buffer, int index, int length) {
+        return IsoDates.parseEpochMilli(new AsciiBytes().of(buffer, index, length));
+    }
+
+    /**
+     * Convert the bytes with the {@link CharSequence} converter to 'to'. The bytes are only read during the call, so
+     * may be overwritten afterwards.
+     *
+     * @return the bytes as a 'to'
+     */
+    public static <T> T parse(ConverterRegistry registry, byte[] bytes, int offset, int length, Class<T> to) {
+        return registry.from(new AsciiBytes().of(bytes, offset, length), to);
+    }
+
+    public static <T> T parse(ConverterRegistry registry, ByteBuffer buffer, int index, int length, Class<T> to) {
+        return registry.from(new AsciiBytes().of(buffer, index, length), to);
+    }
+
+    /**
+     * @param count the number of records to read
+     * @return the epoch day of each record
+     */
+    public static int[] parseEpochDays(byte[] bytes, int offset, int length, int stride, int count) {
+        return parseEpochDays(bytes, offset, length, stride, new int[count]);
+    }
+
+    /**
+     * As {@link #parseEpochDays(byte[], int, int, int, int)}, reading as many records as 'destination' is long
+     *
+     * @return 'destination'
+     */
+    public static int[] parseEpochDays(byte[] bytes, int offset, int length, int stride, int[] destination) {
+        AsciiBytes view = new AsciiBytes();
+        for (int i = 0; i < destination.length; i++) {
+            destination[i] = (int) IsoDates.parseEpochDay(view.of(bytes, offset + i * stride, length));
+        }
+        return destination;
+    }
+
+    public static int[] parseEpochDays(ByteBuffer buffer, int index, int length, int stride, int count) {
+        return parseEpochDays(buffer, index, length, stride, new int[count]);
+    }
+
+    public static int[] parseEpochDays(ByteBuffer buffer, int index, int length, int stride, int[] destination) {
+        AsciiBytes view = new AsciiBytes();
+        for (int i = 0; i < destination.length; i++) {
+            destination[i] = (int) IsoDates.parseEpochDay(view.of(buffer, index + i * stride, length));
+        }
+        return destination;
+    }
+
+    /**
+     * @param count the number of records to read
+     * @return the instant of each record in epoch milliseconds
+     */
+    public static long[] parseEpochMillis(byte[] bytes, int offset, int length, int stride, int count) {
+        return parseEpochMillis(bytes, offset, length, stride, new long[count]);
+    }
+
+    /**
+     * As {@link #parseEpochMillis(byte[], int, int, int, int)}, reading as many records as 'destination' is long
+     *
+     * @return 'destination'
+     */
+    public static long[] parseEpochMillis(byte[] bytes, int offset, int length, int stride, long[] destination) {
+        AsciiBytes view = new AsciiBytes();
+        for (int i = 0; i < destination.length; i++) {
+            destination[i] = IsoDates.parseEpochMilli(view.of(bytes, offset + i * stride, length));
+        }
+        return destination;
+    }
+
+    public static long[] parseEpochMillis(ByteBuffer buffer, int index, int length, int stride, int count) {
+        return parseEpochMillis(buffer, index, length, stride, new long[count]);
+    }
+
+    public static long[] parseEpochMillis(ByteBuffer buffer, int index, int length, int stride, long[] destination) {
+        AsciiBytes view = new AsciiBytes();
+        for (int i = 0; i < destination.length; i++) {
+            destination[i] = IsoDates.parseEpochMilli(view.of(buffer, index + i * stride, length));
+        }
+        return destination;
+    }
+
+    /**
+     * Write a date as {@code yyyy-MM-dd}
+     *
+     * @return 'to'
+     */
+    public static ByteBuffer writeDate(long epochDay, ByteBuffer to) {
+        IsoDates.appendDate(epochDay, new AsciiBytes().to(to));
+        return to;
+    }
+
+    /**
+     * Write a date as {@code yyyyMMdd}, which is always eight bytes
+     *
+     * @return 'to'
+     * @throws java.time.DateTimeException if the year is outside 0000 to 9999
+     */
+    public static ByteBuffer writeBasicDate(long epochDay, ByteBuffer to) {
+        IsoDates.appendBasicDate(epochDay, new AsciiBytes().to(to));
+        return to;
+    }
+
+    /**
+     * Write a date and time with no offset, as {@link IsoDates#appendDateTime(long, int, Appendable)}
+     *
+     * @return 'to'
+     */
+    public static ByteBuffer writeDateTime(long epochSecond, int nano, ByteBuffer to) {
+        IsoDates.appendDateTime(epochSecond, nano, new AsciiBytes().to(to));
+        return to;
+    }
+
+    /**
+     * Write an instant at an offset from UTC, as {@link IsoDates#appendOffsetDateTime(long, int, int, Appendable)}
+     *
+     * @return 'to'
+     */
+    public static ByteBuffer writeOffsetDateTime(long epochSecond, int nano, int offsetSeconds, ByteBuffer to) {
+        IsoDates.appendOffsetDateTime(epochSecond, nano, offsetSeconds, new AsciiBytes().to(to));
+        return to;
+    }
+
+    /**
+     * Write an instant in UTC, e.g. {@code 2019-09-01T01:02:03.456Z}
+     *
+     * @return 'to'
+     */
+    public static ByteBuffer writeInstant(long epochMilli, ByteBuffer to) {
+        return writeOffsetDateTime(Math.floorDiv(epochMilli, 1000), (int) Math.floorMod(epochMilli, 1000) * 1_000_000, 0, to);
+    }
+
+    /**
+     * Write each date as {@code yyyy-MM-dd}, followed by 'separator', e.g. {@code '\n'} for one per line
+     *
+     * @return 'to'
+     */
+    public static ByteBuffer writeDates(int[] epochDays, byte separator, ByteBuffer to) {
+        AsciiBytes view = new AsciiBytes();
+        for (int epochDay : epochDays) {
+            IsoDates.appendDate(epochDay, view.to(to));
+            to.put(separator);
+        }
+        return to;
+    }
+
+    /**
+     * Write each instant in UTC, as {@link #writeInstant(long, ByteBuffer)}, followed by 'separator'
+     *
+     * @return 'to'
+     */
+    public static ByteBuffer writeInstants(long[] epochMillis, byte separator, ByteBuffer to) {
+        AsciiBytes view = new AsciiBytes();
+        for (long epochMilli : epochMillis) {
+            IsoDates.appendOffsetDateTime(Math.floorDiv(epochMilli, 1000), (int) Math.floorMod(epochMilli, 1000) * 1_000_000, 0, view.to(to));
+            to.put(separator);
+        }
+        return to;
+    }
+}
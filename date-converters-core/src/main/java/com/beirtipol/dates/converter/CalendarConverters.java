@@ -18,8 +18,12 @@
 package com.beirtipol.dates.converter;
 
 import com.beirtipol.dates.Converter;
+import com.beirtipol.dates.ConverterRegistry;
 import com.beirtipol.dates.ThreeTenDates;
 import com.beirtipol.dates.UtilDates;
+import com.beirtipol.dates.XMLDates;
+import com.beirtipol.dates.ZoneOffsets;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.xml.datatype.XMLGregorianCalendar;
@@ -36,11 +40,24 @@ import java.util.function.Function;
  * Contains converters for {@link Calendar}. It defaults to using GregorianCalendar in all instances. The author does
  * not claim to understand sun.util.BuddhistCalendar or java.util.JapaneseImperialCalendar well enough to
  * provide implementations for those.
+ * <p>
+ * A new {@link Calendar} is created for every conversion, apart from {@link #CalendarToCalendar()} which returns its
+ * input, in the zone of the registry, which is UTC by default. {@link LocalDate} and {@link LocalDateTime} are read in
+ * that zone too.
  *
  * @author beirtipol@gmail.com
  */
 @Component
-public class CalendarConverters {
+public class CalendarConverters extends ZoneAwareConverters {
+
+    public CalendarConverters() {
+    }
+
+    @Autowired
+    public CalendarConverters(ConverterRegistry registry) {
+        super(registry);
+    }
+
     @Converter(from = {Calendar.class, GregorianCalendar.class}, to = Calendar.class)
     public Function<Calendar, Calendar> CalendarToCalendar() {
         return from -> from;
@@ -48,40 +65,34 @@ public class CalendarConverters {
 
     @Converter(from = {XMLGregorianCalendar.class}, to = Calendar.class)
     public Function<XMLGregorianCalendar, Calendar> XMLGregorianCalendarToCalendar() {
-        return from -> {
-            Calendar result = GregorianCalendar.getInstance(UtilDates.UTC);
-            result.setTimeInMillis(from.toGregorianCalendar().getTimeInMillis());
-            return result;
-        };
+        return from -> UtilDates.newCalendar(XMLDates.toEpochMilli(from), zone().getTimeZone());
     }
 
 
     @Converter(from = LocalDate.class, to = Calendar.class)
     public Function<LocalDate, Calendar> LocalDateToCalendar() {
-        return from -> LocalDateTimeToCalendar().apply(from.atStartOfDay());
+        return from -> {
+            ZoneOffsets zone = zone();
+            return UtilDates.newCalendar(zone.startOfDay(from.toEpochDay()), zone.getTimeZone());
+        };
     }
 
     @Converter(from = LocalDateTime.class, to = Calendar.class)
     public Function<LocalDateTime, Calendar> LocalDateTimeToCalendar() {
-        return from -> ZonedDateTimeToCalendar().apply(from.atZone(ThreeTenDates.UTC));
+        return from -> {
+            ZoneOffsets zone = zone();
+            return UtilDates.newCalendar(zone.toEpochMilli(from), zone.getTimeZone());
+        };
     }
 
     @Converter(from = ZonedDateTime.class, to = Calendar.class)
     public Function<ZonedDateTime, Calendar> ZonedDateTimeToCalendar() {
-        return from -> {
-            Calendar result = GregorianCalendar.getInstance(UtilDates.UTC);
-            result.setTimeInMillis(from.toInstant().toEpochMilli());
-            return result;
-        };
+        return from -> UtilDates.newCalendar(ThreeTenDates.toEpochMilli(from), zone().getTimeZone());
     }
 
     @Converter(from = java.util.Date.class, to = Calendar.class)
     public Function<Date, Calendar> UtilDateToCalendar() {
-        return from -> {
-            Calendar result = GregorianCalendar.getInstance(UtilDates.UTC);
-            result.setTime(from);
-            return result;
-        };
+        return from -> UtilDates.newCalendar(from.getTime(), zone().getTimeZone());
     }
 
     @Converter(from = java.sql.Date.class, to = Calendar.class)
@@ -93,5 +104,4 @@ public class CalendarConverters {
     public Function<Timestamp, Calendar> SQLTimestampToCalendar() {
         return from -> UtilDateToCalendar().apply(from);
     }
-
 }
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.converter;
+
+import com.beirtipol.dates.Converter;
+import com.beirtipol.dates.ConverterRegistry;
+import com.beirtipol.dates.ThreeTenDates;
+import com.beirtipol.dates.UtilDates;
+import com.beirtipol.dates.XMLDates;
+import com.beirtipol.dates.ZoneOffsets;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Converters between the core types and epoch milliseconds ({@code long.class}) or epoch days ({@code int.class}).
+ * These work on the fields or the instant directly, so going to a primitive creates no objects and going from one
+ * creates only the result. As elsewhere, types without a timezone are taken to be in the zone of the registry, which
+ * is UTC by default.
+ *
+ * @author beirtipol@gmail.com
+ */
+@Component
+public class EpochConverters extends ZoneAwareConverters {
+
+    public EpochConverters() {
+    }
+
+    @Autowired
+    public EpochConverters(ConverterRegistry registry) {
+        super(registry);
+    }
+
+    @Converter(from = {java.util.Date.class, java.sql.Date.class, Timestamp.class}, to = long.class)
+    public ToLongFunction<Date> UtilDateToEpochMilli() {
+        return Date::getTime;
+    }
+
+    @Converter(from = {Calendar.class, GregorianCalendar.class}, to = long.class)
+    public ToLongFunction<Calendar> CalendarToEpochMilli() {
+        return Calendar::getTimeInMillis;
+    }
+
+    @Converter(from = XMLGregorianCalendar.class, to = long.class)
+    public ToLongFunction<XMLGregorianCalendar> XMLDateToEpochMilli() {
+        return XMLDates::toEpochMilli;
+    }
+
+    @Converter(from = LocalDate.class, to = long.class)
+    public ToLongFunction<LocalDate> LocalDateToEpochMilli() {
+        return from -> zone().startOfDay(from.toEpochDay());
+    }
+
+    @Converter(from = LocalDateTime.class, to = long.class)
+    public ToLongFunction<LocalDateTime> LocalDateTimeToEpochMilli() {
+        return from -> zone().toEpochMilli(from);
+    }
+
+    @Converter(from = ZonedDateTime.class, to = long.class)
+    public ToLongFunction<ZonedDateTime> ZonedDateTimeToEpochMilli() {
+        return ThreeTenDates::toEpochMilli;
+    }
+
+    @Converter(from = {java.util.Date.class, java.sql.Date.class, Timestamp.class}, to = int.class)
+    public ToIntFunction<Date> UtilDateToEpochDay() {
+        return from -> zone().toEpochDay(from.getTime());
+    }
+
+    @Converter(from = {Calendar.class, GregorianCalendar.class}, to = int.class)
+    public ToIntFunction<Calendar> CalendarToEpochDay() {
+        return from -> zone().toEpochDay(from.getTimeInMillis());
+    }
+
+    @Converter(from = XMLGregorianCalendar.class, to = int.class)
+    public ToIntFunction<XMLGregorianCalendar> XMLDateToEpochDay() {
+        return XMLDates::toEpochDay;
+    }
+
+    @Converter(from = LocalDate.class, to = int.class)
+    public ToIntFunction<LocalDate> LocalDateToEpochDay() {
+        return from -> (int) from.toEpochDay();
+    }
+
+    @Converter(from = LocalDateTime.class, to = int.class)
+    public ToIntFunction<LocalDateTime> LocalDateTimeToEpochDay() {
+        return from -> (int) from.toLocalDate().toEpochDay();
+    }
+
+    @Converter(from = ZonedDateTime.class, to = int.class)
+    public ToIntFunction<ZonedDateTime> ZonedDateTimeToEpochDay() {
+        return from -> (int) from.toLocalDate().toEpochDay();
+    }
+
+    @Converter(from = long.class, to = java.util.Date.class)
+    public LongFunction<Date> EpochMilliToUtilDate() {
+        return Date::new;
+    }
+
+    @Converter(from = long.class, to = java.sql.Date.class)
+    public LongFunction<java.sql.Date> EpochMilliToSQLDate() {
+        return java.sql.Date::new;
+    }
+
+    @Converter(from = long.class, to = Timestamp.class)
+    public LongFunction<Timestamp> EpochMilliToSQLTimestamp() {
+        return Timestamp::new;
+    }
+
+    @Converter(from = long.class, to = Calendar.class)
+    public LongFunction<Calendar> EpochMilliToCalendar() {
+        return from -> UtilDates.newCalendar(from, zone().getTimeZone());
+    }
+
+    @Converter(from = long.class, to = XMLGregorianCalendar.class)
+    public LongFunction<XMLGregorianCalendar> EpochMilliToXMLDate() {
+        return from -> XMLDates.ofEpochMilli(from, zone().getOffsetMillis(from));
+    }
+
+    @Converter(from = long.class, to = LocalDate.class)
+    public LongFunction<LocalDate> EpochMilliToLocalDate() {
+        return from -> LocalDate.ofEpochDay(zone().toEpochDay(from));
+    }
+
+    @Converter(from = long.class, to = LocalDateTime.class)
+    public LongFunction<LocalDateTime> EpochMilliToLocalDateTime() {
+        return from -> zone().toLocalDateTime(from);
+    }
+
+    @Converter(from = long.class, to = ZonedDateTime.class)
+    public LongFunction<ZonedDateTime> EpochMilliToZonedDateTime() {
+        return from -> zone().toZonedDateTime(from);
+    }
+
+    @Converter(from = int.class, to = java.util.Date.class)
+    public IntFunction<Date> EpochDayToUtilDate() {
+        return from -> new Date(zone().startOfDay(from));
+    }
+
+    @Converter(from = int.class, to = java.sql.Date.class)
+    public IntFunction<java.sql.Date> EpochDayToSQLDate() {
+        return from -> new java.sql.Date(zone().startOfDay(from));
+    }
+
+    @Converter(from = int.class, to = Timestamp.class)
+    public IntFunction<Timestamp> EpochDayToSQLTimestamp() {
+        return from -> new Timestamp(zone().startOfDay(from));
+    }
+
+    @Converter(from = int.class, to = Calendar.class)
+    public IntFunction<Calendar> EpochDayToCalendar() {
+        return from -> {
+            ZoneOffsets zone = zone();
+            return UtilDates.newCalendar(zone.startOfDay(from), zone.getTimeZone());
+        };
+    }
+
+    @Converter(from = int.class, to = XMLGregorianCalendar.class)
+    public IntFunction<XMLGregorianCalendar> EpochDayToXMLDate() {
+        return from -> {
+            ZoneOffsets zone = zone();
+            long epochMilli = zone.startOfDay(from);
+            return XMLDates.ofEpochMilli(epochMilli, zone.getOffsetMillis(epochMilli));
+        };
+    }
+
+    @Converter(from = int.class, to = LocalDate.class)
+    public IntFunction<LocalDate> EpochDayToLocalDate() {
+        return LocalDate::ofEpochDay;
+    }
+
+    @Converter(from = int.class, to = LocalDateTime.class)
+    public IntFunction<LocalDateTime> EpochDayToLocalDateTime() {
+        return from -> LocalDate.ofEpochDay(from).atStartOfDay();
+    }
+
+    @Converter(from = int.class, to = ZonedDateTime.class)
+    public IntFunction<ZonedDateTime> EpochDayToZonedDateTime() {
+        return from -> {
+            ZoneOffsets zone = zone();
+            return zone.toZonedDateTime(zone.startOfDay(from));
+        };
+    }
+}
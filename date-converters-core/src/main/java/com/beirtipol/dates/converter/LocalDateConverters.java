@@ -18,6 +18,8 @@
 package com.beirtipol.dates.converter;
 
 import com.beirtipol.dates.Converter;
+import com.beirtipol.dates.ConverterRegistry;
+import com.beirtipol.dates.XMLDates;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -33,18 +35,25 @@ import java.util.function.Function;
 
 /**
  * As {@link LocalDate} does not have any TimeZone information, it does not try to do anything clever with the temporals
- * it attempts to parse. Where possible, it will extract the year/month/day parts of the temporal.
+ * it attempts to parse. Where possible, it will extract the year/month/day parts of the temporal. The date of an
+ * instant is the date seen in the zone of the registry, which is UTC by default.
  *
  * @author beirtipol@gmail.com
  */
 @Component
-public class LocalDateConverters {
+public class LocalDateConverters extends ZoneAwareConverters {
+
+    public LocalDateConverters() {
+    }
+
     @Autowired
-    private ZonedDateTimeConverters zonedDateTimeConverters;
+    public LocalDateConverters(ConverterRegistry registry) {
+        super(registry);
+    }
 
     @Converter(from = XMLGregorianCalendar.class, to = LocalDate.class)
     public Function<XMLGregorianCalendar, LocalDate> XMLDateToLocalDate() {
-        return from -> ZonedDateTimeToLocalDate().apply(from.toGregorianCalendar().toZonedDateTime());
+        return from -> LocalDate.ofEpochDay(XMLDates.toEpochDay(from));
     }
 
     @Converter(from = LocalDate.class, to = LocalDate.class)
@@ -64,21 +73,21 @@ public class LocalDateConverters {
 
     @Converter(from = java.util.Date.class, to = LocalDate.class)
     public Function<Date, LocalDate> UtilDateToLocalDate() {
-        return from -> zonedDateTimeConverters.UtilDateToZonedDateTime().apply(from).toLocalDate();
+        return from -> LocalDate.ofEpochDay(zone().toEpochDay(from.getTime()));
     }
 
     @Converter(from = {Calendar.class, GregorianCalendar.class}, to = LocalDate.class)
     public Function<Calendar, LocalDate> CalendarToLocalDate() {
-        return from -> zonedDateTimeConverters.CalendarToZonedDateTime().apply(from).toLocalDate();
+        return from -> LocalDate.ofEpochDay(zone().toEpochDay(from.getTimeInMillis()));
     }
 
     @Converter(from = java.sql.Date.class, to = LocalDate.class)
     public Function<java.sql.Date, LocalDate> SQLDateToLocalDate() {
-        return from -> zonedDateTimeConverters.SQLDateToZonedDateTime().apply(from).toLocalDate();
+        return from -> UtilDateToLocalDate().apply(from);
     }
 
     @Converter(from = Timestamp.class, to = LocalDate.class)
     public Function<Timestamp, LocalDate> SQLTimestampToLocalDate() {
         return from -> UtilDateToLocalDate().apply(from);
     }
-}
\ No newline at end of file
+}
@@ -18,6 +18,8 @@
 package com.beirtipol.dates.converter;
 
 import com.beirtipol.dates.Converter;
+import com.beirtipol.dates.ConverterRegistry;
+import com.beirtipol.dates.XMLDates;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -33,18 +35,25 @@ import java.util.function.Function;
 
 /**
  * As {@link LocalDateTime} does not have any TimeZone information, it does not try to do anything clever with the
- * temporals it attempts to parse. Where possible, it will extract the year/month/day parts of the temporal.
+ * temporals it attempts to parse. Where possible, it will extract the year/month/day parts of the temporal. The date
+ * and time of an instant are those seen in the zone of the registry, which is UTC by default.
  *
  * @author beirtipol@gmail.com
  */
 @Component
-public class LocalDateTimeConverters {
+public class LocalDateTimeConverters extends ZoneAwareConverters {
+
+    public LocalDateTimeConverters() {
+    }
+
     @Autowired
-    private ZonedDateTimeConverters zonedDateTimeConverters;
+    public LocalDateTimeConverters(ConverterRegistry registry) {
+        super(registry);
+    }
 
     @Converter(from = XMLGregorianCalendar.class, to = LocalDateTime.class)
     public Function<XMLGregorianCalendar, LocalDateTime> XMLDateToLocalDateTime() {
-        return from -> ZonedDateTimeToLocalDateTime().apply(from.toGregorianCalendar().toZonedDateTime());
+        return XMLDates::toLocalDateTime;
     }
 
     @Converter(from = LocalDate.class, to = LocalDateTime.class)
@@ -64,12 +73,12 @@ public class LocalDateTimeConverters {
 
     @Converter(from = java.util.Date.class, to = LocalDateTime.class)
     public Function<Date, LocalDateTime> UtilDateToLocalDateTime() {
-        return from -> zonedDateTimeConverters.UtilDateToZonedDateTime().apply(from).toLocalDateTime();
+        return from -> zone().toLocalDateTime(from.getTime());
     }
 
     @Converter(from = {Calendar.class, GregorianCalendar.class}, to = LocalDateTime.class)
     public Function<Calendar, LocalDateTime> CalendarToLocalDateTime() {
-        return from -> zonedDateTimeConverters.CalendarToZonedDateTime().apply(from).toLocalDateTime();
+        return from -> zone().toLocalDateTime(from.getTimeInMillis());
     }
 
     @Converter(from = java.sql.Date.class, to = LocalDateTime.class)
@@ -81,5 +90,4 @@ public class LocalDateTimeConverters {
     public Function<Timestamp, LocalDateTime> SQLTimestampToLocalDateTime() {
         return from -> UtilDateToLocalDateTime().apply(from);
     }
-
 }
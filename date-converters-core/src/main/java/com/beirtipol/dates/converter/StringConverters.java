@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.converter;
+
+import com.beirtipol.dates.Converter;
+import com.beirtipol.dates.ConverterRegistry;
+import com.beirtipol.dates.IsoDates;
+import com.beirtipol.dates.ThreeTenDates;
+import com.beirtipol.dates.UtilDates;
+import com.beirtipol.dates.XMLDates;
+import com.beirtipol.dates.ZoneOffsets;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Converters between ISO-8601 text and the core types, using {@link IsoDates} rather than a
+ * {@link java.time.format.DateTimeFormatter}. Text is read once from any {@link CharSequence}, without creating a
+ * substring or any intermediate date or time.
+ * <p>
+ * As with {@link XMLGregorianCalendar}, {@link LocalDate} and {@link LocalDateTime} take the date and time as written,
+ * ignoring any offset, while the other types take the instant. Text without an offset has no timezone, like a
+ * {@link LocalDateTime}, so it is read in the zone of the registry, which is UTC by default. {@link ZonedDateTime}
+ * keeps the offset as its zone, or UTC if it is zero, and a {@link Calendar} is created in the zone of the registry.
+ * Types with a timezone are written with their offset, {@link LocalDate} as a date, {@link java.sql.Date} as its date
+ * in the zone of the registry and the other types as an instant in UTC, e.g. {@code 2019-09-01T01:02:03.456Z}.
+ * <p>
+ * To write in to a buffer of your own rather than creating a {@link String}, use {@link IsoDates} directly.
+ *
+ * @author beirtipol@gmail.com
+ */
+@Component
+public class StringConverters extends ZoneAwareConverters {
+    public StringConverters() {
+    }
+
+    @Autowired
+    public StringConverters(ConverterRegistry registry) {
+        super(registry);
+    }
+
+    @Converter(from = {String.class, CharSequence.class}, to = LocalDate.class)
+    public Function<CharSequence, LocalDate> StringToLocalDate() {
+        return from -> LocalDate.ofEpochDay(IsoDates.parseEpochDay(from));
+    }
+
+    @Converter(from = {String.class, CharSequence.class}, to = LocalDateTime.class)
+    public Function<CharSequence, LocalDateTime> StringToLocalDateTime() {
+        return from -> localDateTime(IsoDates.parse(from));
+    }
+
+    @Converter(from = {String.class, CharSequence.class}, to = ZonedDateTime.class)
+    public Function<CharSequence, ZonedDateTime> StringToZonedDateTime() {
+        return from -> {
+            IsoDates.Fields fields = IsoDates.parse(from);
+            if (!fields.hasOffset()) {
+                return ZonedDateTime.ofLocal(localDateTime(fields), zone().getZone(), null);
+            }
+            ZoneOffset offset = ZoneOffset.ofTotalSeconds(fields.getOffsetSeconds());
+            return ZonedDateTime.ofStrict(localDateTime(fields), offset, offset.getTotalSeconds() == 0 ? ThreeTenDates.UTC : offset);
+        };
+    }
+
+    @Converter(from = {String.class, CharSequence.class}, to = java.util.Date.class)
+    public Function<CharSequence, Date> StringToUtilDate() {
+        return from -> new Date(epochMilli(IsoDates.parse(from)));
+    }
+
+    @Converter(from = {String.class, CharSequence.class}, to = java.sql.Date.class)
+    public Function<CharSequence, java.sql.Date> StringToSQLDate() {
+        return from -> new java.sql.Date(epochMilli(IsoDates.parse(from)));
+    }
+
+    @Converter(from = {String.class, CharSequence.class}, to = Timestamp.class)
+    public Function<CharSequence, Timestamp> StringToSQLTimestamp() {
+        return from -> {
+            IsoDates.Fields fields = IsoDates.parse(from);
+            Timestamp result = new Timestamp(epochMilli(fields));
+            result.setNanos(fields.getNano());
+            return result;
+        };
+    }
+
+    @Converter(from = {String.class, CharSequence.class}, to = Calendar.class)
+    public Function<CharSequence, Calendar> StringToCalendar() {
+        return from -> {
+            ZoneOffsets zone = zone();
+            return UtilDates.newCalendar(epochMilli(IsoDates.parse(from), zone), zone.getTimeZone());
+        };
+    }
+
+    @Converter(from = {String.class, CharSequence.class}, to = XMLGregorianCalendar.class)
+    public Function<CharSequence, XMLGregorianCalendar> StringToXMLDate() {
+        return from -> {
+            IsoDates.Fields fields = IsoDates.parse(from);
+            if (!fields.hasOffset()) {
+                ZoneOffsets zone = zone();
+                long epochMilli = epochMilli(fields, zone);
+                return XMLDates.ofEpochMilli(epochMilli, zone.getOffsetMillis(epochMilli));
+            }
+            return XMLDates.ofEpochMilli(epochMilli(fields), fields.getOffsetSeconds() * 1000);
+        };
+    }
+
+    @Converter(from = {String.class, CharSequence.class}, to = long.class)
+    public ToLongFunction<CharSequence> StringToEpochMilli() {
+        return from -> epochMilli(IsoDates.parse(from));
+    }
+
+    @Converter(from = {String.class, CharSequence.class}, to = int.class)
+    public ToIntFunction<CharSequence> StringToEpochDay() {
+        return from -> (int) IsoDates.parseEpochDay(from);
+    }
+
+    @Converter(from = LocalDate.class, to = String.class)
+    public Function<LocalDate, String> LocalDateToString() {
+        return from -> IsoDates.appendDate(from.toEpochDay(), new StringBuilder(10)).toString();
+    }
+
+    @Converter(from = LocalDateTime.class, to = String.class)
+    public Function<LocalDateTime, String> LocalDateTimeToString() {
+        return from -> IsoDates.appendDateTime(from.toEpochSecond(ZoneOffset.UTC), from.getNano(), new StringBuilder(29)).toString();
+    }
+
+    @Converter(from = ZonedDateTime.class, to = String.class)
+    public Function<ZonedDateTime, String> ZonedDateTimeToString() {
+        return from -> IsoDates.appendOffsetDateTime(from.toEpochSecond(), from.getNano(), from.getOffset().getTotalSeconds(), new StringBuilder(35)).toString();
+    }
+
+    @Converter(from = java.util.Date.class, to = String.class)
+    public Function<Date, String> UtilDateToString() {
+        return from -> instant(from.getTime());
+    }
+
+    @Converter(from = java.sql.Date.class, to = String.class)
+    public Function<java.sql.Date, String> SQLDateToString() {
+        return from -> IsoDates.appendDate(zone().toEpochDay(from.getTime()), new StringBuilder(10)).toString();
+    }
+
+    @Converter(from = Timestamp.class, to = String.class)
+    public Function<Timestamp, String> SQLTimestampToString() {
+        return from -> IsoDates.appendOffsetDateTime(Math.floorDiv(from.getTime(), 1000), from.getNanos(), 0, new StringBuilder(30)).toString();
+    }
+
+    @Converter(from = {Calendar.class, GregorianCalendar.class}, to = String.class)
+    public Function<Calendar, String> CalendarToString() {
+        return from -> {
+            long epochMilli = from.getTimeInMillis();
+            return withOffset(epochMilli, from.getTimeZone().getOffset(epochMilli));
+        };
+    }
+
+    @Converter(from = XMLGregorianCalendar.class, to = String.class)
+    public Function<XMLGregorianCalendar, String> XMLDateToString() {
+        return from -> {
+            long epochMilli = XMLDates.toEpochMilli(from);
+            return withOffset(epochMilli, XMLDates.offsetMillis(from, epochMilli));
+        };
+    }
+
+    /**
+     * @return the instant of 'fields' in milliseconds since 1970-01-01T00:00:00Z, reading a date and time without an
+     * offset in the zone of the registry
+     */
+    private long epochMilli(IsoDates.Fields fields) {
+        return epochMilli(fields, zone());
+    }
+
+    private static long epochMilli(IsoDates.Fields fields, ZoneOffsets zone) {
+        if (fields.hasOffset()) {
+            return fields.getEpochSecond() * 1000 + fields.getNano() / 1_000_000;
+        }
+        return zone.toEpochMilli(fields.getEpochDay() * ThreeTenDates.MILLIS_PER_DAY + fields.getNanoOfDay() / 1_000_000);
+    }
+
+    private static LocalDateTime localDateTime(IsoDates.Fields fields) {
+        return LocalDateTime.of(LocalDate.ofEpochDay(fields.getEpochDay()), LocalTime.ofNanoOfDay(fields.getNanoOfDay()));
+    }
+
+    private static String instant(long epochMilli) {
+        return withOffset(epochMilli, 0);
+    }
+
+    private static String withOffset(long epochMilli, int offsetMillis) {
+        return IsoDates.appendOffsetDateTime(Math.floorDiv(epochMilli, 1000), (int) Math.floorMod(epochMilli, 1000) * 1_000_000, offsetMillis / 1000, new StringBuilder(35)).toString();
+    }
+}
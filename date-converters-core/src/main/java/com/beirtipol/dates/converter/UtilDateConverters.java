@@ -18,7 +18,9 @@
 package com.beirtipol.dates.converter;
 
 import com.beirtipol.dates.Converter;
+import com.beirtipol.dates.ConverterRegistry;
 import com.beirtipol.dates.ThreeTenDates;
+import com.beirtipol.dates.XMLDates;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -34,33 +36,40 @@ import java.util.function.Function;
 
 /**
  * This contains conversions for {@link java.util.Date}, {@link java.sql.Date} and {@link Timestamp} as they share a
- * hierarchy and some common code
+ * hierarchy and some common code. {@link LocalDate} and {@link LocalDateTime} are read in the zone of the registry,
+ * which is UTC by default.
  *
  * @author beirtipol@gmail.com
  */
 @Component
-public class UtilDateConverters {
+public class UtilDateConverters extends ZoneAwareConverters {
+
+    public UtilDateConverters() {
+    }
+
     @Autowired
-    private CalendarConverters calendarConverters;
+    public UtilDateConverters(ConverterRegistry registry) {
+        super(registry);
+    }
 
     @Converter(from = XMLGregorianCalendar.class, to = Date.class)
     public Function<XMLGregorianCalendar, Date> XMLDateToUtilDate() {
-        return from -> calendarConverters.XMLGregorianCalendarToCalendar().apply(from).getTime();
+        return from -> new Date(XMLDates.toEpochMilli(from));
     }
 
     @Converter(from = LocalDate.class, to = Date.class)
     public Function<LocalDate, Date> LocalDateToUtilDate() {
-        return from -> LocalDateTimeToUtilDate().apply(from.atStartOfDay());
+        return from -> new Date(zone().startOfDay(from.toEpochDay()));
     }
 
     @Converter(from = ZonedDateTime.class, to = Date.class)
     public Function<ZonedDateTime, Date> ZonedDateTimeToUtilDate() {
-        return from -> Date.from(calendarConverters.ZonedDateTimeToCalendar().apply(from).toInstant());
+        return from -> new Date(ThreeTenDates.toEpochMilli(from));
     }
 
     @Converter(from = LocalDateTime.class, to = Date.class)
     public Function<LocalDateTime, Date> LocalDateTimeToUtilDate() {
-        return from -> ZonedDateTimeToUtilDate().apply(from.atZone(ThreeTenDates.UTC));
+        return from -> new Date(zone().toEpochMilli(from));
     }
 
     @Converter(from = java.util.Date.class, to = Date.class)
@@ -75,12 +84,12 @@ public class UtilDateConverters {
 
     @Converter(from = {Calendar.class, GregorianCalendar.class}, to = java.sql.Date.class)
     public Function<Calendar, java.sql.Date> CalendarToSqlDate() {
-        return from -> UtilDateToSQLDate().apply(from.getTime());
+        return from -> new java.sql.Date(from.getTimeInMillis());
     }
 
     @Converter(from = {Calendar.class, GregorianCalendar.class}, to = java.sql.Timestamp.class)
     public Function<Calendar, java.sql.Timestamp> CalendarToSqlTimestamp() {
-        return from -> UtilDateToSQLTimestamp().apply(from.getTime());
+        return from -> new Timestamp(from.getTimeInMillis());
     }
 
     @Converter(from = java.sql.Date.class, to = Date.class)
@@ -95,22 +104,22 @@ public class UtilDateConverters {
 
     @Converter(from = XMLGregorianCalendar.class, to = java.sql.Date.class)
     public Function<XMLGregorianCalendar, java.sql.Date> XMLDateToSQLDate() {
-        return from -> UtilDateToSQLDate().apply(XMLDateToUtilDate().apply(from));
+        return from -> new java.sql.Date(XMLDates.toEpochMilli(from));
     }
 
     @Converter(from = LocalDate.class, to = java.sql.Date.class)
     public Function<LocalDate, java.sql.Date> LocalDateToSQLDate() {
-        return from -> LocalDateTimeToSQLDate().apply(from.atStartOfDay());
+        return from -> new java.sql.Date(zone().startOfDay(from.toEpochDay()));
     }
 
     @Converter(from = ZonedDateTime.class, to = java.sql.Date.class)
     public Function<ZonedDateTime, java.sql.Date> ZonedDateTimeToSQLDate() {
-        return from -> UtilDateToSQLDate().apply(ZonedDateTimeToUtilDate().apply(from));
+        return from -> new java.sql.Date(ThreeTenDates.toEpochMilli(from));
     }
 
     @Converter(from = LocalDateTime.class, to = java.sql.Date.class)
     public Function<LocalDateTime, java.sql.Date> LocalDateTimeToSQLDate() {
-        return from -> ZonedDateTimeToSQLDate().apply(from.atZone(ThreeTenDates.UTC));
+        return from -> new java.sql.Date(zone().toEpochMilli(from));
     }
 
     @Converter(from = java.util.Date.class, to = java.sql.Date.class)
@@ -130,27 +139,27 @@ public class UtilDateConverters {
 
     @Converter(from = XMLGregorianCalendar.class, to = Timestamp.class)
     public Function<XMLGregorianCalendar, Timestamp> XMLDateToSQLTimestamp() {
-        return from -> ZonedDateTimeToSQLTimestamp().apply(from.toGregorianCalendar().toZonedDateTime());
+        return from -> new Timestamp(XMLDates.toEpochMilli(from));
     }
 
     @Converter(from = LocalDate.class, to = Timestamp.class)
     public Function<LocalDate, Timestamp> LocalDateToSQLTimestamp() {
-        return from -> LocalDateTimeToSQLTimestamp().apply(from.atStartOfDay());
+        return from -> new Timestamp(zone().startOfDay(from.toEpochDay()));
     }
 
     @Converter(from = ZonedDateTime.class, to = Timestamp.class)
     public Function<ZonedDateTime, Timestamp> ZonedDateTimeToSQLTimestamp() {
-        return from -> Timestamp.from(ZonedDateTimeToUtilDate().apply(from).toInstant());
+        return from -> new Timestamp(ThreeTenDates.toEpochMilli(from));
     }
 
     @Converter(from = LocalDateTime.class, to = Timestamp.class)
     public Function<LocalDateTime, Timestamp> LocalDateTimeToSQLTimestamp() {
-        return from -> ZonedDateTimeToSQLTimestamp().apply(from.atZone(ThreeTenDates.UTC));
+        return from -> new Timestamp(zone().toEpochMilli(from));
     }
 
     @Converter(from = java.util.Date.class, to = Timestamp.class)
     public Function<Date, Timestamp> UtilDateToSQLTimestamp() {
-        return from -> Timestamp.from(from.toInstant());
+        return from -> new Timestamp(from.getTime());
     }
 
     @Converter(from = java.sql.Date.class, to = Timestamp.class)
@@ -162,5 +171,4 @@ public class UtilDateConverters {
     public Function<Timestamp, Timestamp> SQLTimestampToSQLTimestamp() {
         return from -> from;
     }
-
 }
@@ -18,13 +18,13 @@
 package com.beirtipol.dates.converter;
 
 import com.beirtipol.dates.Converter;
+import com.beirtipol.dates.ConverterRegistry;
 import com.beirtipol.dates.ThreeTenDates;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.beirtipol.dates.XMLDates;
+import com.beirtipol.dates.ZoneOffsets;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import javax.xml.datatype.DatatypeConfigurationException;
 import javax.xml.datatype.DatatypeFactory;
 import javax.xml.datatype.XMLGregorianCalendar;
 import java.sql.Timestamp;
@@ -38,68 +38,75 @@ import java.util.function.Function;
 
 /**
  * Converters for {@link XMLGregorianCalendar}. I despise this class almost as much as the core {@link Calendar}
+ * <p>
+ * Every {@link XMLGregorianCalendar} is created by the {@link DatatypeFactory} from {@link XMLDates#datatypeFactory()},
+ * which is per-thread. Those created from a type without a timezone take the offset of the zone of the registry, which
+ * is UTC by default.
  *
  * @author beirtipol@gmail.com
  */
 @Component
-public class XMLDateConverters {
-    private static final Logger LOG = LoggerFactory.getLogger(XMLDateConverters.class);
-
-    @Autowired
-    private ZonedDateTimeConverters zonedDateTimeConverter;
-
-    private DatatypeFactory dt;
+public class XMLDateConverters extends ZoneAwareConverters {
 
     public XMLDateConverters() {
-        try {
-            dt = DatatypeFactory.newInstance();
-        } catch (DatatypeConfigurationException e) {
-            LOG.error("SEVERE: Cannot instantiate DatatypeFactory.", e);
-        }
+    }
+
+    @Autowired
+    public XMLDateConverters(ConverterRegistry registry) {
+        super(registry);
     }
 
     @Converter(from = XMLGregorianCalendar.class, to = XMLGregorianCalendar.class)
     public Function<XMLGregorianCalendar, XMLGregorianCalendar> XMLDateToXMLGregorianCalendar() {
-        return from -> ZonedDateTimeToXMLGregorianCalendar().apply(from.toGregorianCalendar().toZonedDateTime());
+        return from -> {
+            long epochMilli = XMLDates.toEpochMilli(from);
+            return XMLDates.ofEpochMilli(epochMilli, XMLDates.offsetMillis(from, epochMilli));
+        };
     }
 
     @Converter(from = LocalDate.class, to = XMLGregorianCalendar.class)
     public Function<LocalDate, XMLGregorianCalendar> LocalDateToXMLGregorianCalendar() {
-        return from -> LocalDateTimeToXMLGregorianCalendar().apply(from.atStartOfDay());
+        return from -> {
+            ZoneOffsets zone = zone();
+            long epochMilli = zone.startOfDay(from.toEpochDay());
+            return XMLDates.ofEpochMilli(epochMilli, zone.getOffsetMillis(epochMilli));
+        };
     }
 
     @Converter(from = ZonedDateTime.class, to = XMLGregorianCalendar.class)
     public Function<ZonedDateTime, XMLGregorianCalendar> ZonedDateTimeToXMLGregorianCalendar() {
-        return from -> dt.newXMLGregorianCalendar(GregorianCalendar.from(from));
+        return from -> XMLDates.ofEpochMilli(ThreeTenDates.toEpochMilli(from), from.getOffset().getTotalSeconds() * 1000);
     }
 
     @Converter(from = LocalDateTime.class, to = XMLGregorianCalendar.class)
     public Function<LocalDateTime, XMLGregorianCalendar> LocalDateTimeToXMLGregorianCalendar() {
-        return from -> ZonedDateTimeToXMLGregorianCalendar().apply(from.atZone(ThreeTenDates.UTC));
+        return from -> {
+            ZoneOffsets zone = zone();
+            long epochMilli = zone.toEpochMilli(from);
+            return XMLDates.ofEpochMilli(epochMilli, zone.getOffsetMillis(epochMilli));
+        };
     }
 
     @Converter(from = java.util.Date.class, to = XMLGregorianCalendar.class)
     public Function<Date, XMLGregorianCalendar> UtilDateToXMLGregorianCalendar() {
-        return from -> dt.newXMLGregorianCalendar(GregorianCalendar.from(zonedDateTimeConverter.UtilDateToZonedDateTime().apply(from)));
+        return from -> XMLDates.ofEpochMilli(from.getTime(), zone().getOffsetMillis(from.getTime()));
     }
 
     @Converter(from = {Calendar.class, GregorianCalendar.class}, to = XMLGregorianCalendar.class)
     public Function<Calendar, XMLGregorianCalendar> CalendarToXMLGregorianCalendar() {
         return from -> {
-            GregorianCalendar cal = new GregorianCalendar(from.getTimeZone());
-            cal.setTime(from.getTime());
-            return dt.newXMLGregorianCalendar(cal);
+            long epochMilli = from.getTimeInMillis();
+            return XMLDates.ofEpochMilli(epochMilli, from.getTimeZone().getOffset(epochMilli));
         };
     }
 
     @Converter(from = java.sql.Date.class, to = XMLGregorianCalendar.class)
     public Function<java.sql.Date, XMLGregorianCalendar> SQLDateToXMLGregorianCalendar() {
-        return from -> dt.newXMLGregorianCalendar(GregorianCalendar.from(zonedDateTimeConverter.SQLDateToZonedDateTime().apply(from)));
+        return from -> UtilDateToXMLGregorianCalendar().apply(from);
     }
 
     @Converter(from = Timestamp.class, to = XMLGregorianCalendar.class)
     public Function<Timestamp, XMLGregorianCalendar> SQLTimestampToXMLGregorianCalendar() {
         return from -> UtilDateToXMLGregorianCalendar().apply(from);
     }
-
 }
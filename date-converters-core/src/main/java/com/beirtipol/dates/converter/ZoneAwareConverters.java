@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.converter;
+
+import com.beirtipol.dates.ConverterRegistry;
+import com.beirtipol.dates.ZoneOffsets;
+
+/**
+ * Base class for the core converters which read types without a timezone, or create types with one, in the zone of
+ * a {@link ConverterRegistry}. The zone is looked up at the time of each conversion, so a converter already held by
+ * the registry or a {@link com.beirtipol.dates.ConverterHandle} follows {@link ConverterRegistry#setZone} and the zone
+ * given to {@link ConverterRegistry#from(Object, Class, java.time.ZoneId)}.
+ *
+ * @author beirtipol@gmail.com
+ */
+abstract class ZoneAwareConverters {
+    private final ConverterRegistry registry;
+
+    /**
+     * Convert in UTC, for use without a {@link ConverterRegistry}
+     */
+    ZoneAwareConverters() {
+        this(null);
+    }
+
+    /**
+     * Convert in the zone given by {@link ConverterRegistry#getZoneOffsets()} at the time of each conversion
+     */
+    ZoneAwareConverters(ConverterRegistry registry) {
+        this.registry = registry;
+    }
+
+    final ZoneOffsets zone() {
+        return registry == null ? ZoneOffsets.UTC : registry.getZoneOffsets();
+    }
+}
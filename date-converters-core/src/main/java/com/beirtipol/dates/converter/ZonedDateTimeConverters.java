@@ -18,8 +18,9 @@
 package com.beirtipol.dates.converter;
 
 import com.beirtipol.dates.Converter;
-import com.beirtipol.dates.ThreeTenDates;
-import com.beirtipol.dates.UtilDates;
+import com.beirtipol.dates.ConverterRegistry;
+import com.beirtipol.dates.XMLDates;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.xml.datatype.XMLGregorianCalendar;
@@ -34,27 +35,31 @@ import java.util.GregorianCalendar;
 import java.util.function.Function;
 
 /**
- * This always converts to a {@link ZonedDateTime} which is set to UTC, allowing you to convert it to the TimeZone of
- * your choosing by simply calling {@link ZonedDateTime#withZoneSameInstant(ZoneId)}
+ * This always converts to a {@link ZonedDateTime} which is set to the zone of the registry, UTC by default, allowing
+ * you to convert it to the TimeZone of your choosing by simply calling
+ * {@link ZonedDateTime#withZoneSameInstant(ZoneId)}
  *
  * @author beirtipol@gmail.com
  */
 @Component
-public class ZonedDateTimeConverters {
-    private final ThreadLocal<Calendar> calendar = new ThreadLocal<>();
+public class ZonedDateTimeConverters extends ZoneAwareConverters {
+
+    public ZonedDateTimeConverters() {
+    }
+
+    @Autowired
+    public ZonedDateTimeConverters(ConverterRegistry registry) {
+        super(registry);
+    }
 
     @Converter(from = XMLGregorianCalendar.class, to = ZonedDateTime.class)
     public Function<XMLGregorianCalendar, ZonedDateTime> XMLDateToZonedDateTime() {
-        return from -> {
-            Calendar result = GregorianCalendar.getInstance(UtilDates.UTC);
-            result.setTimeInMillis(from.toGregorianCalendar().getTimeInMillis());
-            return ((GregorianCalendar) result).toZonedDateTime();
-        };
+        return from -> zone().toZonedDateTime(XMLDates.toEpochMilli(from));
     }
 
     @Converter(from = LocalDate.class, to = ZonedDateTime.class)
     public Function<LocalDate, ZonedDateTime> LocalDateToZonedDateTime() {
-        return from -> from.atStartOfDay().atZone(ThreeTenDates.UTC);
+        return from -> from.atStartOfDay(zone().getZone());
     }
 
     @Converter(from = ZonedDateTime.class, to = ZonedDateTime.class)
@@ -64,23 +69,17 @@ public class ZonedDateTimeConverters {
 
     @Converter(from = LocalDateTime.class, to = ZonedDateTime.class)
     public Function<LocalDateTime, ZonedDateTime> LocalDateTimeToZonedDateTime() {
-        return from -> from.atZone(ThreeTenDates.UTC);
-
+        return from -> from.atZone(zone().getZone());
     }
 
     @Converter(from = java.util.Date.class, to = ZonedDateTime.class)
     public Function<Date, ZonedDateTime> UtilDateToZonedDateTime() {
-        return from -> {
-            Calendar cal = Calendar.getInstance();
-            cal.clear();
-            cal.setTime(from);
-            return CalendarToZonedDateTime().apply(cal);
-        };
+        return from -> zone().toZonedDateTime(from.getTime());
     }
 
     @Converter(from = {Calendar.class, GregorianCalendar.class}, to = ZonedDateTime.class)
     public Function<Calendar, ZonedDateTime> CalendarToZonedDateTime() {
-        return from -> from.getTime().toInstant().atZone(ThreeTenDates.UTC);
+        return from -> zone().toZonedDateTime(from.getTimeInMillis());
     }
 
     @Converter(from = java.sql.Date.class, to = ZonedDateTime.class)
@@ -92,5 +91,4 @@ public class ZonedDateTimeConverters {
     public Function<Timestamp, ZonedDateTime> SQLTimestampToZonedDateTime() {
         return from -> UtilDateToZonedDateTime().apply(from);
     }
-
 }
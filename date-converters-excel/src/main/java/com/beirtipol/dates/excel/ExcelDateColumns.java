@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.excel;
+
+import com.beirtipol.dates.DateColumns;
+import com.beirtipol.dates.ZoneOffsets;
+
+import java.time.LocalDate;
+
+/**
+ * Column conversions between Excel serial dates ({@code double[]}) and epoch milliseconds or epoch days, using the
+ * arithmetic in {@link ExcelDates}. No object is created per element, apart from the {@link LocalDate}s returned by
+ * {@link #toLocalDates(double[])}.
+ * Combine these with {@link DateColumns} to reach other encodings.
+ * <p>
+ * Serials are in the 1900 date system unless 'use1904windowing' is passed as true. A serial is a date and time
+ * without a timezone, which is read and written in UTC unless a {@link ZoneOffsets} is passed, as with the zone of a
+ * {@link com.beirtipol.dates.ConverterRegistry} in {@link ExcelDateConverters}.
+ *
+ * @author beirtipol@gmail.com
+ */
+public class ExcelDateColumns {
+
+    /**
+     * @throws IllegalArgumentException if any element is not a valid Excel date
+     */
+    public static long[] toEpochMillis(double[] serials) {
+        return toEpochMillis(serials, false);
+    }
+
+    /**
+     * @param use1904windowing true for the 1904 date system, false for the 1900 date system
+     * @throws IllegalArgumentException if any element is not a valid Excel date
+     */
+    public static long[] toEpochMillis(double[] serials, boolean use1904windowing) {
+        return toEpochMillis(serials, new long[serials.length], use1904windowing);
+    }
+
+    public static long[] toEpochMillis(double[] serials, long[] destination) {
+        return toEpochMillis(serials, destination, false);
+    }
+
+    public static long[] toEpochMillis(double[] serials, long[] destination, boolean use1904windowing) {
+        return toEpochMillis(serials, destination, use1904windowing, ZoneOffsets.UTC);
+    }
+
+    /**
+     * @param zone the zone to read the date and time of each serial in
+     * @throws IllegalArgumentException if any element is not a valid Excel date
+     */
+    public static long[] toEpochMillis(double[] serials, long[] destination, boolean use1904windowing, ZoneOffsets zone) {
+        DateColumns.checkLength(serials.length, destination.length);
+        for (int i = 0; i < serials.length; i++) {
+            destination[i] = zone.toEpochMilli(ExcelDates.toEpochMilli(serials[i], use1904windowing));
+        }
+        return destination;
+    }
+
+    /**
+     * @throws IllegalArgumentException if any element is not a valid Excel date
+     */
+    public static int[] toEpochDays(double[] serials) {
+        return toEpochDays(serials, false);
+    }
+
+    /**
+     * @param use1904windowing true for the 1904 date system, false for the 1900 date system
+     * @throws IllegalArgumentException if any element is not a valid Excel date
+     */
+    public static int[] toEpochDays(double[] serials, boolean use1904windowing) {
+        return toEpochDays(serials, new int[serials.length], use1904windowing);
+    }
+
+    public static int[] toEpochDays(double[] serials, int[] destination) {
+        return toEpochDays(serials, destination, false);
+    }
+
+    public static int[] toEpochDays(double[] serials, int[] destination, boolean use1904windowing) {
+        DateColumns.checkLength(serials.length, destination.length);
+        for (int i = 0; i < serials.length; i++) {
+            destination[i] = ExcelDates.toEpochDay(serials[i], use1904windowing);
+        }
+        return destination;
+    }
+
+    public static LocalDate[] toLocalDates(double[] serials) {
+        return toLocalDates(serials, false);
+    }
+
+    public static LocalDate[] toLocalDates(double[] serials, boolean use1904windowing) {
+        LocalDate[] destination = new LocalDate[serials.length];
+        for (int i = 0; i < serials.length; i++) {
+            destination[i] = LocalDate.ofEpochDay(ExcelDates.toEpochDay(serials[i], use1904windowing));
+        }
+        return destination;
+    }
+
+    public static double[] fromLocalDates(LocalDate[] dates) {
+        return fromLocalDates(dates, false);
+    }
+
+    public static double[] fromLocalDates(LocalDate[] dates, boolean use1904windowing) {
+        double[] destination = new double[dates.length];
+        for (int i = 0; i < dates.length; i++) {
+            destination[i] = ExcelDates.fromEpochDay(dates[i].toEpochDay(), use1904windowing);
+        }
+        return destination;
+    }
+
+    /**
+     * @return the Excel serial of each element, or -1 for those before 1900
+     */
+    public static double[] fromEpochMillis(long[] epochMillis) {
+        return fromEpochMillis(epochMillis, false);
+    }
+
+    /**
+     * @param use1904windowing true for the 1904 date system, false for the 1900 date system
+     * @return the Excel serial of each element, or -1 for those before the start of the date system
+     */
+    public static double[] fromEpochMillis(long[] epochMillis, boolean use1904windowing) {
+        return fromEpochMillis(epochMillis, new double[epochMillis.length], use1904windowing);
+    }
+
+    public static double[] fromEpochMillis(long[] epochMillis, double[] destination) {
+        return fromEpochMillis(epochMillis, destination, false);
+    }
+
+    public static double[] fromEpochMillis(long[] epochMillis, double[] destination, boolean use1904windowing) {
+        return fromEpochMillis(epochMillis, destination, use1904windowing, ZoneOffsets.UTC);
+    }
+
+    /**
+     * @param zone the zone to take the date and time of each instant in
+     * @return the Excel serial of each element, or -1 for those before the start of the date system
+     */
+    public static double[] fromEpochMillis(long[] epochMillis, double[] destination, boolean use1904windowing, ZoneOffsets zone) {
+        DateColumns.checkLength(epochMillis.length, destination.length);
+        for (int i = 0; i < epochMillis.length; i++) {
+            destination[i] = ExcelDates.fromEpochMilli(zone.toLocalEpochMilli(epochMillis[i]), use1904windowing);
+        }
+        return destination;
+    }
+
+    /**
+     * @return the Excel serial of each element, or -1 for those before 1900
+     */
+    public static double[] fromEpochDays(int[] epochDays) {
+        return fromEpochDays(epochDays, false);
+    }
+
+    /**
+     * @param use1904windowing true for the 1904 date system, false for the 1900 date system
+     * @return the Excel serial of each element, or -1 for those before the start of the date system
+     */
+    public static double[] fromEpochDays(int[] epochDays, boolean use1904windowing) {
+        return fromEpochDays(epochDays, new double[epochDays.length], use1904windowing);
+    }
+
+    public static double[] fromEpochDays(int[] epochDays, double[] destination) {
+        return fromEpochDays(epochDays, destination, false);
+    }
+
+    public static double[] fromEpochDays(int[] epochDays, double[] destination, boolean use1904windowing) {
+        DateColumns.checkLength(epochDays.length, destination.length);
+        for (int i = 0; i < epochDays.length; i++) {
+            destination[i] = ExcelDates.fromEpochDay(epochDays[i], use1904windowing);
+        }
+        return destination;
+    }
+}
@@ -18,8 +18,11 @@
 package com.beirtipol.dates.excel;
 
 import com.beirtipol.dates.Converter;
-import com.beirtipol.dates.Converters;
-import org.apache.poi.ss.usermodel.DateUtil;
+import com.beirtipol.dates.ConverterRegistry;
+import com.beirtipol.dates.ThreeTenDates;
+import com.beirtipol.dates.UtilDates;
+import com.beirtipol.dates.XMLDates;
+import com.beirtipol.dates.ZoneOffsets;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -30,92 +33,164 @@ import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.function.DoubleFunction;
 import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
+/**
+ * Converters between Excel serial dates and the core types, using the arithmetic in {@link ExcelDates}. Each one
+ * converts in a single step through epoch milliseconds or epoch days, so POI is not needed to use them.
+ * <p>
+ * These use the 1900 date system. For workbooks in the 1904 date system, replace them with a second instance:
+ * <pre>
+ *     registry.replaceAll(new ExcelDateConverters(registry, true));
+ * </pre>
+ * A serial is a date and time without a timezone, like {@link LocalDateTime}. Types which hold an instant are
+ * converted by the date and time seen at that instant in the zone of the registry, which is UTC by default, and those
+ * created from a serial are at that date and time in the zone of the registry. As with
+ * {@link org.apache.poi.ss.usermodel.DateUtil}, {@link Calendar} and {@link ZonedDateTime} are converted to a serial by
+ * the date and time in their own timezone instead.
+ * <p>
+ * Serials are also registered as {@code double.class}, so {@code registry.fromDouble(serial, LocalDate.class)} and
+ * {@code registry.toDouble(date)} convert them without boxing.
+ *
+ * @author beirtipol@gmail.com
+ */
 @Component
 public class ExcelDateConverters {
 
+    private final ConverterRegistry registry;
+    private final boolean           use1904windowing;
+
+    /**
+     * Convert in UTC, for use without a {@link ConverterRegistry}
+     */
+    public ExcelDateConverters() {
+        this(false);
+    }
+
+    /**
+     * Convert in UTC, for use without a {@link ConverterRegistry}
+     *
+     * @param use1904windowing true for the 1904 date system, false for the 1900 date system
+     */
+    public ExcelDateConverters(boolean use1904windowing) {
+        this(null, use1904windowing);
+    }
+
+    /**
+     * Convert in the zone given by {@link ConverterRegistry#getZoneOffsets()} at the time of each conversion
+     */
     @Autowired
-    private Converters converters;
+    public ExcelDateConverters(ConverterRegistry registry) {
+        this(registry, false);
+    }
+
+    /**
+     * Convert in the zone given by {@link ConverterRegistry#getZoneOffsets()} at the time of each conversion
+     *
+     * @param use1904windowing true for the 1904 date system, false for the 1900 date system
+     */
+    public ExcelDateConverters(ConverterRegistry registry, boolean use1904windowing) {
+        this.registry = registry;
+        this.use1904windowing = use1904windowing;
+    }
+
+    /**
+     * @return whether the converters to {@code double.class} in 'registry' use the 1904 date system, found by
+     * converting 1904-01-01, which is serial 0 in the 1904 date system and 1462 in the 1900 date system
+     * @throws IllegalArgumentException if there is no converter from {@link LocalDate} to {@code double.class}
+     */
+    public static boolean isDate1904(ConverterRegistry registry) {
+        return registry.toDouble(LocalDate.of(1904, 1, 1)) == 0;
+    }
+
+    private ZoneOffsets zone() {
+        return registry == null ? ZoneOffsets.UTC : registry.getZoneOffsets();
+    }
 
     @Converter(from = Double.class, to = LocalDate.class)
     public Function<Double, LocalDate> DoubleToLocalDate() {
-        return from -> DateUtil.getLocalDateTime(from).toLocalDate();
+        return SerialToLocalDate()::apply;
     }
 
     @Converter(from = Double.class, to = LocalDateTime.class)
     public Function<Double, LocalDateTime> DoubleToLocalDateTime() {
-        return DateUtil::getLocalDateTime;
+        return SerialToLocalDateTime()::apply;
     }
 
     @Converter(from = Double.class, to = ZonedDateTime.class)
     public Function<Double, ZonedDateTime> DoubleToZonedDateTime() {
-        return from -> converters.from(DoubleToLocalDateTime().apply(from), ZonedDateTime.class);
+        return SerialToZonedDateTime()::apply;
     }
 
     @Converter(from = Double.class, to = java.util.Date.class)
     public Function<Double, java.util.Date> DoubleToUtilDate() {
-        return from -> converters.from(DoubleToLocalDateTime().apply(from), java.util.Date.class);
+        return SerialToUtilDate()::apply;
     }
 
     @Converter(from = Double.class, to = java.sql.Date.class)
     public Function<Double, java.sql.Date> DoubleToSQLDate() {
-        return from -> converters.from(DoubleToLocalDateTime().apply(from), java.sql.Date.class);
+        return SerialToSQLDate()::apply;
     }
 
     @Converter(from = Double.class, to = XMLGregorianCalendar.class)
     public Function<Double, XMLGregorianCalendar> DoubleToXMLDate() {
-        return from -> converters.from(DoubleToLocalDateTime().apply(from), XMLGregorianCalendar.class);
+        return SerialToXMLDate()::apply;
     }
 
     @Converter(from = Double.class, to = Timestamp.class)
     public Function<Double, Timestamp> DoubleToSQLTimestamp() {
-        return from -> converters.from(DoubleToLocalDateTime().apply(from), Timestamp.class);
+        return SerialToSQLTimestamp()::apply;
     }
 
     @Converter(from = Double.class, to = Calendar.class)
     public Function<Double, Calendar> DoubleToCalendar() {
-        return from -> converters.from(DoubleToLocalDateTime().apply(from), Calendar.class);
+        return SerialToCalendar()::apply;
     }
 
     @Converter(from = Calendar.class, to = Double.class)
     public Function<Calendar, Double> CalendarToDouble() {
-        return from -> DateUtil.getExcelDate(from, false);
+        return CalendarToSerial()::applyAsDouble;
     }
 
     @Converter(from = XMLGregorianCalendar.class, to = Double.class)
     public Function<XMLGregorianCalendar, Double> XMLDateToDouble() {
-        return from -> DateUtil.getExcelDate(converters.from(from, Calendar.class), false);
+        return XMLDateToSerial()::applyAsDouble;
     }
 
     @Converter(from = LocalDate.class, to = Double.class)
     public Function<LocalDate, Double> LocalDateToDouble() {
-        return DateUtil::getExcelDate;
+        return LocalDateToSerial()::applyAsDouble;
     }
 
     @Converter(from = ZonedDateTime.class, to = Double.class)
     public Function<ZonedDateTime, Double> ZonedDateTimeToDouble() {
-        return from -> DateUtil.getExcelDate(from.toLocalDateTime());
+        return ZonedDateTimeToSerial()::applyAsDouble;
     }
 
     @Converter(from = LocalDateTime.class, to = Double.class)
     public Function<LocalDateTime, Double> LocalDateTimeToDouble() {
-        return DateUtil::getExcelDate;
+        return LocalDateTimeToSerial()::applyAsDouble;
     }
 
     @Converter(from = java.util.Date.class, to = Double.class)
     public Function<Date, Double> UtilDateToDouble() {
-        return from -> DateUtil.getExcelDate(converters.from(from, LocalDateTime.class));
+        return UtilDateToSerial()::applyAsDouble;
     }
 
     @Converter(from = java.sql.Date.class, to = Double.class)
     public Function<java.sql.Date, Double> SQLDateToDouble() {
-        return from -> DateUtil.getExcelDate(converters.from(from, LocalDateTime.class));
+        return UtilDateToSerial()::applyAsDouble;
     }
 
     @Converter(from = Timestamp.class, to = Double.class)
     public Function<Timestamp, Double> SQLTimestampToDouble() {
-        return from -> DateUtil.getExcelDate(converters.from(from, LocalDateTime.class));
+        return UtilDateToSerial()::applyAsDouble;
     }
 
     @Converter(from = Double.class, to = Double.class)
@@ -123,4 +198,114 @@ public class ExcelDateConverters {
         return from -> from;
     }
 
+    @Converter(from = Double.class, to = long.class)
+    public ToLongFunction<Double> DoubleToEpochMilli() {
+        return from -> zone().toEpochMilli(ExcelDates.toEpochMilli(from, use1904windowing));
+    }
+
+    @Converter(from = Double.class, to = int.class)
+    public ToIntFunction<Double> DoubleToEpochDay() {
+        return from -> ExcelDates.toEpochDay(from, use1904windowing);
+    }
+
+    @Converter(from = long.class, to = Double.class)
+    public LongFunction<Double> EpochMilliToDouble() {
+        return from -> ExcelDates.fromEpochMilli(zone().toLocalEpochMilli(from), use1904windowing);
+    }
+
+    @Converter(from = int.class, to = Double.class)
+    public IntFunction<Double> EpochDayToDouble() {
+        return from -> ExcelDates.fromEpochDay(from, use1904windowing);
+    }
+
+    @Converter(from = double.class, to = LocalDate.class)
+    public DoubleFunction<LocalDate> SerialToLocalDate() {
+        return from -> LocalDate.ofEpochDay(ExcelDates.toEpochDay(from, use1904windowing));
+    }
+
+    @Converter(from = double.class, to = LocalDateTime.class)
+    public DoubleFunction<LocalDateTime> SerialToLocalDateTime() {
+        return from -> ThreeTenDates.toLocalDateTime(ExcelDates.toEpochMilli(from, use1904windowing));
+    }
+
+    @Converter(from = double.class, to = ZonedDateTime.class)
+    public DoubleFunction<ZonedDateTime> SerialToZonedDateTime() {
+        return from -> {
+            ZoneOffsets zone = zone();
+            return zone.toZonedDateTime(zone.toEpochMilli(ExcelDates.toEpochMilli(from, use1904windowing)));
+        };
+    }
+
+    @Converter(from = double.class, to = java.util.Date.class)
+    public DoubleFunction<java.util.Date> SerialToUtilDate() {
+        return from -> new Date(zone().toEpochMilli(ExcelDates.toEpochMilli(from, use1904windowing)));
+    }
+
+    @Converter(from = double.class, to = java.sql.Date.class)
+    public DoubleFunction<java.sql.Date> SerialToSQLDate() {
+        return from -> new java.sql.Date(zone().toEpochMilli(ExcelDates.toEpochMilli(from, use1904windowing)));
+    }
+
+    @Converter(from = double.class, to = XMLGregorianCalendar.class)
+    public DoubleFunction<XMLGregorianCalendar> SerialToXMLDate() {
+        return from -> {
+            ZoneOffsets zone = zone();
+            long epochMilli = zone.toEpochMilli(ExcelDates.toEpochMilli(from, use1904windowing));
+            return XMLDates.ofEpochMilli(epochMilli, zone.getOffsetMillis(epochMilli));
+        };
+    }
+
+    @Converter(from = double.class, to = Timestamp.class)
+    public DoubleFunction<Timestamp> SerialToSQLTimestamp() {
+        return from -> new Timestamp(zone().toEpochMilli(ExcelDates.toEpochMilli(from, use1904windowing)));
+    }
+
+    @Converter(from = double.class, to = Calendar.class)
+    public DoubleFunction<Calendar> SerialToCalendar() {
+        return from -> {
+            ZoneOffsets zone = zone();
+            return UtilDates.newCalendar(zone.toEpochMilli(ExcelDates.toEpochMilli(from, use1904windowing)), zone.getTimeZone());
+        };
+    }
+
+    @Converter(from = double.class, to = Double.class)
+    public DoubleFunction<Double> SerialToDouble() {
+        return from -> from;
+    }
+
+    @Converter(from = Calendar.class, to = double.class)
+    public ToDoubleFunction<Calendar> CalendarToSerial() {
+        return from -> ExcelDates.fromEpochMilli(from.getTimeInMillis() + from.get(Calendar.ZONE_OFFSET) + from.get(Calendar.DST_OFFSET), use1904windowing);
+    }
+
+    @Converter(from = XMLGregorianCalendar.class, to = double.class)
+    public ToDoubleFunction<XMLGregorianCalendar> XMLDateToSerial() {
+        return from -> ExcelDates.fromEpochMilli(zone().toLocalEpochMilli(XMLDates.toEpochMilli(from)), use1904windowing);
+    }
+
+    @Converter(from = LocalDate.class, to = double.class)
+    public ToDoubleFunction<LocalDate> LocalDateToSerial() {
+        return from -> ExcelDates.fromEpochDay(from.toEpochDay(), use1904windowing);
+    }
+
+    @Converter(from = ZonedDateTime.class, to = double.class)
+    public ToDoubleFunction<ZonedDateTime> ZonedDateTimeToSerial() {
+        return from -> ExcelDates.fromEpochMilli(ThreeTenDates.toEpochMilli(from.toLocalDateTime()), use1904windowing);
+    }
+
+    @Converter(from = LocalDateTime.class, to = double.class)
+    public ToDoubleFunction<LocalDateTime> LocalDateTimeToSerial() {
+        return from -> ExcelDates.fromEpochMilli(ThreeTenDates.toEpochMilli(from), use1904windowing);
+    }
+
+    @Converter(from = Double.class, to = double.class)
+    public ToDoubleFunction<Double> DoubleToSerial() {
+        return from -> from;
+    }
+
+    @Converter(from = {java.util.Date.class, java.sql.Date.class, Timestamp.class}, to = double.class)
+    public ToDoubleFunction<Date> UtilDateToSerial() {
+        return from -> ExcelDates.fromEpochMilli(zone().toLocalEpochMilli(from.getTime()), use1904windowing);
+    }
+
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.excel;
+
+import com.beirtipol.dates.ThreeTenDates;
+
+/**
+ * Arithmetic on Excel serial dates, giving the same answers as {@link org.apache.poi.ss.usermodel.DateUtil} without
+ * creating any objects, so POI is not needed at runtime. Serials are read as UTC.
+ * <p>
+ * In the 1900 date system, the default, Excel counts 1900-01-01 as day 1 and wrongly believes 1900 was a leap year, so
+ * serials from 61 (1900-03-01) onwards are one day ahead of a plain count of days. In the 1904 date system, used by
+ * older Mac workbooks, 1904-01-01 is day 0 and there is no such bug. As with POI, the 1904 date system is chosen by
+ * passing 'use1904windowing'.
+ *
+ * @author beirtipol@gmail.com
+ */
+public class ExcelDates {
+    /**
+     * The epoch day of serial 0 in the 1900 date system, 1899-12-31, ignoring the phantom 1900-02-29
+     */
+    private static final int  EPOCH_DAY_OF_SERIAL_ZERO      = -25568;
+    /**
+     * The epoch day of serial 0 in the 1904 date system, 1904-01-01
+     */
+    private static final int  EPOCH_DAY_OF_SERIAL_ZERO_1904 = -24107;
+    private static final int  FIRST_SHIFTED_SERIAL          = 61;
+    private static final long MIN_EPOCH_DAY                 = ThreeTenDates.toEpochDay(1900, 1, 1);
+
+    /**
+     * @param serial an Excel serial date in the 1900 date system
+     * @return milliseconds since 1970-01-01T00:00:00Z, rounded to the nearest millisecond as
+     * {@link org.apache.poi.ss.usermodel.DateUtil} does
+     * @throws IllegalArgumentException if 'serial' is not a valid Excel date
+     */
+    public static long toEpochMilli(double serial) {
+        return toEpochMilli(serial, false);
+    }
+
+    /**
+     * @param serial           an Excel serial date
+     * @param use1904windowing true for the 1904 date system, false for the 1900 date system
+     * @return milliseconds since 1970-01-01T00:00:00Z, rounded to the nearest millisecond as
+     * {@link org.apache.poi.ss.usermodel.DateUtil} does
+     * @throws IllegalArgumentException if 'serial' is not a valid Excel date
+     */
+    public static long toEpochMilli(double serial, boolean use1904windowing) {
+        if (!isValid(serial)) {
+            throw new IllegalArgumentException("Not a valid Excel date: " + serial);
+        }
+        int wholeDays = (int) Math.floor(serial);
+        long millisOfDay = (long) ((serial - wholeDays) * ThreeTenDates.MILLIS_PER_DAY + 0.5);
+        return epochDayOfSerial(wholeDays, use1904windowing) * ThreeTenDates.MILLIS_PER_DAY + millisOfDay;
+    }
+
+    /**
+     * @param serial an Excel serial date in the 1900 date system
+     * @return days since 1970-01-01
+     * @throws IllegalArgumentException if 'serial' is not a valid Excel date
+     */
+    public static int toEpochDay(double serial) {
+        return toEpochDay(serial, false);
+    }
+
+    /**
+     * @param serial           an Excel serial date
+     * @param use1904windowing true for the 1904 date system, false for the 1900 date system
+     * @return days since 1970-01-01
+     * @throws IllegalArgumentException if 'serial' is not a valid Excel date
+     */
+    public static int toEpochDay(double serial, boolean use1904windowing) {
+        return (int) Math.floorDiv(toEpochMilli(serial, use1904windowing), ThreeTenDates.MILLIS_PER_DAY);
+    }
+
+    /**
+     * @param epochMilli milliseconds since 1970-01-01T00:00:00Z
+     * @return the Excel serial date in the 1900 date system, or -1 before 1900 as with
+     * {@link org.apache.poi.ss.usermodel.DateUtil}
+     */
+    public static double fromEpochMilli(long epochMilli) {
+        return fromEpochMilli(epochMilli, false);
+    }
+
+    /**
+     * @param epochMilli       milliseconds since 1970-01-01T00:00:00Z
+     * @param use1904windowing true for the 1904 date system, false for the 1900 date system
+     * @return the Excel serial date, or -1 before the start of the date system as with
+     * {@link org.apache.poi.ss.usermodel.DateUtil}
+     */
+    public static double fromEpochMilli(long epochMilli, boolean use1904windowing) {
+        long epochDay = Math.floorDiv(epochMilli, ThreeTenDates.MILLIS_PER_DAY);
+        double fraction = (double) Math.floorMod(epochMilli, ThreeTenDates.MILLIS_PER_DAY) / ThreeTenDates.MILLIS_PER_DAY;
+        if (use1904windowing) {
+            return epochDay < EPOCH_DAY_OF_SERIAL_ZERO_1904 ? -1 : fraction + (epochDay - EPOCH_DAY_OF_SERIAL_ZERO_1904);
+        }
+        if (epochDay < MIN_EPOCH_DAY) {
+            return -1;
+        }
+        double value = fraction + (epochDay - EPOCH_DAY_OF_SERIAL_ZERO);
+        if (value >= FIRST_SHIFTED_SERIAL - 1) {
+            value++;
+        }
+        return value;
+    }
+
+    /**
+     * @param epochDay days since 1970-01-01
+     * @return the Excel serial date in the 1900 date system, or -1 before 1900 as with
+     * {@link org.apache.poi.ss.usermodel.DateUtil}
+     */
+    public static double fromEpochDay(long epochDay) {
+        return fromEpochDay(epochDay, false);
+    }
+
+    /**
+     * @param epochDay         days since 1970-01-01
+     * @param use1904windowing true for the 1904 date system, false for the 1900 date system
+     * @return the Excel serial date, or -1 before the start of the date system as with
+     * {@link org.apache.poi.ss.usermodel.DateUtil}
+     */
+    public static double fromEpochDay(long epochDay, boolean use1904windowing) {
+        return fromEpochMilli(epochDay * ThreeTenDates.MILLIS_PER_DAY, use1904windowing);
+    }
+
+    /**
+     * @return true if 'serial' can be read as a date, as {@link org.apache.poi.ss.usermodel.DateUtil#isValidExcelDate}
+     */
+    public static boolean isValid(double serial) {
+        return serial > -Double.MIN_VALUE;
+    }
+
+    private static long epochDayOfSerial(int wholeDays, boolean use1904windowing) {
+        if (use1904windowing) {
+            return wholeDays + EPOCH_DAY_OF_SERIAL_ZERO_1904;
+        }
+        return wholeDays < FIRST_SHIFTED_SERIAL ? wholeDays + EPOCH_DAY_OF_SERIAL_ZERO : wholeDays + EPOCH_DAY_OF_SERIAL_ZERO - 1;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.excel;
+
+import com.beirtipol.dates.ConverterRegistry;
+import com.beirtipol.dates.ZoneOffsets;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Date1904Support;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reads a column of dates from a POI {@link Sheet}, or from any {@link Row}s, in to epoch days, epoch milliseconds or
+ * a {@link List} of any type, using the arithmetic in {@link ExcelDates}. Whether a cell holds a date is decided by
+ * the format of its {@link CellStyle}, as {@link DateUtil#isCellDateFormatted(Cell)} does, but only once for each style
+ * rather than for every cell. Formulas are read by their cached result.
+ * <p>
+ * There is one element for each row, so columns read from the same rows line up. If a row has no cell in the column,
+ * or the cell is not a date, its element is {@link #NO_EPOCH_DAY}, {@link #NO_EPOCH_MILLI} or null. A {@link Sheet}
+ * is read in its own date system; for other rows, say which one with 'use1904windowing'.
+ * <p>
+ * A serial is a date and time without a timezone. Epoch milliseconds are the instant of that date and time in UTC
+ * unless a {@link ZoneOffsets} is given, and {@link #toList(Sheet, int, ConverterRegistry, Class)} reads it in the
+ * zone of the registry, as {@link ExcelDateConverters} do.
+ * <p>
+ * Unlike the converters, this needs POI at runtime.
+ *
+ * @author beirtipol@gmail.com
+ */
+public class SheetDateColumns {
+    public static final int  NO_EPOCH_DAY   = Integer.MIN_VALUE;
+    public static final long NO_EPOCH_MILLI = Long.MIN_VALUE;
+
+    public static int[] toEpochDays(Sheet sheet, int column) {
+        return toEpochDays(sheet.iterator(), column, isDate1904(sheet.getWorkbook()), sheet.getPhysicalNumberOfRows());
+    }
+
+    public static int[] toEpochDays(Iterator<Row> rows, int column, boolean use1904windowing) {
+        return toEpochDays(rows, column, use1904windowing, 16);
+    }
+
+    public static long[] toEpochMillis(Sheet sheet, int column) {
+        return toEpochMillis(sheet, column, ZoneOffsets.UTC);
+    }
+
+    /**
+     * @param zone the zone to read the date and time in each cell in, e.g. {@link ConverterRegistry#getZoneOffsets()}
+     */
+    public static long[] toEpochMillis(Sheet sheet, int column, ZoneOffsets zone) {
+        return toEpochMillis(sheet.iterator(), column, isDate1904(sheet.getWorkbook()), zone, sheet.getPhysicalNumberOfRows());
+    }
+
+    public static long[] toEpochMillis(Iterator<Row> rows, int column, boolean use1904windowing) {
+        return toEpochMillis(rows, column, use1904windowing, ZoneOffsets.UTC);
+    }
+
+    /**
+     * @param zone the zone to read the date and time in each cell in, e.g. {@link ConverterRegistry#getZoneOffsets()}
+     */
+    public static long[] toEpochMillis(Iterator<Row> rows, int column, boolean use1904windowing, ZoneOffsets zone) {
+        return toEpochMillis(rows, column, use1904windowing, zone, 16);
+    }
+
+    /**
+     * @return each date in the column as a 'to', converted by 'registry' from the date and time in the cell read in
+     * {@link ConverterRegistry#getZone()}
+     */
+    public static <T> List<T> toList(Sheet sheet, int column, ConverterRegistry registry, Class<T> to) {
+        return toList(sheet.iterator(), column, isDate1904(sheet.getWorkbook()), registry, to);
+    }
+
+    public static <T> List<T> toList(Iterator<Row> rows, int column, boolean use1904windowing, ConverterRegistry registry, Class<T> to) {
+        DateStyles styles = new DateStyles();
+        ZoneOffsets zone = registry.getZoneOffsets();
+        List<T> result = new ArrayList<>();
+        while (rows.hasNext()) {
+            double serial = styles.serial(rows.next(), column);
+            result.add(Double.isNaN(serial) ? null : registry.fromEpochMilli(zone.toEpochMilli(ExcelDates.toEpochMilli(serial, use1904windowing)), to));
+        }
+        return result;
+    }
+
+    /**
+     * @return whether 'workbook' uses the 1904 date system. Only {@link HSSFWorkbook} and those implementing
+     * {@link Date1904Support}, such as {@code XSSFWorkbook}, can say so, so any other workbook is taken to use the 1900
+     * date system
+     */
+    public static boolean isDate1904(Workbook workbook) {
+        if (workbook instanceof Date1904Support) {
+            return ((Date1904Support) workbook).isDate1904();
+        }
+        if (workbook instanceof HSSFWorkbook) {
+            return ((HSSFWorkbook) workbook).getInternalWorkbook().isUsing1904DateWindowing();
+        }
+        return false;
+    }
+
+    private static int[] toEpochDays(Iterator<Row> rows, int column, boolean use1904windowing, int capacity) {
+        DateStyles styles = new DateStyles();
+        int[] result = new int[Math.max(capacity, 1)];
+        int size = 0;
+        while (rows.hasNext()) {
+            double serial = styles.serial(rows.next(), column);
+            if (size == result.length) {
+                result = Arrays.copyOf(result, size * 2);
+            }
+            result[size++] = Double.isNaN(serial) ? NO_EPOCH_DAY : ExcelDates.toEpochDay(serial, use1904windowing);
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static long[] toEpochMillis(Iterator<Row> rows, int column, boolean use1904windowing, ZoneOffsets zone, int capacity) {
+        DateStyles styles = new DateStyles();
+        long[] result = new long[Math.max(capacity, 1)];
+        int size = 0;
+        while (rows.hasNext()) {
+            double serial = styles.serial(rows.next(), column);
+            if (size == result.length) {
+                result = Arrays.copyOf(result, size * 2);
+            }
+            result[size++] = Double.isNaN(serial) ? NO_EPOCH_MILLI : zone.toEpochMilli(ExcelDates.toEpochMilli(serial, use1904windowing));
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Remembers which {@link CellStyle}s, by index, are date formats
+     */
+    private static final class DateStyles {
+        private static final byte UNKNOWN  = 0;
+        private static final byte DATE     = 1;
+        private static final byte NOT_DATE = 2;
+
+        private byte[] styles = new byte[64];
+
+        /**
+         * @return the serial in the cell, or NaN if there is no cell or it is not a date
+         */
+        double serial(Row row, int column) {
+            Cell cell = row.getCell(column);
+            if (cell == null) {
+                return Double.NaN;
+            }
+            CellType type = cell.getCellType() == CellType.FORMULA ? cell.getCachedFormulaResultType() : cell.getCellType();
+            if (type != CellType.NUMERIC || !isDate(cell.getCellStyle())) {
+                return Double.NaN;
+            }
+            double serial = cell.getNumericCellValue();
+            return ExcelDates.isValid(serial) ? serial : Double.NaN;
+        }
+
+        private boolean isDate(CellStyle style) {
+            int index = style.getIndex() & 0xffff;
+            if (index >= styles.length) {
+                styles = Arrays.copyOf(styles, Math.max(index + 1, styles.length * 2));
+            }
+            if (styles[index] == UNKNOWN) {
+                styles[index] = DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString()) ? DATE : NOT_DATE;
+            }
+            return styles[index] == DATE;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.excel;
+
+import com.beirtipol.dates.ConverterRegistry;
+import com.beirtipol.dates.ZoneOffsets;
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Reads the dates in some columns of an xlsx sheet as its XML streams past, without loading the workbook. Only the
+ * styles table is held, to know which styles are date formats; the shared strings table is never read, as a date is
+ * never a string. Memory use is therefore the same for a million rows as for ten.
+ * <p>
+ * A date is a number, or a formula with a cached number, in a date formatted style, as for {@link SheetDateColumns}.
+ * Each is given to the handler as it is read, converted with {@link ExcelDates} in the workbook's own date system.
+ * A serial is a date and time without a timezone, which is read in UTC unless a {@link ZoneOffsets} or a
+ * {@link ConverterRegistry} is given, as with {@link ExcelDateConverters}.
+ * Other cells, and cells in other columns, are skipped. Rows and columns are numbered from 0, as in POI.
+ * <p>
+ * Unlike the converters, this needs POI and poi-ooxml at runtime.
+ *
+ * @author beirtipol@gmail.com
+ */
+public class XlsxDateReader {
+    @FunctionalInterface
+    public interface EpochMilliHandler {
+        void date(int row, int column, long epochMilli);
+    }
+
+    @FunctionalInterface
+    public interface DateHandler<T> {
+        void date(int row, int column, T date);
+    }
+
+    private final int       sheet;
+    private final boolean[] columns;
+
+    /**
+     * @param sheet   the index of the sheet to read, from 0
+     * @param columns the indexes of the columns to read, from 0
+     */
+    public XlsxDateReader(int sheet, int... columns) {
+        if (sheet < 0) {
+            throw new IllegalArgumentException("Sheet index cannot be negative: " + sheet);
+        }
+        int last = -1;
+        for (int column : columns) {
+            if (column < 0) {
+                throw new IllegalArgumentException("Column index cannot be negative: " + column);
+            }
+            last = Math.max(last, column);
+        }
+        this.sheet = sheet;
+        this.columns = new boolean[last + 1];
+        for (int column : columns) {
+            this.columns[column] = true;
+        }
+    }
+
+    public void read(Path xlsx, EpochMilliHandler handler) throws IOException {
+        read(xlsx, ZoneOffsets.UTC, handler);
+    }
+
+    /**
+     * @param zone the zone to read the date and time in each cell in, e.g. {@link ConverterRegistry#getZoneOffsets()}
+     */
+    public void read(Path xlsx, ZoneOffsets zone, EpochMilliHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(xlsx.toFile(), PackageAccess.READ)) {
+            read(pkg, zone, handler);
+        } catch (OpenXML4JException e) {
+            throw new IOException("Cannot open " + xlsx, e);
+        }
+    }
+
+    /**
+     * Reads each date as a 'to', converted by 'registry' from the date and time in the cell read in
+     * {@link ConverterRegistry#getZone()}
+     */
+    public <T> void read(Path xlsx, ConverterRegistry registry, Class<T> to, DateHandler<T> handler) throws IOException {
+        read(xlsx, registry.getZoneOffsets(), (row, column, epochMilli) -> handler.date(row, column, registry.fromEpochMilli(epochMilli, to)));
+    }
+
+    public void read(OPCPackage xlsx, EpochMilliHandler handler) throws IOException {
+        read(xlsx, ZoneOffsets.UTC, handler);
+    }
+
+    /**
+     * @param zone the zone to read the date and time in each cell in, e.g. {@link ConverterRegistry#getZoneOffsets()}
+     */
+    public void read(OPCPackage xlsx, ZoneOffsets zone, EpochMilliHandler handler) throws IOException {
+        try {
+            XSSFReader reader = new XSSFReader(xlsx);
+            boolean use1904windowing = isDate1904(reader);
+            boolean[] dateStyles = dateStyles(reader.getStylesTable());
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            for (int i = 0; i < sheet && sheets.hasNext(); i++) {
+                sheets.next().close();
+            }
+            if (!sheets.hasNext()) {
+                throw new IllegalArgumentException("There is no sheet " + sheet);
+            }
+            try (InputStream in = sheets.next()) {
+                parse(in, new SheetHandler(columns, dateStyles, use1904windowing, zone, handler));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static boolean isDate1904(XSSFReader reader) throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+        boolean[] date1904 = {false};
+        try (InputStream in = reader.getWorkbookData()) {
+            parse(in, new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                    if ("workbookPr".equals(localName)) {
+                        String value = attributes.getValue("date1904");
+                        date1904[0] = "1".equals(value) || "true".equals(value);
+                    }
+                }
+            });
+        }
+        return date1904[0];
+    }
+
+    /**
+     * @return whether each style, by index, is a date format
+     */
+    private static boolean[] dateStyles(StylesTable styles) {
+        boolean[] result = new boolean[styles.getNumCellStyles()];
+        for (int i = 0; i < result.length; i++) {
+            XSSFCellStyle style = styles.getStyleAt(i);
+            result[i] = style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+        }
+        return result;
+    }
+
+    private static void parse(InputStream in, DefaultHandler handler) throws IOException, SAXException, ParserConfigurationException {
+        XMLReader reader = SAXHelper.newXMLReader();
+        reader.setContentHandler(handler);
+        reader.parse(new InputSource(in));
+    }
+
+    /**
+     * Follows the row, cell and value elements of a worksheet. A row or cell may leave out its reference, in which case
+     * it follows the previous one.
+     */
+    private static final class SheetHandler extends DefaultHandler {
+        private final boolean[]         columns;
+        private final boolean[]         dateStyles;
+        private final boolean           use1904windowing;
+        private final ZoneOffsets       zone;
+        private final EpochMilliHandler handler;
+        private final StringBuilder     value = new StringBuilder();
+
+        private int     row    = -1;
+        private int     column = -1;
+        private boolean date;
+        private boolean inValue;
+
+        SheetHandler(boolean[] columns, boolean[] dateStyles, boolean use1904windowing, ZoneOffsets zone, EpochMilliHandler handler) {
+            this.columns = columns;
+            this.dateStyles = dateStyles;
+            this.use1904windowing = use1904windowing;
+            this.zone = zone;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row":
+                    String r = attributes.getValue("r");
+                    row = r == null ? row + 1 : Integer.parseInt(r) - 1;
+                    column = -1;
+                    break;
+                case "c":
+                    String reference = attributes.getValue("r");
+                    column = reference == null ? column + 1 : column(reference);
+                    date = column < columns.length && columns[column] && isNumber(attributes.getValue("t")) && isDateStyle(attributes.getValue("s"));
+                    break;
+                case "v":
+                    inValue = date;
+                    value.setLength(0);
+                    break;
+                default:
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue) {
+                value.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            if (inValue && "v".equals(localName)) {
+                inValue = false;
+                double serial = Double.parseDouble(value.toString());
+                if (ExcelDates.isValid(serial)) {
+                    handler.date(row, column, zone.toEpochMilli(ExcelDates.toEpochMilli(serial, use1904windowing)));
+                }
+            }
+        }
+
+        private static boolean isNumber(String type) {
+            return type == null || "n".equals(type);
+        }
+
+        private boolean isDateStyle(String s) {
+            int style = s == null ? 0 : Integer.parseInt(s);
+            return style < dateStyles.length && dateStyles[style];
+        }
+
+        /**
+         * @return the column of an A1 style reference, from 0
+         */
+        private static int column(String reference) {
+            int column = 0;
+            for (int i = 0; i < reference.length(); i++) {
+                char c = reference.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                column = column * 26 + c - 'A' + 1;
+            }
+            return column - 1;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.excel;
+
+import com.beirtipol.dates.ConverterRegistry;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Writes columns of dates to an xlsx workbook through {@link SXSSFWorkbook}, which keeps only a window of rows in
+ * memory and flushes the rest to disk. Each column is converted to Excel serials in one pass before any row is written,
+ * looking up the {@code double.class} converter once for each run of elements which share a class, and all cells with
+ * the same format share one {@link CellStyle}. Null elements, and dates before the start of the date system, which
+ * {@link ExcelDates} gives as -1, are left as blank cells rather than written as a date which Excel cannot show.
+ * <p>
+ * Serials are in whichever date system the registry's {@link ExcelDateConverters} use, as found by
+ * {@link ExcelDateConverters#isDate1904(ConverterRegistry)}. A workbook created here is put in the same date system,
+ * and one passed in must already be in it, so that Excel reads the dates back as they were written.
+ * <p>
+ * Unlike the converters, this needs POI and poi-ooxml at runtime.
+ *
+ * @author beirtipol@gmail.com
+ */
+public class XlsxDateWriter implements Closeable {
+    public static final String DATE_FORMAT      = "yyyy-mm-dd";
+    public static final String DATE_TIME_FORMAT = "yyyy-mm-dd hh:mm:ss";
+
+    /**
+     * A header and the dates beneath it, either to be converted or already as serials
+     */
+    public static final class Column {
+        private final String   header;
+        private final String   format;
+        private final Object[] dates;
+        private final double[] serials;
+
+        private Column(String header, String format, Object[] dates, double[] serials) {
+            this.header = header;
+            this.format = format;
+            this.dates = dates;
+            this.serials = serials;
+        }
+
+        /**
+         * @param header the text of the first row, or null for none
+         * @param format the Excel number format of the dates, e.g. {@link XlsxDateWriter#DATE_FORMAT}
+         */
+        public static Column of(String header, String format, Object[] dates) {
+            return new Column(header, format, dates, null);
+        }
+
+        public static Column of(String header, String format, List<?> dates) {
+            return new Column(header, format, dates.toArray(), null);
+        }
+
+        /**
+         * @param serials Excel serial dates, with NaN or a negative number for a blank cell
+         */
+        public static Column ofSerials(String header, String format, double[] serials) {
+            return new Column(header, format, null, serials);
+        }
+
+        private int length() {
+            return dates == null ? serials.length : dates.length;
+        }
+    }
+
+    private final ConverterRegistry      registry;
+    private final SXSSFWorkbook          workbook;
+    private final Map<String, CellStyle> styles = new HashMap<>();
+
+    public XlsxDateWriter(ConverterRegistry registry) {
+        this(registry, SXSSFWorkbook.DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param window the number of rows kept in memory before they are flushed to disk
+     */
+    public XlsxDateWriter(ConverterRegistry registry, int window) {
+        this(registry, newWorkbook(window, ExcelDateConverters.isDate1904(registry)));
+    }
+
+    /**
+     * @throws IllegalArgumentException if 'workbook' is not in the date system of the registry's converters
+     */
+    public XlsxDateWriter(ConverterRegistry registry, SXSSFWorkbook workbook) {
+        boolean date1904 = ExcelDateConverters.isDate1904(registry);
+        if (SheetDateColumns.isDate1904(workbook.getXSSFWorkbook()) != date1904) {
+            throw new IllegalArgumentException(String.format("The workbook is not in the %s date system used by the converters", date1904 ? 1904 : 1900));
+        }
+        this.registry = registry;
+        this.workbook = workbook;
+    }
+
+    private static SXSSFWorkbook newWorkbook(int window, boolean date1904) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(window);
+        workbook.getXSSFWorkbook().getCTWorkbook().getWorkbookPr().setDate1904(date1904);
+        return workbook;
+    }
+
+    public SXSSFWorkbook getWorkbook() {
+        return workbook;
+    }
+
+    /**
+     * @return the one style for dates in 'format', created on first use
+     */
+    public CellStyle getStyle(String format) {
+        return styles.computeIfAbsent(format, key -> {
+            CellStyle style = workbook.createCellStyle();
+            style.setDataFormat(workbook.createDataFormat().getFormat(key));
+            return style;
+        });
+    }
+
+    /**
+     * Convert each element of 'dates' to an Excel serial, looking up the converter once for each run of elements which
+     * share a runtime class.
+     *
+     * @return the serial of each element, NaN for nulls, or -1 for dates before the start of the date system
+     * @throws IllegalArgumentException if there is no converter to {@code double.class} for an element
+     */
+    @SuppressWarnings("unchecked")
+    public double[] toSerials(Object[] dates) {
+        double[] serials = new double[dates.length];
+        Class<?> runClass = null;
+        ToDoubleFunction<Object> converter = null;
+        for (int i = 0; i < dates.length; i++) {
+            Object value = dates[i];
+            if (value == null) {
+                serials[i] = Double.NaN;
+                continue;
+            }
+            if (value.getClass() != runClass) {
+                runClass = value.getClass();
+                converter = (ToDoubleFunction<Object>) registry.getConverter(runClass, double.class);
+            }
+            serials[i] = converter.applyAsDouble(value);
+        }
+        return serials;
+    }
+
+    /**
+     * Add a sheet holding 'columns' side by side, with a row of headers first if any column has one. Rows are
+     * streamed through the workbook's window, so only the converted serials are held for the whole sheet.
+     */
+    public SXSSFSheet writeSheet(String name, Column... columns) {
+        SXSSFSheet sheet = workbook.createSheet(name);
+        double[][] serials = new double[columns.length][];
+        CellStyle[] columnStyles = new CellStyle[columns.length];
+        int rows = 0;
+        boolean headers = false;
+        for (int i = 0; i < columns.length; i++) {
+            Column column = columns[i];
+            serials[i] = column.serials != null ? column.serials : toSerials(column.dates);
+            columnStyles[i] = getStyle(column.format);
+            rows = Math.max(rows, column.length());
+            headers |= column.header != null;
+        }
+
+        int rowIndex = 0;
+        if (headers) {
+            Row row = sheet.createRow(rowIndex++);
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i].header != null) {
+                    row.createCell(i).setCellValue(columns[i].header);
+                }
+            }
+        }
+        for (int r = 0; r < rows; r++) {
+            Row row = sheet.createRow(rowIndex++);
+            for (int i = 0; i < columns.length; i++) {
+                // False for NaN as well as for dates before the start of the date system
+                if (r < serials[i].length && serials[i][r] >= 0) {
+                    Cell cell = row.createCell(i);
+                    cell.setCellStyle(columnStyles[i]);
+                    cell.setCellValue(serials[i][r]);
+                }
+            }
+        }
+        return sheet;
+    }
+
+    public void write(OutputStream out) throws IOException {
+        workbook.write(out);
+    }
+
+    /**
+     * Delete the temporary files behind the workbook and close it
+     */
+    @Override
+    public void close() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+}
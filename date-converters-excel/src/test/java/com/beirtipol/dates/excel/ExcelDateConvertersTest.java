@@ -17,14 +17,24 @@
 
 package com.beirtipol.dates.excel;
 
+import com.beirtipol.dates.ConverterRegistry;
 import com.beirtipol.dates.converter.DateTimeConvertersTest;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.TimeZone;
+
 @TestInstance(Lifecycle.PER_CLASS)
 @ExtendWith({SpringExtension.class})
 @SpringBootTest
@@ -35,4 +45,41 @@ public class ExcelDateConvertersTest extends DateTimeConvertersTest {
         super.setup();
         expectedResults.put(Double.class, 43709.04309555556d);
     }
+
+    @Test
+    public void dateSystem1904() {
+        ConverterRegistry registry = ConverterRegistry.load();
+        Assertions.assertFalse(ExcelDateConverters.isDate1904(registry));
+        registry.replaceAll(new ExcelDateConverters(registry, true));
+        Assertions.assertTrue(ExcelDateConverters.isDate1904(registry));
+        Assertions.assertEquals(LocalDate.of(1904, 1, 1), registry.from(0d, LocalDate.class));
+        Assertions.assertEquals(42247.04309555556d, registry.from(expectedResults.get(Timestamp.class), Double.class), 1e-9);
+        Assertions.assertEquals(expectedResults.get(ZonedDateTime.class), registry.from(42247.04309555556d, ZonedDateTime.class));
+        Assertions.assertEquals(LocalDate.of(2019, 9, 1).toEpochDay(), registry.toEpochDay(42247.5d));
+    }
+
+    @Test
+    public void primitiveSerials() {
+        double serial = (Double) expectedResults.get(Double.class);
+        expectedResults.forEach((type, value) -> {
+            Assertions.assertEquals(serial, converters.toDouble(value), 1e-9, type::getName);
+            Assertions.assertEquals(value, converters.fromDouble(serial, type), type::getName);
+        });
+    }
+
+    @Test
+    public void serialToStringKeepsTheTimeOfDay() {
+        Assertions.assertEquals("2019-09-01T12:00:00Z", converters.from(43709.5d, String.class));
+        Assertions.assertEquals("2019-09-01T12:00:00Z", converters.fromDouble(43709.5d, String.class));
+        String explained = converters.explain(double.class, String.class);
+        Assertions.assertFalse(explained.contains("java.sql.Date"), explained);
+    }
+
+    @Test
+    public void calendarInItsOwnTimezone() {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("Asia/Kolkata"));
+        calendar.setTimeInMillis(1567299723456L);
+        Assertions.assertEquals(DateUtil.getExcelDate(calendar, false), converters.from(calendar, Double.class));
+        Assertions.assertEquals(DateUtil.getExcelDate(calendar, true), new ExcelDateConverters(true).CalendarToDouble().apply(calendar));
+    }
 }
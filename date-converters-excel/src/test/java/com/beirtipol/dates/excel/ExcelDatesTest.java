@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.excel;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Checks {@link ExcelDates} against {@link DateUtil}, particularly around the phantom 1900-02-29
+ */
+public class ExcelDatesTest {
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.5, 1, 1.25, 59, 59.999999, 60, 60.5, 61, 61.75, 43709.04309555556, 2958465.99999999})
+    public void toEpochMilli(double serial) {
+        LocalDateTime expected = DateUtil.getLocalDateTime(serial);
+        Assertions.assertEquals(expected.toInstant(ZoneOffset.UTC).toEpochMilli(), ExcelDates.toEpochMilli(serial));
+        Assertions.assertEquals(expected.toLocalDate().toEpochDay(), ExcelDates.toEpochDay(serial));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1899-12-31T23:59:59", "1900-01-01T00:00", "1900-02-28T12:00", "1900-03-01T00:00", "2019-09-01T01:02:03.456", "9999-12-31T23:59:59.999"})
+    public void fromEpochMilli(String text) {
+        LocalDateTime from = LocalDateTime.parse(text);
+        Assertions.assertEquals(DateUtil.getExcelDate(from), ExcelDates.fromEpochMilli(from.toInstant(ZoneOffset.UTC).toEpochMilli()));
+        Assertions.assertEquals(DateUtil.getExcelDate(from.toLocalDate()), ExcelDates.fromEpochDay(from.toLocalDate().toEpochDay()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0, 0.5, 1, 59, 60, 61.75, 365, 366, 42247.04309555556, 2957003.99999999})
+    public void toEpochMilli1904(double serial) {
+        LocalDateTime expected = DateUtil.getLocalDateTime(serial, true);
+        Assertions.assertEquals(expected.toInstant(ZoneOffset.UTC).toEpochMilli(), ExcelDates.toEpochMilli(serial, true));
+        Assertions.assertEquals(expected.toLocalDate().toEpochDay(), ExcelDates.toEpochDay(serial, true));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1900-03-01T00:00", "1903-12-31T23:59:59", "1904-01-01T00:00", "1904-02-29T12:00", "2019-09-01T01:02:03.456", "9999-12-31T23:59:59.999"})
+    public void fromEpochMilli1904(String text) {
+        LocalDateTime from = LocalDateTime.parse(text);
+        Assertions.assertEquals(DateUtil.getExcelDate(from, true), ExcelDates.fromEpochMilli(from.toInstant(ZoneOffset.UTC).toEpochMilli(), true));
+        Assertions.assertEquals(DateUtil.getExcelDate(from.toLocalDate().atStartOfDay(), true), ExcelDates.fromEpochDay(from.toLocalDate().toEpochDay(), true));
+    }
+
+    @Test
+    public void invalid() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ExcelDates.toEpochMilli(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ExcelDates.toEpochMilli(Double.NaN, true));
+        Assertions.assertFalse(ExcelDates.isValid(-0.5));
+    }
+
+    @Test
+    public void columns() {
+        double[] serials = {1, 59.5, 60, 61, 43709.04309555556};
+        long[] epochMillis = ExcelDateColumns.toEpochMillis(serials);
+        int[] epochDays = ExcelDateColumns.toEpochDays(serials);
+        for (int i = 0; i < serials.length; i++) {
+            Assertions.assertEquals(ExcelDates.toEpochMilli(serials[i]), epochMillis[i]);
+            Assertions.assertEquals(ExcelDates.toEpochDay(serials[i]), epochDays[i]);
+            Assertions.assertEquals(DateUtil.getLocalDateTime(serials[i]).toLocalDate(), ExcelDateColumns.toLocalDates(serials)[i]);
+        }
+        Assertions.assertArrayEquals(new double[]{1, 59.5, 61, 61, 43709.04309555556}, ExcelDateColumns.fromEpochMillis(epochMillis));
+        Assertions.assertArrayEquals(ExcelDateColumns.fromEpochDays(epochDays), ExcelDateColumns.fromLocalDates(ExcelDateColumns.toLocalDates(serials)));
+    }
+
+    @Test
+    public void columns1904() {
+        double[] serials = {0, 59.5, 60, 61.75, 42247.04309555556};
+        long[] epochMillis = ExcelDateColumns.toEpochMillis(serials, new long[serials.length], true);
+        int[] epochDays = ExcelDateColumns.toEpochDays(serials, true);
+        LocalDate[] dates = ExcelDateColumns.toLocalDates(serials, true);
+        for (int i = 0; i < serials.length; i++) {
+            LocalDateTime expected = DateUtil.getLocalDateTime(serials[i], true);
+            Assertions.assertEquals(expected.toInstant(ZoneOffset.UTC).toEpochMilli(), epochMillis[i]);
+            Assertions.assertEquals(expected.toLocalDate().toEpochDay(), epochDays[i]);
+            Assertions.assertEquals(expected.toLocalDate(), dates[i]);
+        }
+        Assertions.assertArrayEquals(epochMillis, ExcelDateColumns.toEpochMillis(serials, true));
+        Assertions.assertArrayEquals(epochDays, ExcelDateColumns.toEpochDays(serials, new int[serials.length], true));
+        Assertions.assertArrayEquals(serials, ExcelDateColumns.fromEpochMillis(epochMillis, true), 1e-9);
+        Assertions.assertArrayEquals(serials, ExcelDateColumns.fromEpochMillis(epochMillis, new double[serials.length], true), 1e-9);
+        double[] wholeDays = {0, 59, 60, 61, 42247};
+        Assertions.assertArrayEquals(wholeDays, ExcelDateColumns.fromEpochDays(epochDays, true));
+        Assertions.assertArrayEquals(wholeDays, ExcelDateColumns.fromEpochDays(epochDays, new double[epochDays.length], true));
+        Assertions.assertArrayEquals(wholeDays, ExcelDateColumns.fromLocalDates(dates, true));
+        Assertions.assertArrayEquals(new double[]{-1}, ExcelDateColumns.fromLocalDates(new LocalDate[]{LocalDate.of(1903, 12, 31)}, true));
+    }
+}
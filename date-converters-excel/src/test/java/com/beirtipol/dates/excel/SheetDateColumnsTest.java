@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.excel;
+
+import com.beirtipol.dates.ConverterRegistry;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Checks {@link SheetDateColumns} against {@link DateUtil#isCellDateFormatted(Cell)} and
+ * {@link Cell#getLocalDateTimeCellValue()} for a column mixing dates with other cells
+ */
+public class SheetDateColumnsTest {
+    private Workbook workbook;
+    private Sheet    sheet;
+
+    @BeforeEach
+    public void setUp() {
+        workbook = new HSSFWorkbook();
+        sheet = workbook.createSheet();
+        CellStyle builtIn = workbook.createCellStyle();
+        builtIn.setDataFormat((short) 14);
+        CellStyle custom = workbook.createCellStyle();
+        custom.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss.000"));
+        CellStyle number = workbook.createCellStyle();
+        number.setDataFormat(workbook.createDataFormat().getFormat("0.00"));
+
+        sheet.createRow(0).createCell(0).setCellValue("Date");
+        addDate(1, builtIn, 1);
+        addDate(2, custom, 60);
+        addDate(3, builtIn, 43709.04309555556);
+        sheet.createRow(4).createCell(0).setCellStyle(builtIn);
+        addDate(5, number, 43709);
+        sheet.createRow(6);
+        addDate(7, custom, -1);
+        Cell formula = sheet.createRow(8).createCell(0);
+        formula.setCellStyle(custom);
+        formula.setCellFormula("A4+0.5");
+        addDate(9, custom, 2958465.99999999);
+        workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+    }
+
+    @Test
+    public void epochDaysAndMillis() {
+        int[] epochDays = SheetDateColumns.toEpochDays(sheet, 0);
+        long[] epochMillis = SheetDateColumns.toEpochMillis(sheet, 0);
+        Assertions.assertEquals(sheet.getLastRowNum() + 1, epochDays.length);
+        Assertions.assertEquals(epochDays.length, epochMillis.length);
+        for (Row row : sheet) {
+            LocalDateTime expected = expected(row);
+            int i = row.getRowNum();
+            Assertions.assertEquals(expected == null ? SheetDateColumns.NO_EPOCH_DAY : expected.toLocalDate().toEpochDay(), epochDays[i], "Row " + i);
+            Assertions.assertEquals(expected == null ? SheetDateColumns.NO_EPOCH_MILLI : expected.toInstant(ZoneOffset.UTC).toEpochMilli(), epochMillis[i], "Row " + i);
+        }
+    }
+
+    @Test
+    public void list() {
+        ConverterRegistry registry = ConverterRegistry.load();
+        List<LocalDateTime> dateTimes = SheetDateColumns.toList(sheet, 0, registry, LocalDateTime.class);
+        List<LocalDate> dates = SheetDateColumns.toList(sheet, 0, registry, LocalDate.class);
+        for (Row row : sheet) {
+            LocalDateTime expected = expected(row);
+            Assertions.assertEquals(expected, dateTimes.get(row.getRowNum()));
+            Assertions.assertEquals(expected == null ? null : expected.toLocalDate(), dates.get(row.getRowNum()));
+        }
+    }
+
+    @Test
+    public void listInAnotherZone() {
+        ConverterRegistry registry = ConverterRegistry.load();
+        ZoneId newYork = ZoneId.of("America/New_York");
+        registry.setZone(newYork);
+        List<LocalDate> dates = SheetDateColumns.toList(sheet, 0, registry, LocalDate.class);
+        List<Date> instants = SheetDateColumns.toList(sheet, 0, registry, Date.class);
+        long[] epochMillis = SheetDateColumns.toEpochMillis(sheet, 0, registry.getZoneOffsets());
+        for (Row row : sheet) {
+            LocalDateTime expected = expected(row);
+            Assertions.assertEquals(expected == null ? null : expected.toLocalDate(), dates.get(row.getRowNum()));
+            Assertions.assertEquals(expected == null ? null : Date.from(expected.atZone(newYork).toInstant()), instants.get(row.getRowNum()));
+            if (expected != null) {
+                Assertions.assertEquals(instants.get(row.getRowNum()).getTime(), epochMillis[row.getRowNum()]);
+                Assertions.assertEquals(instants.get(row.getRowNum()), registry.from(row.getCell(0).getNumericCellValue(), Date.class));
+            }
+        }
+    }
+
+    @Test
+    public void dateSystem1904() {
+        long[] epochMillis = SheetDateColumns.toEpochMillis(sheet.iterator(), 0, true);
+        Assertions.assertEquals(DateUtil.getLocalDateTime(43709.04309555556, true).toInstant(ZoneOffset.UTC).toEpochMilli(), epochMillis[3]);
+        Assertions.assertFalse(SheetDateColumns.isDate1904(workbook));
+    }
+
+    @Test
+    public void missingColumn() throws IOException {
+        int[] epochDays = SheetDateColumns.toEpochDays(sheet, 5);
+        Assertions.assertEquals(sheet.getLastRowNum() + 1, epochDays.length);
+        for (int epochDay : epochDays) {
+            Assertions.assertEquals(SheetDateColumns.NO_EPOCH_DAY, epochDay);
+        }
+        workbook.close();
+    }
+
+    private void addDate(int row, CellStyle style, double serial) {
+        Cell cell = sheet.createRow(row).createCell(0);
+        cell.setCellStyle(style);
+        cell.setCellValue(serial);
+    }
+
+    /**
+     * @return what POI makes of the cell, one at a time
+     */
+    private static LocalDateTime expected(Row row) {
+        Cell cell = row.getCell(0);
+        if (cell == null) {
+            return null;
+        }
+        CellType type = cell.getCellType() == CellType.FORMULA ? cell.getCachedFormulaResultType() : cell.getCellType();
+        if (type != CellType.NUMERIC || !DateUtil.isCellDateFormatted(cell)) {
+            return null;
+        }
+        return cell.getLocalDateTimeCellValue();
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.excel;
+
+import com.beirtipol.dates.ConverterRegistry;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks that {@link XlsxDateReader} finds the same dates as {@link SheetDateColumns} does in the loaded workbook. The
+ * test of memory use writes a million rows, so only runs with -Dexcel.largeTests=true.
+ */
+public class XlsxDateReaderTest {
+    @TempDir
+    Path folder;
+
+    @Test
+    public void sameAsSheet() throws IOException {
+        check(false);
+    }
+
+    @Test
+    public void dateSystem1904() throws IOException {
+        check(true);
+    }
+
+    @Test
+    public void typed() throws IOException {
+        Path xlsx = folder.resolve("typed.xlsx");
+        try (XSSFWorkbook workbook = workbook(false)) {
+            write(workbook, xlsx);
+            List<LocalDate> expected = SheetDateColumns.toList(workbook.getSheetAt(1), 1, ConverterRegistry.load(), LocalDate.class);
+            Map<Integer, LocalDate> actual = new HashMap<>();
+            new XlsxDateReader(1, 1).read(xlsx, ConverterRegistry.load(), LocalDate.class, (row, column, date) -> actual.put(row, date));
+            int i = 0;
+            for (Row row : workbook.getSheetAt(1)) {
+                Assertions.assertEquals(expected.get(i++), actual.get(row.getRowNum()), "Row " + row.getRowNum());
+            }
+            Assertions.assertFalse(expected.stream().allMatch(date -> date == null));
+
+            // The dates in the cells are the same wherever the registry is
+            ConverterRegistry newYork = ConverterRegistry.load();
+            newYork.setZone(ZoneId.of("America/New_York"));
+            actual.clear();
+            new XlsxDateReader(1, 1).read(xlsx, newYork, LocalDate.class, (row, column, date) -> actual.put(row, date));
+            i = 0;
+            for (Row row : workbook.getSheetAt(1)) {
+                Assertions.assertEquals(expected.get(i++), actual.get(row.getRowNum()), "Row " + row.getRowNum());
+            }
+        }
+    }
+
+    @Test
+    public void missingSheet() throws IOException {
+        Path xlsx = folder.resolve("missing.xlsx");
+        try (XSSFWorkbook workbook = workbook(false)) {
+            write(workbook, xlsx);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new XlsxDateReader(2, 0).read(xlsx, (row, column, epochMilli) -> {}));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new XlsxDateReader(0, -1));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "excel.largeTests", matches = "true")
+    public void millionRows() throws IOException {
+        int rows = 1_000_000;
+        Path xlsx = folder.resolve("large.xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100)) {
+            CellStyle style = workbook.createCellStyle();
+            style.setDataFormat((short) 14);
+            Sheet sheet = workbook.createSheet();
+            for (int i = 0; i < rows; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("Row " + i);
+                Cell cell = row.createCell(1);
+                cell.setCellStyle(style);
+                cell.setCellValue(i % 2958465 + 1);
+            }
+            write(workbook, xlsx);
+            workbook.dispose();
+        }
+
+        long[] used = new long[2];
+        int[] count = {0};
+        new XlsxDateReader(0, 1).read(xlsx, (row, column, epochMilli) -> {
+            Assertions.assertEquals(ExcelDates.toEpochMilli(row % 2958465 + 1), epochMilli);
+            if (++count[0] == rows / 10) {
+                used[0] = usedMemory();
+            }
+        });
+        used[1] = usedMemory();
+        Assertions.assertEquals(rows, count[0]);
+        Assertions.assertTrue(used[1] - used[0] < 16 * 1024 * 1024, "Memory grew from " + used[0] + " to " + used[1]);
+    }
+
+    /**
+     * Writes the workbook and checks the dates read from it in the first two columns of each sheet
+     */
+    private void check(boolean date1904) throws IOException {
+        Path xlsx = folder.resolve("dates.xlsx");
+        try (XSSFWorkbook workbook = workbook(date1904)) {
+            write(workbook, xlsx);
+            for (int index = 0; index < workbook.getNumberOfSheets(); index++) {
+                Sheet sheet = workbook.getSheetAt(index);
+                Map<Integer, Long> first = new HashMap<>();
+                Map<Integer, Long> second = new HashMap<>();
+                new XlsxDateReader(index, 0, 1).read(xlsx, (row, column, epochMilli) -> {
+                    Assertions.assertNull((column == 0 ? first : second).put(row, epochMilli));
+                });
+                assertColumn(sheet, SheetDateColumns.toEpochMillis(sheet, 0), first);
+                assertColumn(sheet, SheetDateColumns.toEpochMillis(sheet, 1), second);
+            }
+        }
+    }
+
+    /**
+     * @param expected one element for each row of 'sheet', which skips some row numbers
+     */
+    private static void assertColumn(Sheet sheet, long[] expected, Map<Integer, Long> actual) {
+        int i = 0;
+        for (Row row : sheet) {
+            long epochMilli = expected[i++];
+            Assertions.assertEquals(epochMilli == SheetDateColumns.NO_EPOCH_MILLI ? null : epochMilli, actual.remove(row.getRowNum()), "Row " + row.getRowNum());
+        }
+        Assertions.assertEquals(Collections.emptyMap(), actual);
+    }
+
+    /**
+     * @return a workbook of two sheets, each with dates, text, plain numbers, blanks and formulas in its first columns
+     * and dates in a third column which should be skipped
+     */
+    private static XSSFWorkbook workbook(boolean date1904) {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        if (date1904) {
+            workbook.getCTWorkbook().getWorkbookPr().setDate1904(true);
+        }
+        CellStyle builtIn = workbook.createCellStyle();
+        builtIn.setDataFormat((short) 14);
+        CellStyle custom = workbook.createCellStyle();
+        custom.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss.000"));
+        CellStyle number = workbook.createCellStyle();
+        number.setDataFormat(workbook.createDataFormat().getFormat("0.00"));
+        CellStyle[] styles = {builtIn, custom, number, null};
+
+        for (int index = 0; index < 2; index++) {
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Trade Date");
+            header.createCell(1).setCellValue("Settle Date");
+            for (int i = 1; i < 40; i++) {
+                if (i % 7 == 3) {
+                    continue;
+                }
+                Row row = sheet.createRow(i);
+                for (int column = 0; column < 3; column++) {
+                    Cell cell = row.createCell(column);
+                    cell.setCellStyle(styles[(i + 2 * column + index) % styles.length]);
+                    switch ((i + column) % 5) {
+                        case 0:
+                            cell.setCellValue("2019-09-01");
+                            break;
+                        case 1:
+                            cell.setCellFormula(column == 2 ? "43709.5" : "C" + (i + 1) + "+0.25");
+                            break;
+                        case 2:
+                            break;
+                        case 3:
+                            cell.setCellValue(-1);
+                            break;
+                        default:
+                            cell.setCellValue(i * 1234.567 + column);
+                    }
+                }
+            }
+        }
+        workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+        return workbook;
+    }
+
+    private static void write(Workbook workbook, Path to) throws IOException {
+        try (OutputStream out = Files.newOutputStream(to)) {
+            workbook.write(out);
+        }
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.excel;
+
+import com.beirtipol.dates.ConverterRegistry;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Writes columns through {@link XlsxDateWriter} with a small window and reads them back with POI
+ */
+public class XlsxDateWriterTest {
+    private static final int ROWS = 1000;
+
+    @TempDir
+    Path folder;
+
+    private ConverterRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        registry = ConverterRegistry.load();
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        List<LocalDate> dates = new ArrayList<>();
+        Object[] mixed = new Object[ROWS];
+        Timestamp[] timestamps = new Timestamp[ROWS / 2];
+        for (int i = 0; i < ROWS; i++) {
+            LocalDate date = LocalDate.of(1900, 3, 1).plusDays(i * 37L);
+            dates.add(i % 10 == 9 ? null : date);
+            mixed[i] = i % 3 == 0 ? ZonedDateTime.of(date.atTime(i % 24, i % 60), ZoneId.of("Europe/Dublin")) : date.atTime(12, 30);
+            if (i < timestamps.length) {
+                timestamps[i] = Timestamp.valueOf(date.atTime(1, 2, 3, 456_000_000));
+            }
+        }
+
+        Path xlsx = folder.resolve("dates.xlsx");
+        try (XlsxDateWriter writer = new XlsxDateWriter(registry, 10); OutputStream out = Files.newOutputStream(xlsx)) {
+            writer.writeSheet("Dates",
+                    XlsxDateWriter.Column.of("Date", XlsxDateWriter.DATE_FORMAT, dates),
+                    XlsxDateWriter.Column.of("Time", XlsxDateWriter.DATE_TIME_FORMAT, mixed),
+                    XlsxDateWriter.Column.of(null, "yyyy-mm-dd hh:mm:ss.000", timestamps),
+                    XlsxDateWriter.Column.ofSerials("Serial", XlsxDateWriter.DATE_FORMAT, new double[]{1, Double.NaN, 61}));
+            Assertions.assertSame(writer.getStyle(XlsxDateWriter.DATE_FORMAT), writer.getStyle(XlsxDateWriter.DATE_FORMAT));
+            writer.write(out);
+        }
+
+        try (InputStream in = Files.newInputStream(xlsx); XSSFWorkbook workbook = new XSSFWorkbook(in)) {
+            Assertions.assertEquals(4, workbook.getNumCellStyles());
+            Sheet sheet = workbook.getSheet("Dates");
+            Assertions.assertEquals("Date", sheet.getRow(0).getCell(0).getStringCellValue());
+            Assertions.assertNull(sheet.getRow(0).getCell(2));
+            Assertions.assertEquals(ROWS, sheet.getLastRowNum());
+            List<LocalDate> read = SheetDateColumns.toList(sheet, 0, registry, LocalDate.class);
+            for (int i = 0; i < ROWS; i++) {
+                Row row = sheet.getRow(i + 1);
+                Assertions.assertEquals(dates.get(i), read.get(i + 1));
+                Assertions.assertEquals(registry.toDouble(mixed[i]), row.getCell(1).getNumericCellValue());
+                Cell timestamp = row.getCell(2);
+                if (i < timestamps.length) {
+                    Assertions.assertEquals(registry.toDouble(timestamps[i]), timestamp.getNumericCellValue());
+                } else {
+                    Assertions.assertNull(timestamp);
+                }
+            }
+            Assertions.assertEquals(61, sheet.getRow(3).getCell(3).getNumericCellValue());
+            Assertions.assertNull(sheet.getRow(2).getCell(3));
+            Assertions.assertSame(sheet.getRow(1).getCell(0).getCellStyle().getIndex(), sheet.getRow(1).getCell(3).getCellStyle().getIndex());
+        }
+    }
+
+    @Test
+    public void roundTripInAnotherZone() throws IOException {
+        registry.setZone(ZoneId.of("Europe/London"));
+        Date date = Date.from(Instant.parse("2019-09-01T10:00:00Z"));
+        Timestamp timestamp = new Timestamp(date.getTime());
+        double serial = 43709 + 11 / 24d;
+        Assertions.assertEquals(serial, registry.toDouble(date), 1e-9);
+        Assertions.assertEquals(date, registry.from(serial, Date.class));
+        Assertions.assertArrayEquals(new double[]{serial}, ExcelDateColumns.fromEpochMillis(new long[]{date.getTime()}, new double[1], false, registry.getZoneOffsets()), 1e-9);
+        Assertions.assertArrayEquals(new long[]{date.getTime()}, ExcelDateColumns.toEpochMillis(new double[]{serial}, new long[1], false, registry.getZoneOffsets()));
+
+        Path xlsx = folder.resolve("london.xlsx");
+        try (XlsxDateWriter writer = new XlsxDateWriter(registry); OutputStream out = Files.newOutputStream(xlsx)) {
+            writer.writeSheet("London", XlsxDateWriter.Column.of(null, XlsxDateWriter.DATE_TIME_FORMAT, new Object[]{date, timestamp}));
+            writer.write(out);
+        }
+
+        try (InputStream in = Files.newInputStream(xlsx); XSSFWorkbook workbook = new XSSFWorkbook(in)) {
+            Sheet sheet = workbook.getSheet("London");
+            Assertions.assertEquals(LocalDateTime.of(2019, 9, 1, 11, 0), sheet.getRow(0).getCell(0).getLocalDateTimeCellValue());
+            Assertions.assertEquals(List.of(date, date), SheetDateColumns.toList(sheet, 0, registry, Date.class));
+            Assertions.assertEquals(List.of(timestamp, timestamp), SheetDateColumns.toList(sheet, 0, registry, Timestamp.class));
+            Assertions.assertArrayEquals(new long[]{date.getTime(), date.getTime()}, SheetDateColumns.toEpochMillis(sheet, 0, registry.getZoneOffsets()));
+        }
+        List<Date> read = new ArrayList<>();
+        new XlsxDateReader(0, 0).read(xlsx, registry, Date.class, (row, column, value) -> read.add(value));
+        Assertions.assertEquals(List.of(date, date), read);
+        List<Long> epochMillis = new ArrayList<>();
+        new XlsxDateReader(0, 0).read(xlsx, registry.getZoneOffsets(), (row, column, epochMilli) -> epochMillis.add(epochMilli));
+        Assertions.assertEquals(List.of(date.getTime(), date.getTime()), epochMillis);
+    }
+
+    @Test
+    public void dateSystem1904() throws IOException {
+        registry.replaceAll(new ExcelDateConverters(registry, true));
+        Path xlsx = folder.resolve("1904.xlsx");
+        LocalDate date = LocalDate.of(2019, 9, 1);
+        try (XlsxDateWriter writer = new XlsxDateWriter(registry); OutputStream out = Files.newOutputStream(xlsx)) {
+            writer.writeSheet("1904", XlsxDateWriter.Column.of(null, XlsxDateWriter.DATE_FORMAT, new Object[]{date}));
+            writer.write(out);
+        }
+
+        try (InputStream in = Files.newInputStream(xlsx); XSSFWorkbook workbook = new XSSFWorkbook(in)) {
+            Assertions.assertTrue(workbook.isDate1904());
+            Sheet sheet = workbook.getSheet("1904");
+            Assertions.assertEquals(registry.toDouble(date), sheet.getRow(0).getCell(0).getNumericCellValue());
+            Assertions.assertEquals(date.atStartOfDay(), sheet.getRow(0).getCell(0).getLocalDateTimeCellValue());
+            Assertions.assertEquals(List.of(date), SheetDateColumns.toList(sheet, 0, registry, LocalDate.class));
+        }
+        List<LocalDate> read = new ArrayList<>();
+        new XlsxDateReader(0, 0).read(xlsx, registry, LocalDate.class, (row, column, value) -> read.add(value));
+        Assertions.assertEquals(List.of(date), read);
+
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook()) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new XlsxDateWriter(registry, workbook));
+            workbook.dispose();
+        }
+    }
+
+    @Test
+    public void beforeTheDateSystem() throws IOException {
+        Path xlsx = folder.resolve("early.xlsx");
+        try (XlsxDateWriter writer = new XlsxDateWriter(registry); OutputStream out = Files.newOutputStream(xlsx)) {
+            Object[] dates = {LocalDate.of(1899, 12, 31), LocalDate.of(1900, 1, 1), LocalDateTime.of(1800, 1, 1, 12, 0)};
+            Assertions.assertEquals(-1, writer.toSerials(dates)[0]);
+            writer.writeSheet("Early",
+                    XlsxDateWriter.Column.of(null, XlsxDateWriter.DATE_FORMAT, dates),
+                    XlsxDateWriter.Column.ofSerials(null, XlsxDateWriter.DATE_FORMAT, new double[]{-1, 1}));
+            writer.write(out);
+        }
+
+        try (InputStream in = Files.newInputStream(xlsx); XSSFWorkbook workbook = new XSSFWorkbook(in)) {
+            Sheet sheet = workbook.getSheet("Early");
+            Assertions.assertNull(sheet.getRow(0).getCell(0));
+            Assertions.assertEquals(1, sheet.getRow(1).getCell(0).getNumericCellValue());
+            Assertions.assertNull(sheet.getRow(2).getCell(0));
+            Assertions.assertNull(sheet.getRow(0).getCell(1));
+            Assertions.assertEquals(1, sheet.getRow(1).getCell(1).getNumericCellValue());
+        }
+    }
+
+    @Test
+    public void missingConverter() throws IOException {
+        try (XlsxDateWriter writer = new XlsxDateWriter(registry)) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> writer.toSerials(new Object[]{new Date(0), 1}));
+        }
+    }
+
+    @Test
+    public void serials() throws IOException {
+        try (XlsxDateWriter writer = new XlsxDateWriter(registry)) {
+            Object[] dates = {LocalDate.of(2019, 9, 1), null, LocalDateTime.of(2019, 9, 1, 6, 0), new Date(0)};
+            double[] serials = writer.toSerials(dates);
+            Assertions.assertEquals(43709, serials[0]);
+            Assertions.assertTrue(Double.isNaN(serials[1]));
+            Assertions.assertEquals(43709.25, serials[2]);
+            Assertions.assertEquals(registry.toDouble(dates[3]), serials[3]);
+        }
+    }
+}
@@ -18,120 +18,228 @@
 package com.beirtipol.dates.joda;
 
 import com.beirtipol.dates.Converter;
-import com.beirtipol.dates.Converters;
+import com.beirtipol.dates.ConverterRegistry;
+import com.beirtipol.dates.ThreeTenDates;
+import com.beirtipol.dates.XMLDates;
+import com.beirtipol.dates.ZoneOffsets;
 import org.joda.time.DateTimeZone;
-import org.joda.time.LocalTime;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.xml.datatype.DatatypeConstants;
 import javax.xml.datatype.XMLGregorianCalendar;
 import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
 import java.util.function.Function;
-
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Converters between {@link org.joda.time.DateTime} and the core types. A DateTime is treated just as a
+ * {@link ZonedDateTime} is: it keeps its instant, and its zone where the target has one, so it goes to a
+ * {@link ZonedDateTime}, {@link Calendar} or {@link XMLGregorianCalendar} in the same zone or offset, while the local
+ * types take the date and time as seen in its zone. As in the core converters, types without a timezone are read in the
+ * zone of the registry, which is UTC by default, and a DateTime made from them or from an instant is in that zone too.
+ * Zones are mapped with {@link JodaZones}.
+ * <p>
+ * Each conversion works from the instant in milliseconds, without going through another type.
+ *
+ * @author beirtipol@gmail.com
+ */
 @Component
 public class JodaDateTimeConverters {
 
+    private final ConverterRegistry registry;
+
+    /**
+     * Convert in UTC, for use without a {@link ConverterRegistry}
+     */
+    public JodaDateTimeConverters() {
+        this(null);
+    }
+
+    /**
+     * Convert in the zone given by {@link ConverterRegistry#getZoneOffsets()} at the time of each conversion
+     */
     @Autowired
-    private Converters converters;
+    public JodaDateTimeConverters(ConverterRegistry registry) {
+        this.registry = registry;
+    }
+
+    private ZoneOffsets zone() {
+        return registry == null ? ZoneOffsets.UTC : registry.getZoneOffsets();
+    }
 
     @Converter(from = org.joda.time.DateTime.class, to = LocalDate.class)
     public Function<org.joda.time.DateTime, LocalDate> jodaDateTimeToLocalDate() {
-        return from -> converters.from(jodaDateTimeToDateTime().apply(from), LocalDate.class);
+        return from -> LocalDate.ofEpochDay(Math.floorDiv(localEpochMilli(from), ThreeTenDates.MILLIS_PER_DAY));
     }
 
     @Converter(from = org.joda.time.DateTime.class, to = LocalDateTime.class)
     public Function<org.joda.time.DateTime, LocalDateTime> jodaDateTimeToDateTime() {
-        return from -> LocalDateTime.of(from.getYear(), from.getMonthOfYear(), from.getDayOfMonth(), from.getHourOfDay(), from.getMinuteOfHour(), from.getSecondOfMinute(), from.getMillisOfSecond() * 1000000);
+        return from -> ThreeTenDates.toLocalDateTime(localEpochMilli(from));
     }
 
     @Converter(from = org.joda.time.DateTime.class, to = ZonedDateTime.class)
     public Function<org.joda.time.DateTime, ZonedDateTime> jodaDateTimeToZonedDateTime() {
-        return from -> converters.from(jodaDateTimeToDateTime().apply(from), ZonedDateTime.class);
+        return from -> ZonedDateTime.ofInstant(Instant.ofEpochMilli(from.getMillis()), JodaZones.toZoneId(from.getZone()));
     }
 
     @Converter(from = org.joda.time.DateTime.class, to = Date.class)
     public Function<org.joda.time.DateTime, Date> jodaDateTimeToUtilDate() {
-        return from -> converters.from(jodaDateTimeToDateTime().apply(from), Date.class);
+        return from -> new Date(from.getMillis());
     }
 
     @Converter(from = org.joda.time.DateTime.class, to = java.sql.Date.class)
     public Function<org.joda.time.DateTime, java.sql.Date> jodaDateTimeToSQLDate() {
-        return from -> converters.from(jodaDateTimeToDateTime().apply(from), java.sql.Date.class);
+        return from -> new java.sql.Date(from.getMillis());
     }
 
     @Converter(from = org.joda.time.DateTime.class, to = XMLGregorianCalendar.class)
     public Function<org.joda.time.DateTime, XMLGregorianCalendar> jodaDateTimeToXMLDate() {
-        return from -> converters.from(jodaDateTimeToDateTime().apply(from), XMLGregorianCalendar.class);
+        return from -> XMLDates.ofEpochMilli(from.getMillis(), from.getZone().getOffset(from.getMillis()));
     }
 
     @Converter(from = org.joda.time.DateTime.class, to = Timestamp.class)
     public Function<org.joda.time.DateTime, Timestamp> jodaDateTimeToSQLTimestamp() {
-        return from -> converters.from(jodaDateTimeToDateTime().apply(from), Timestamp.class);
+        return from -> new Timestamp(from.getMillis());
     }
 
     @Converter(from = org.joda.time.DateTime.class, to = Calendar.class)
     public Function<org.joda.time.DateTime, Calendar> jodaDateTimeToCalendar() {
-        return from -> converters.from(jodaDateTimeToDateTime().apply(from), Calendar.class);
+        return from -> {
+            Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone(JodaZones.toZoneId(from.getZone())));
+            calendar.setTimeInMillis(from.getMillis());
+            return calendar;
+        };
     }
 
     @Converter(from = Calendar.class, to = org.joda.time.DateTime.class)
-    public Function<Calendar, org.joda.time.DateTime> calendartoJodaDateTime() {
-        return from -> zonedDateTimeToJodaDateTime().apply(converters.from(from, ZonedDateTime.class));
+    public Function<Calendar, org.joda.time.DateTime> calendarToJodaDateTime() {
+        return from -> new org.joda.time.DateTime(from.getTimeInMillis(), DateTimeZone.forTimeZone(from.getTimeZone()));
     }
 
+    /**
+     * A calendar without a timezone is read in the default timezone, as by {@link XMLDates#toEpochMilli}, so the
+     * DateTime is in the default timezone too
+     */
     @Converter(from = XMLGregorianCalendar.class, to = org.joda.time.DateTime.class)
-    public Function<XMLGregorianCalendar, org.joda.time.DateTime> xmlDatetoJodaDateTime() {
-        return from -> zonedDateTimeToJodaDateTime().apply(converters.from(from, ZonedDateTime.class));
+    public Function<XMLGregorianCalendar, org.joda.time.DateTime> xmlDateToJodaDateTime() {
+        return from -> {
+            int timezone = from.getTimezone();
+            DateTimeZone zone = timezone == DatatypeConstants.FIELD_UNDEFINED ? DateTimeZone.forTimeZone(TimeZone.getDefault()) : DateTimeZone.forOffsetMillis(timezone * 60_000);
+            return new org.joda.time.DateTime(XMLDates.toEpochMilli(from), zone);
+        };
     }
 
     @Converter(from = LocalDate.class, to = org.joda.time.DateTime.class)
-    public Function<LocalDate, org.joda.time.DateTime> localDateTimetoJodaDateTime() {
-        return from -> zonedDateTimeToJodaDateTime().apply(converters.from(from, ZonedDateTime.class));
+    public Function<LocalDate, org.joda.time.DateTime> localDateToJodaDateTime() {
+        return from -> {
+            ZoneOffsets zone = zone();
+            return of(zone.startOfDay(from.toEpochDay()), zone);
+        };
     }
 
     @Converter(from = ZonedDateTime.class, to = org.joda.time.DateTime.class)
     public Function<ZonedDateTime, org.joda.time.DateTime> zonedDateTimeToJodaDateTime() {
-        return from -> new org.joda.time.DateTime(from.getYear(), from.getMonthValue(), from.getDayOfMonth(), from.getHour(), from.getMinute(), from.getSecond(), from.getNano() / 1000000, DateTimeZone.forID(from.getZone().toString()));
+        return from -> new org.joda.time.DateTime(ThreeTenDates.toEpochMilli(from), JodaZones.toDateTimeZone(from.getZone()));
     }
 
     @Converter(from = LocalDateTime.class, to = org.joda.time.DateTime.class)
     public Function<LocalDateTime, org.joda.time.DateTime> localDateTimeToJodaDateTime() {
-        return from -> zonedDateTimeToJodaDateTime().apply(converters.from(from, ZonedDateTime.class));
+        return from -> {
+            ZoneOffsets zone = zone();
+            return of(zone.toEpochMilli(from), zone);
+        };
     }
 
     @Converter(from = Date.class, to = org.joda.time.DateTime.class)
-    public Function<Date, org.joda.time.DateTime> utilDatetoJodaDateTime() {
-        return from -> zonedDateTimeToJodaDateTime().apply(converters.from(from, ZonedDateTime.class));
+    public Function<Date, org.joda.time.DateTime> utilDateToJodaDateTime() {
+        return from -> of(from.getTime(), zone());
     }
 
     @Converter(from = java.sql.Date.class, to = org.joda.time.DateTime.class)
-    public Function<java.sql.Date, org.joda.time.DateTime> sqlDatetoJodaDateTime() {
-        return from -> zonedDateTimeToJodaDateTime().apply(converters.from(from, ZonedDateTime.class));
+    public Function<java.sql.Date, org.joda.time.DateTime> sqlDateToJodaDateTime() {
+        return from -> of(from.getTime(), zone());
     }
 
     @Converter(from = Timestamp.class, to = org.joda.time.DateTime.class)
-    public Function<Timestamp, org.joda.time.DateTime> sqlTimestamptoJodaDateTime() {
-        return from -> zonedDateTimeToJodaDateTime().apply(converters.from(from, ZonedDateTime.class));
+    public Function<Timestamp, org.joda.time.DateTime> sqlTimestampToJodaDateTime() {
+        return from -> of(from.getTime(), zone());
     }
 
     @Converter(from = org.joda.time.DateTime.class, to = org.joda.time.DateTime.class)
-    public Function<org.joda.time.DateTime, org.joda.time.DateTime> jodaDateTimetoJodaDateTime() {
+    public Function<org.joda.time.DateTime, org.joda.time.DateTime> jodaDateTimeToJodaDateTime() {
         return from -> from;
     }
 
     @Converter(from = org.joda.time.LocalDate.class, to = org.joda.time.DateTime.class)
-    public Function<org.joda.time.LocalDate, org.joda.time.DateTime> jodaLocalDatetoJodaDateTime() {
-        return from -> from.toLocalDateTime(LocalTime.MIDNIGHT).toDateTime().withZoneRetainFields(DateTimeZone.UTC);
+    public Function<org.joda.time.LocalDate, org.joda.time.DateTime> jodaLocalDateToJodaDateTime() {
+        return from -> {
+            ZoneOffsets zone = zone();
+            return of(zone.startOfDay(ThreeTenDates.toEpochDay(from.getYear(), from.getMonthOfYear(), from.getDayOfMonth())), zone);
+        };
     }
 
     @Converter(from = org.joda.time.LocalDateTime.class, to = org.joda.time.DateTime.class)
-    public Function<org.joda.time.LocalDateTime, org.joda.time.DateTime> jodaLocalDateTimetoJodaDateTime() {
-        return from -> from.toDateTime().withZoneRetainFields(DateTimeZone.UTC);
+    public Function<org.joda.time.LocalDateTime, org.joda.time.DateTime> jodaLocalDateTimeToJodaDateTime() {
+        return from -> {
+            ZoneOffsets zone = zone();
+            long epochDay = ThreeTenDates.toEpochDay(from.getYear(), from.getMonthOfYear(), from.getDayOfMonth());
+            return of(zone.toEpochMilli(epochDay * ThreeTenDates.MILLIS_PER_DAY + from.getMillisOfDay()), zone);
+        };
+    }
+
+    /**
+     * As with {@link #jodaDateTimeToUtilDate()}, this is the instant, whatever the zone
+     */
+    @Converter(from = org.joda.time.DateTime.class, to = long.class)
+    public ToLongFunction<org.joda.time.DateTime> jodaDateTimeToEpochMilli() {
+        return org.joda.time.DateTime::getMillis;
+    }
+
+    /**
+     * As with {@link #jodaDateTimeToLocalDate()}, this is the date as seen in the DateTime's zone
+     */
+    @Converter(from = org.joda.time.DateTime.class, to = int.class)
+    public ToIntFunction<org.joda.time.DateTime> jodaDateTimeToEpochDay() {
+        return from -> (int) Math.floorDiv(localEpochMilli(from), ThreeTenDates.MILLIS_PER_DAY);
+    }
+
+    @Converter(from = long.class, to = org.joda.time.DateTime.class)
+    public LongFunction<org.joda.time.DateTime> epochMilliToJodaDateTime() {
+        return from -> of(from, zone());
     }
 
+    @Converter(from = int.class, to = org.joda.time.DateTime.class)
+    public IntFunction<org.joda.time.DateTime> epochDayToJodaDateTime() {
+        return from -> {
+            ZoneOffsets zone = zone();
+            return of(zone.startOfDay(from), zone);
+        };
+    }
+
+    /**
+     * @return the instant 'epochMilli' in 'zone'
+     */
+    private static org.joda.time.DateTime of(long epochMilli, ZoneOffsets zone) {
+        return new org.joda.time.DateTime(epochMilli, JodaZones.toDateTimeZone(zone.getZone()));
+    }
+
+    /**
+     * @return the date and time as seen in the zone of 'from', as milliseconds since 1970-01-01T00:00:00 in UTC
+     */
+    private static long localEpochMilli(org.joda.time.DateTime from) {
+        long epochMilli = from.getMillis();
+        return epochMilli + from.getZone().getOffset(epochMilli);
+    }
 }
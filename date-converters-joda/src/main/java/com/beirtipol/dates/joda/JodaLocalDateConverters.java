@@ -18,7 +18,12 @@
 package com.beirtipol.dates.joda;
 
 import com.beirtipol.dates.Converter;
-import com.beirtipol.dates.Converters;
+import com.beirtipol.dates.ConverterRegistry;
+import com.beirtipol.dates.ThreeTenDates;
+import com.beirtipol.dates.UtilDates;
+import com.beirtipol.dates.XMLDates;
+import com.beirtipol.dates.ZoneOffsets;
+import org.joda.time.DateTimeZone;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -30,12 +35,44 @@ import java.time.ZonedDateTime;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.function.Function;
-
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Converters between {@link org.joda.time.LocalDate} and the core types. As with {@link LocalDate}, a Joda LocalDate
+ * is the start of its day in the zone of the registry, which is UTC by default, the date of an instant is the date seen
+ * in that zone and the date of a {@link ZonedDateTime} is the date as seen in its own zone. Each conversion works from
+ * the epoch day or the fields, without going through another type.
+ *
+ * @author beirtipol@gmail.com
+ */
 @Component
 public class JodaLocalDateConverters {
 
+    private final ConverterRegistry registry;
+
+    /**
+     * Convert in UTC, for use without a {@link ConverterRegistry}
+     */
+    public JodaLocalDateConverters() {
+        this.registry = null;
+    }
+
+    /**
+     * Convert in the zone given by {@link ConverterRegistry#getZoneOffsets()} at the time of each conversion, and let
+     * conversions between a Joda LocalDate and the types it has no converter for go through {@link LocalDate}
+     */
     @Autowired
-    private Converters converters;
+    public JodaLocalDateConverters(ConverterRegistry registry) {
+        this.registry = registry;
+        registry.registerHub(org.joda.time.LocalDate.class, LocalDate.class);
+    }
+
+    private ZoneOffsets zone() {
+        return registry == null ? ZoneOffsets.UTC : registry.getZoneOffsets();
+    }
 
     @Converter(from = org.joda.time.LocalDate.class, to = LocalDate.class)
     public Function<org.joda.time.LocalDate, LocalDate> jodaLocalDateToLocalDate() {
@@ -44,47 +81,57 @@ public class JodaLocalDateConverters {
 
     @Converter(from = org.joda.time.LocalDate.class, to = LocalDateTime.class)
     public Function<org.joda.time.LocalDate, LocalDateTime> jodaLocalDateToLocalDateTime() {
-        return from -> converters.from(jodaLocalDateToLocalDate().apply(from), LocalDateTime.class);
+        return from -> LocalDateTime.of(from.getYear(), from.getMonthOfYear(), from.getDayOfMonth(), 0, 0);
     }
 
     @Converter(from = org.joda.time.LocalDate.class, to = ZonedDateTime.class)
     public Function<org.joda.time.LocalDate, ZonedDateTime> jodaLocalDateToZonedDateTime() {
-        return from -> converters.from(jodaLocalDateToLocalDateTime().apply(from), ZonedDateTime.class);
+        return from -> {
+            ZoneOffsets zone = zone();
+            return zone.toZonedDateTime(zone.startOfDay(epochDay(from)));
+        };
     }
 
     @Converter(from = org.joda.time.LocalDate.class, to = java.util.Date.class)
     public Function<org.joda.time.LocalDate, java.util.Date> jodaLocalDateToUtilDate() {
-        return from -> converters.from(jodaLocalDateToLocalDateTime().apply(from), java.util.Date.class);
+        return from -> new Date(startOfDay(from));
     }
 
     @Converter(from = org.joda.time.LocalDate.class, to = java.sql.Date.class)
     public Function<org.joda.time.LocalDate, java.sql.Date> jodaLocalDateToSQLDate() {
-        return from -> converters.from(jodaLocalDateToLocalDateTime().apply(from), java.sql.Date.class);
+        return from -> new java.sql.Date(startOfDay(from));
     }
 
     @Converter(from = org.joda.time.LocalDate.class, to = XMLGregorianCalendar.class)
     public Function<org.joda.time.LocalDate, XMLGregorianCalendar> jodaLocalDateToXMLDate() {
-        return from -> converters.from(jodaLocalDateToLocalDateTime().apply(from), XMLGregorianCalendar.class);
+        return from -> {
+            ZoneOffsets zone = zone();
+            long epochMilli = zone.startOfDay(epochDay(from));
+            return XMLDates.ofEpochMilli(epochMilli, zone.getOffsetMillis(epochMilli));
+        };
     }
 
     @Converter(from = org.joda.time.LocalDate.class, to = Timestamp.class)
     public Function<org.joda.time.LocalDate, Timestamp> jodaLocalDateToSQLTimestamp() {
-        return from -> converters.from(jodaLocalDateToLocalDateTime().apply(from), Timestamp.class);
+        return from -> new Timestamp(startOfDay(from));
     }
 
     @Converter(from = org.joda.time.LocalDate.class, to = Calendar.class)
     public Function<org.joda.time.LocalDate, Calendar> jodaLocalDateToCalendar() {
-        return from -> converters.from(jodaLocalDateToLocalDateTime().apply(from), Calendar.class);
+        return from -> {
+            ZoneOffsets zone = zone();
+            return UtilDates.newCalendar(zone.startOfDay(epochDay(from)), zone.getTimeZone());
+        };
     }
 
     @Converter(from = Calendar.class, to = org.joda.time.LocalDate.class)
     public Function<Calendar, org.joda.time.LocalDate> calendarToJodaLocalDate() {
-        return from -> localDateToJodaLocalDate().apply(converters.from(from, LocalDate.class));
+        return from -> ofEpochDay(zone().toEpochDay(from.getTimeInMillis()));
     }
 
     @Converter(from = XMLGregorianCalendar.class, to = org.joda.time.LocalDate.class)
     public Function<XMLGregorianCalendar, org.joda.time.LocalDate> xmlDateToJodaLocalDate() {
-        return from -> localDateToJodaLocalDate().apply(converters.from(from, LocalDate.class));
+        return from -> ofEpochDay(XMLDates.toEpochDay(from));
     }
 
     @Converter(from = LocalDate.class, to = org.joda.time.LocalDate.class)
@@ -94,27 +141,27 @@ public class JodaLocalDateConverters {
 
     @Converter(from = ZonedDateTime.class, to = org.joda.time.LocalDate.class)
     public Function<ZonedDateTime, org.joda.time.LocalDate> zonedDateTimeToJodaLocalDate() {
-        return from -> localDateToJodaLocalDate().apply(converters.from(from, LocalDate.class));
+        return from -> new org.joda.time.LocalDate(from.getYear(), from.getMonthValue(), from.getDayOfMonth());
     }
 
     @Converter(from = LocalDateTime.class, to = org.joda.time.LocalDate.class)
     public Function<LocalDateTime, org.joda.time.LocalDate> localDateTimeToJodaLocalDate() {
-        return from -> localDateToJodaLocalDate().apply(converters.from(from, LocalDate.class));
+        return from -> new org.joda.time.LocalDate(from.getYear(), from.getMonthValue(), from.getDayOfMonth());
     }
 
     @Converter(from = java.util.Date.class, to = org.joda.time.LocalDate.class)
     public Function<Date, org.joda.time.LocalDate> utilDateToJodaLocalDate() {
-        return from -> localDateToJodaLocalDate().apply(converters.from(from, LocalDate.class));
+        return from -> ofEpochDay(zone().toEpochDay(from.getTime()));
     }
 
     @Converter(from = java.sql.Date.class, to = org.joda.time.LocalDate.class)
     public Function<java.sql.Date, org.joda.time.LocalDate> sqlDateToJodaLocalDate() {
-        return from -> localDateToJodaLocalDate().apply(converters.from(from, LocalDate.class));
+        return from -> ofEpochDay(zone().toEpochDay(from.getTime()));
     }
 
     @Converter(from = Timestamp.class, to = org.joda.time.LocalDate.class)
     public Function<Timestamp, org.joda.time.LocalDate> sqlTimestampToJodaLocalDate() {
-        return from -> localDateToJodaLocalDate().apply(converters.from(from, LocalDate.class));
+        return from -> ofEpochDay(zone().toEpochDay(from.getTime()));
     }
 
     @Converter(from = org.joda.time.LocalDate.class, to = org.joda.time.LocalDate.class)
@@ -123,13 +170,47 @@ public class JodaLocalDateConverters {
     }
 
     @Converter(from = org.joda.time.LocalDateTime.class, to = org.joda.time.LocalDate.class)
-    public Function<org.joda.time.LocalDateTime, org.joda.time.LocalDate> jodaLocalDateTimetoJodaLocalDate() {
+    public Function<org.joda.time.LocalDateTime, org.joda.time.LocalDate> jodaLocalDateTimeToJodaLocalDate() {
         return from -> from.toLocalDate();
     }
 
     @Converter(from = org.joda.time.DateTime.class, to = org.joda.time.LocalDate.class)
-    public Function<org.joda.time.DateTime, org.joda.time.LocalDate> jodaDateTimetoJodaLocalDate() {
-        return from -> from.toLocalDateTime().toLocalDate();
+    public Function<org.joda.time.DateTime, org.joda.time.LocalDate> jodaDateTimeToJodaLocalDate() {
+        return from -> from.toLocalDate();
     }
 
+    @Converter(from = org.joda.time.LocalDate.class, to = long.class)
+    public ToLongFunction<org.joda.time.LocalDate> jodaLocalDateToEpochMilli() {
+        return this::startOfDay;
+    }
+
+    @Converter(from = org.joda.time.LocalDate.class, to = int.class)
+    public ToIntFunction<org.joda.time.LocalDate> jodaLocalDateToEpochDay() {
+        return from -> (int) epochDay(from);
+    }
+
+    @Converter(from = long.class, to = org.joda.time.LocalDate.class)
+    public LongFunction<org.joda.time.LocalDate> epochMilliToJodaLocalDate() {
+        return from -> ofEpochDay(zone().toEpochDay(from));
+    }
+
+    @Converter(from = int.class, to = org.joda.time.LocalDate.class)
+    public IntFunction<org.joda.time.LocalDate> epochDayToJodaLocalDate() {
+        return JodaLocalDateConverters::ofEpochDay;
+    }
+
+    private static long epochDay(org.joda.time.LocalDate from) {
+        return ThreeTenDates.toEpochDay(from.getYear(), from.getMonthOfYear(), from.getDayOfMonth());
+    }
+
+    /**
+     * @return the start of the day 'from' in the zone of the registry, in milliseconds since 1970-01-01T00:00:00Z
+     */
+    private long startOfDay(org.joda.time.LocalDate from) {
+        return zone().startOfDay(epochDay(from));
+    }
+
+    private static org.joda.time.LocalDate ofEpochDay(long epochDay) {
+        return new org.joda.time.LocalDate(epochDay * ThreeTenDates.MILLIS_PER_DAY, DateTimeZone.UTC);
+    }
 }
@@ -18,7 +18,12 @@
 package com.beirtipol.dates.joda;
 
 import com.beirtipol.dates.Converter;
-import com.beirtipol.dates.Converters;
+import com.beirtipol.dates.ConverterRegistry;
+import com.beirtipol.dates.ThreeTenDates;
+import com.beirtipol.dates.UtilDates;
+import com.beirtipol.dates.XMLDates;
+import com.beirtipol.dates.ZoneOffsets;
+import org.joda.time.DateTimeZone;
 import org.joda.time.LocalTime;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -31,16 +36,49 @@ import java.time.ZonedDateTime;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.function.Function;
-
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Converters between {@link org.joda.time.LocalDateTime} and the core types. As with {@link LocalDateTime}, a Joda
+ * LocalDateTime is read in the zone of the registry, which is UTC by default, the date and time of an instant are those
+ * seen in that zone and those of a {@link ZonedDateTime} are as seen in its own zone. Each conversion works from the
+ * instant or the fields, without going through another type.
+ *
+ * @author beirtipol@gmail.com
+ */
 @Component
 public class JodaLocalDateTimeConverters {
 
+    private final ConverterRegistry registry;
+
+    /**
+     * Convert in UTC, for use without a {@link ConverterRegistry}
+     */
+    public JodaLocalDateTimeConverters() {
+        this.registry = null;
+    }
+
+    /**
+     * Convert in the zone given by {@link ConverterRegistry#getZoneOffsets()} at the time of each conversion, and let
+     * conversions between a Joda LocalDateTime and the types it has no converter for go through {@link LocalDateTime},
+     * so they neither gain nor lose a zone on the way
+     */
     @Autowired
-    private Converters converters;
+    public JodaLocalDateTimeConverters(ConverterRegistry registry) {
+        this.registry = registry;
+        registry.registerHub(org.joda.time.LocalDateTime.class, LocalDateTime.class);
+    }
+
+    private ZoneOffsets zone() {
+        return registry == null ? ZoneOffsets.UTC : registry.getZoneOffsets();
+    }
 
     @Converter(from = org.joda.time.LocalDateTime.class, to = LocalDate.class)
     public Function<org.joda.time.LocalDateTime, LocalDate> jodaLocalDateTimeToLocalDate() {
-        return from -> converters.from(jodaLocalDateTimeToLocalDateTime().apply(from), LocalDate.class);
+        return from -> LocalDate.of(from.getYear(), from.getMonthOfYear(), from.getDayOfMonth());
     }
 
     @Converter(from = org.joda.time.LocalDateTime.class, to = LocalDateTime.class)
@@ -50,52 +88,62 @@ public class JodaLocalDateTimeConverters {
 
     @Converter(from = org.joda.time.LocalDateTime.class, to = ZonedDateTime.class)
     public Function<org.joda.time.LocalDateTime, ZonedDateTime> jodaLocalDateTimeToZonedDateTime() {
-        return from -> converters.from(jodaLocalDateTimeToLocalDateTime().apply(from), ZonedDateTime.class);
+        return from -> {
+            ZoneOffsets zone = zone();
+            return zone.toZonedDateTime(zone.toEpochMilli(localEpochMilli(from)));
+        };
     }
 
     @Converter(from = org.joda.time.LocalDateTime.class, to = Date.class)
     public Function<org.joda.time.LocalDateTime, Date> jodaLocalDateTimeToUtilDate() {
-        return from -> converters.from(jodaLocalDateTimeToLocalDateTime().apply(from), Date.class);
+        return from -> new Date(epochMilli(from));
     }
 
     @Converter(from = org.joda.time.LocalDateTime.class, to = java.sql.Date.class)
     public Function<org.joda.time.LocalDateTime, java.sql.Date> jodaLocalDateTimeToSQLDate() {
-        return from -> converters.from(jodaLocalDateTimeToLocalDateTime().apply(from), java.sql.Date.class);
+        return from -> new java.sql.Date(epochMilli(from));
     }
 
     @Converter(from = org.joda.time.LocalDateTime.class, to = XMLGregorianCalendar.class)
     public Function<org.joda.time.LocalDateTime, XMLGregorianCalendar> jodaLocalDateTimeToXMLDate() {
-        return from -> converters.from(jodaLocalDateTimeToLocalDateTime().apply(from), XMLGregorianCalendar.class);
+        return from -> {
+            ZoneOffsets zone = zone();
+            long epochMilli = zone.toEpochMilli(localEpochMilli(from));
+            return XMLDates.ofEpochMilli(epochMilli, zone.getOffsetMillis(epochMilli));
+        };
     }
 
     @Converter(from = org.joda.time.LocalDateTime.class, to = Timestamp.class)
     public Function<org.joda.time.LocalDateTime, Timestamp> jodaLocalDateTimeToSQLTimestamp() {
-        return from -> converters.from(jodaLocalDateTimeToLocalDateTime().apply(from), Timestamp.class);
+        return from -> new Timestamp(epochMilli(from));
     }
 
     @Converter(from = org.joda.time.LocalDateTime.class, to = Calendar.class)
     public Function<org.joda.time.LocalDateTime, Calendar> jodaLocalDateTimeToCalendar() {
-        return from -> converters.from(jodaLocalDateTimeToLocalDateTime().apply(from), Calendar.class);
+        return from -> {
+            ZoneOffsets zone = zone();
+            return UtilDates.newCalendar(zone.toEpochMilli(localEpochMilli(from)), zone.getTimeZone());
+        };
     }
 
     @Converter(from = Calendar.class, to = org.joda.time.LocalDateTime.class)
-    public Function<Calendar, org.joda.time.LocalDateTime> calendartoJodaLocalDateTime() {
-        return from -> localDateTimeToJodaLocalDateTime().apply(converters.from(from, LocalDateTime.class));
+    public Function<Calendar, org.joda.time.LocalDateTime> calendarToJodaLocalDateTime() {
+        return from -> ofLocalEpochMilli(zone().toLocalEpochMilli(from.getTimeInMillis()));
     }
 
     @Converter(from = XMLGregorianCalendar.class, to = org.joda.time.LocalDateTime.class)
-    public Function<XMLGregorianCalendar, org.joda.time.LocalDateTime> xmlDatetoJodaLocalDateTime() {
-        return from -> localDateTimeToJodaLocalDateTime().apply(converters.from(from, LocalDateTime.class));
+    public Function<XMLGregorianCalendar, org.joda.time.LocalDateTime> xmlDateToJodaLocalDateTime() {
+        return from -> localDateTimeToJodaLocalDateTime().apply(XMLDates.toLocalDateTime(from));
     }
 
     @Converter(from = LocalDate.class, to = org.joda.time.LocalDateTime.class)
-    public Function<LocalDate, org.joda.time.LocalDateTime> localDateTimetoJodaLocalDateTime() {
-        return from -> localDateTimeToJodaLocalDateTime().apply(converters.from(from, LocalDateTime.class));
+    public Function<LocalDate, org.joda.time.LocalDateTime> localDateToJodaLocalDateTime() {
+        return from -> new org.joda.time.LocalDateTime(from.getYear(), from.getMonthValue(), from.getDayOfMonth(), 0, 0);
     }
 
     @Converter(from = ZonedDateTime.class, to = org.joda.time.LocalDateTime.class)
-    public Function<ZonedDateTime, org.joda.time.LocalDateTime> zonedDateTimetoJodaLocalDateTime() {
-        return from -> localDateTimeToJodaLocalDateTime().apply(converters.from(from, LocalDateTime.class));
+    public Function<ZonedDateTime, org.joda.time.LocalDateTime> zonedDateTimeToJodaLocalDateTime() {
+        return from -> new org.joda.time.LocalDateTime(from.getYear(), from.getMonthValue(), from.getDayOfMonth(), from.getHour(), from.getMinute(), from.getSecond(), from.getNano() / 1000000);
     }
 
     @Converter(from = LocalDateTime.class, to = org.joda.time.LocalDateTime.class)
@@ -104,33 +152,70 @@ public class JodaLocalDateTimeConverters {
     }
 
     @Converter(from = Date.class, to = org.joda.time.LocalDateTime.class)
-    public Function<Date, org.joda.time.LocalDateTime> utilDatetoJodaLocalDateTime() {
-        return from -> localDateTimeToJodaLocalDateTime().apply(converters.from(from, LocalDateTime.class));
+    public Function<Date, org.joda.time.LocalDateTime> utilDateToJodaLocalDateTime() {
+        return from -> ofLocalEpochMilli(zone().toLocalEpochMilli(from.getTime()));
     }
 
     @Converter(from = java.sql.Date.class, to = org.joda.time.LocalDateTime.class)
-    public Function<java.sql.Date, org.joda.time.LocalDateTime> sqlDatetoJodaLocalDateTime() {
-        return from -> localDateTimeToJodaLocalDateTime().apply(converters.from(from, LocalDateTime.class));
+    public Function<java.sql.Date, org.joda.time.LocalDateTime> sqlDateToJodaLocalDateTime() {
+        return from -> ofLocalEpochMilli(zone().toLocalEpochMilli(from.getTime()));
     }
 
     @Converter(from = Timestamp.class, to = org.joda.time.LocalDateTime.class)
-    public Function<Timestamp, org.joda.time.LocalDateTime> sqlTimestamptoJodaLocalDateTime() {
-        return from -> localDateTimeToJodaLocalDateTime().apply(converters.from(from, LocalDateTime.class));
+    public Function<Timestamp, org.joda.time.LocalDateTime> sqlTimestampToJodaLocalDateTime() {
+        return from -> ofLocalEpochMilli(zone().toLocalEpochMilli(from.getTime()));
     }
 
     @Converter(from = org.joda.time.LocalDateTime.class, to = org.joda.time.LocalDateTime.class)
-    public Function<org.joda.time.LocalDateTime, org.joda.time.LocalDateTime> jodaLocalDateTimetoJodaLocalDateTime() {
+    public Function<org.joda.time.LocalDateTime, org.joda.time.LocalDateTime> jodaLocalDateTimeToJodaLocalDateTime() {
         return from -> from;
     }
 
     @Converter(from = org.joda.time.LocalDate.class, to = org.joda.time.LocalDateTime.class)
-    public Function<org.joda.time.LocalDate, org.joda.time.LocalDateTime> jodaLocalDatetoJodaLocalDateTime() {
+    public Function<org.joda.time.LocalDate, org.joda.time.LocalDateTime> jodaLocalDateToJodaLocalDateTime() {
         return from -> from.toLocalDateTime(LocalTime.MIDNIGHT);
     }
 
     @Converter(from = org.joda.time.DateTime.class, to = org.joda.time.LocalDateTime.class)
-    public Function<org.joda.time.DateTime, org.joda.time.LocalDateTime> jodaDateTimetoJodaLocalDateTime() {
+    public Function<org.joda.time.DateTime, org.joda.time.LocalDateTime> jodaDateTimeToJodaLocalDateTime() {
         return from -> from.toLocalDateTime();
     }
 
+    @Converter(from = org.joda.time.LocalDateTime.class, to = long.class)
+    public ToLongFunction<org.joda.time.LocalDateTime> jodaLocalDateTimeToEpochMilli() {
+        return this::epochMilli;
+    }
+
+    @Converter(from = org.joda.time.LocalDateTime.class, to = int.class)
+    public ToIntFunction<org.joda.time.LocalDateTime> jodaLocalDateTimeToEpochDay() {
+        return from -> (int) ThreeTenDates.toEpochDay(from.getYear(), from.getMonthOfYear(), from.getDayOfMonth());
+    }
+
+    @Converter(from = long.class, to = org.joda.time.LocalDateTime.class)
+    public LongFunction<org.joda.time.LocalDateTime> epochMilliToJodaLocalDateTime() {
+        return from -> ofLocalEpochMilli(zone().toLocalEpochMilli(from));
+    }
+
+    @Converter(from = int.class, to = org.joda.time.LocalDateTime.class)
+    public IntFunction<org.joda.time.LocalDateTime> epochDayToJodaLocalDateTime() {
+        return from -> ofLocalEpochMilli(from * ThreeTenDates.MILLIS_PER_DAY);
+    }
+
+    /**
+     * @return the date and time read in the zone of the registry, in milliseconds since 1970-01-01T00:00:00Z
+     */
+    private long epochMilli(org.joda.time.LocalDateTime from) {
+        return zone().toEpochMilli(localEpochMilli(from));
+    }
+
+    /**
+     * @return the date and time in milliseconds since 1970-01-01T00:00:00, without a zone
+     */
+    private static long localEpochMilli(org.joda.time.LocalDateTime from) {
+        return ThreeTenDates.toEpochDay(from.getYear(), from.getMonthOfYear(), from.getDayOfMonth()) * ThreeTenDates.MILLIS_PER_DAY + from.getMillisOfDay();
+    }
+
+    private static org.joda.time.LocalDateTime ofLocalEpochMilli(long localEpochMilli) {
+        return new org.joda.time.LocalDateTime(localEpochMilli, DateTimeZone.UTC);
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.joda;
+
+import org.joda.time.DateTimeZone;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maps between Joda {@link DateTimeZone}s and {@link ZoneId}s. Regions map by ID and fixed offsets to fixed offsets,
+ * so 'UTC' stays 'UTC' and '+01:00' stays '+01:00'. Each mapping is remembered, as there are only so many zones, so
+ * converting many dates in the same zone parses its ID once.
+ *
+ * @author beirtipol@gmail.com
+ */
+public class JodaZones {
+    private static final ConcurrentMap<DateTimeZone, ZoneId> ZONE_IDS        = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<ZoneId, DateTimeZone> DATE_TIME_ZONES = new ConcurrentHashMap<>();
+
+    /**
+     * @throws java.time.DateTimeException if there is no {@link ZoneId} with the same ID
+     */
+    public static ZoneId toZoneId(DateTimeZone zone) {
+        ZoneId result = ZONE_IDS.get(zone);
+        return result != null ? result : ZONE_IDS.computeIfAbsent(zone, key -> ZoneId.of(key.getID()));
+    }
+
+    /**
+     * @throws IllegalArgumentException if Joda does not know the region
+     */
+    public static DateTimeZone toDateTimeZone(ZoneId zone) {
+        DateTimeZone result = DATE_TIME_ZONES.get(zone);
+        return result != null ? result : DATE_TIME_ZONES.computeIfAbsent(zone, JodaZones::newDateTimeZone);
+    }
+
+    private static DateTimeZone newDateTimeZone(ZoneId zone) {
+        if (zone instanceof ZoneOffset) {
+            return DateTimeZone.forOffsetMillis(((ZoneOffset) zone).getTotalSeconds() * 1000);
+        }
+        try {
+            return DateTimeZone.forID(zone.getId());
+        } catch (IllegalArgumentException e) {
+            // Such as 'UTC+01:00', which is a fixed offset under a name Joda doesn't use
+            ZoneId normalized = zone.normalized();
+            if (normalized instanceof ZoneOffset) {
+                return newDateTimeZone(normalized);
+            }
+            throw e;
+        }
+    }
+}
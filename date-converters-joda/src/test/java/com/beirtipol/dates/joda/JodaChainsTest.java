@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.joda;
+
+import com.beirtipol.dates.ConverterRegistry;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the chains planned from and to Joda types, which have no direct converter to or from {@link String},
+ * keep the time of day, before and after calibration
+ */
+public class JodaChainsTest {
+
+    @Test
+    public void chainsKeepTheTimeOfDay() {
+        ConverterRegistry converters = ConverterRegistry.load();
+        assertChainsKeepTheTimeOfDay(converters);
+        converters.calibrate(100);
+        assertChainsKeepTheTimeOfDay(converters);
+    }
+
+    private static void assertChainsKeepTheTimeOfDay(ConverterRegistry converters) {
+        DateTime dateTime = new DateTime(2019, 9, 1, 13, 45, 30, 123, DateTimeZone.UTC);
+        Assertions.assertEquals("2019-09-01T13:45:30.123Z", converters.from(dateTime, String.class));
+        Assertions.assertEquals("2019-09-01T13:45:30.123", converters.from(new LocalDateTime(2019, 9, 1, 13, 45, 30, 123), String.class));
+        Assertions.assertEquals("2019-09-01", converters.from(new LocalDate(2019, 9, 1), String.class));
+        Assertions.assertEquals(dateTime, converters.from("2019-09-01T13:45:30.123Z", DateTime.class));
+        Assertions.assertEquals(new LocalDateTime(2019, 9, 1, 13, 45, 30, 123), converters.from("2019-09-01T13:45:30.123Z", LocalDateTime.class));
+        for (Class<?> from : new Class<?>[]{DateTime.class, LocalDateTime.class, LocalDate.class}) {
+            String explained = converters.explain(from, String.class);
+            Assertions.assertFalse(explained.contains("java.sql.Date"), explained);
+        }
+    }
+}
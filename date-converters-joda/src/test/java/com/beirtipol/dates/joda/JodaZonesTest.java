@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.joda;
+
+import com.beirtipol.dates.ConverterRegistry;
+import com.beirtipol.dates.ThreeTenDates;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Checks that a {@link DateTime} outside UTC keeps its instant and zone, in particular in the hour which happens twice
+ * when the clocks go back
+ */
+public class JodaZonesTest {
+    private static final DateTimeZone NEW_YORK = DateTimeZone.forID("America/New_York");
+
+    private ConverterRegistry converters;
+
+    @BeforeEach
+    public void setUp() {
+        converters = ConverterRegistry.load();
+    }
+
+    @Test
+    public void zones() {
+        Assertions.assertEquals(ThreeTenDates.UTC, JodaZones.toZoneId(DateTimeZone.UTC));
+        Assertions.assertEquals(ZoneId.of("America/New_York"), JodaZones.toZoneId(NEW_YORK));
+        Assertions.assertEquals(ZoneOffset.ofHoursMinutes(5, 30), JodaZones.toZoneId(DateTimeZone.forOffsetHoursMinutes(5, 30)));
+        Assertions.assertEquals(DateTimeZone.UTC, JodaZones.toDateTimeZone(ZoneOffset.UTC));
+        Assertions.assertEquals(DateTimeZone.UTC, JodaZones.toDateTimeZone(ThreeTenDates.UTC));
+        Assertions.assertEquals(NEW_YORK, JodaZones.toDateTimeZone(ZoneId.of("America/New_York")));
+        Assertions.assertEquals(DateTimeZone.forOffsetHours(1), JodaZones.toDateTimeZone(ZoneId.of("UTC+01:00")));
+    }
+
+    @Test
+    public void overlap() {
+        // 01:30 on 2019-11-03 happens at -04:00 and then at -05:00
+        DateTime earlier = new DateTime(2019, 11, 3, 1, 30, NEW_YORK).withEarlierOffsetAtOverlap();
+        DateTime later = earlier.withLaterOffsetAtOverlap();
+        Assertions.assertNotEquals(earlier.getMillis(), later.getMillis());
+        for (DateTime from : new DateTime[]{earlier, later}) {
+            ZonedDateTime zoned = converters.from(from, ZonedDateTime.class);
+            Assertions.assertEquals(ZoneId.of("America/New_York"), zoned.getZone());
+            Assertions.assertEquals(from.getMillis(), zoned.toInstant().toEpochMilli());
+            Assertions.assertEquals(from, converters.from(zoned, DateTime.class));
+
+            Assertions.assertEquals(from.getMillis(), converters.from(from, Date.class).getTime());
+            Assertions.assertEquals(from.getMillis(), converters.from(from, Timestamp.class).getTime());
+            Assertions.assertEquals(from.getMillis(), converters.toEpochMilli(from));
+            Assertions.assertEquals(LocalDateTime.of(2019, 11, 3, 1, 30), converters.from(from, LocalDateTime.class));
+            Assertions.assertEquals(LocalDate.of(2019, 11, 3), converters.from(from, LocalDate.class));
+            Assertions.assertEquals(LocalDate.of(2019, 11, 3).toEpochDay(), converters.toEpochDay(from));
+
+            Calendar calendar = converters.from(from, Calendar.class);
+            Assertions.assertEquals(TimeZone.getTimeZone("America/New_York"), calendar.getTimeZone());
+            Assertions.assertEquals(from.getMillis(), calendar.getTimeInMillis());
+            Assertions.assertEquals(from, converters.from(calendar, DateTime.class));
+
+            XMLGregorianCalendar xml = converters.from(from, XMLGregorianCalendar.class);
+            Assertions.assertEquals(from.getZone().getOffset(from.getMillis()) / 60_000, xml.getTimezone());
+            Assertions.assertEquals(1, xml.getHour());
+            Assertions.assertEquals(from.getMillis(), converters.from(xml, DateTime.class).getMillis());
+        }
+    }
+
+    @Test
+    public void calendarZone() {
+        Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone("Europe/Dublin"));
+        calendar.setTimeInMillis(1_567_296_123_456L);
+        DateTime dateTime = converters.from(calendar, DateTime.class);
+        Assertions.assertEquals(DateTimeZone.forID("Europe/Dublin"), dateTime.getZone());
+        Assertions.assertEquals(calendar.getTimeInMillis(), dateTime.getMillis());
+    }
+
+    @Test
+    public void localTypesAreUtc() {
+        Assertions.assertEquals(new DateTime(2019, 9, 1, 1, 2, 3, 456, DateTimeZone.UTC), converters.from(LocalDateTime.of(2019, 9, 1, 1, 2, 3, 456_000_000), DateTime.class));
+        Assertions.assertEquals(new DateTime(2019, 9, 1, 0, 0, DateTimeZone.UTC), converters.from(new org.joda.time.LocalDate(2019, 9, 1), DateTime.class));
+        Assertions.assertEquals(ZonedDateTime.of(2019, 9, 1, 1, 2, 3, 456_000_000, ThreeTenDates.UTC), converters.from(new org.joda.time.LocalDateTime(2019, 9, 1, 1, 2, 3, 456), ZonedDateTime.class));
+    }
+
+    @Test
+    public void localTypesInAnotherZone() {
+        // The Joda local types follow the zone of the registry, just as LocalDate and LocalDateTime do
+        ZoneId london = ZoneId.of("Europe/London");
+        converters.setZone(london);
+        LocalDate date = LocalDate.of(2019, 9, 1);
+        LocalDateTime dateTime = LocalDateTime.of(2019, 9, 1, 10, 0);
+        org.joda.time.LocalDate jodaDate = new org.joda.time.LocalDate(2019, 9, 1);
+        org.joda.time.LocalDateTime jodaDateTime = new org.joda.time.LocalDateTime(2019, 9, 1, 10, 0);
+
+        Date startOfDay = converters.from(date, Date.class);
+        Assertions.assertEquals(startOfDay, converters.from(jodaDate, Date.class));
+        Assertions.assertEquals(startOfDay.getTime(), converters.toEpochMilli(jodaDate));
+        Assertions.assertEquals(startOfDay.getTime(), converters.from(jodaDate, Calendar.class).getTimeInMillis());
+        Assertions.assertEquals(date.atStartOfDay(london), converters.from(jodaDate, ZonedDateTime.class));
+        Assertions.assertEquals(jodaDate, converters.from(startOfDay, org.joda.time.LocalDate.class));
+        Assertions.assertEquals(jodaDate, converters.from(new java.sql.Date(startOfDay.getTime()), org.joda.time.LocalDate.class));
+
+        Date instant = converters.from(dateTime, Date.class);
+        Assertions.assertEquals(instant, converters.from(jodaDateTime, Date.class));
+        Assertions.assertEquals(60, converters.from(jodaDateTime, XMLGregorianCalendar.class).getTimezone());
+        Assertions.assertEquals(jodaDateTime, converters.from(instant, org.joda.time.LocalDateTime.class));
+        Assertions.assertEquals(jodaDateTime, converters.fromEpochMilli(instant.getTime(), org.joda.time.LocalDateTime.class));
+
+        DateTimeZone jodaLondon = DateTimeZone.forID("Europe/London");
+        Assertions.assertEquals(new DateTime(2019, 9, 1, 0, 0, jodaLondon), converters.from(date, DateTime.class));
+        Assertions.assertEquals(new DateTime(2019, 9, 1, 0, 0, jodaLondon), converters.from(jodaDate, DateTime.class));
+        Assertions.assertEquals(new DateTime(2019, 9, 1, 10, 0, jodaLondon), converters.from(dateTime, DateTime.class));
+        Assertions.assertEquals(new DateTime(2019, 9, 1, 10, 0, jodaLondon), converters.from(jodaDateTime, DateTime.class));
+        Assertions.assertEquals(new DateTime(2019, 9, 1, 10, 0, jodaLondon), converters.from(instant, DateTime.class));
+    }
+}
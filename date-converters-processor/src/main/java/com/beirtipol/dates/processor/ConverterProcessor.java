@@ -0,0 +1,350 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates a {@code ConverterProvider} for every {@code @Converter} method in a compilation, so that
+ * {@code ConverterRegistry.load()} registers them with plain method calls instead of reflection. The name of the
+ * generated class is given with {@code -Adateconverters.provider=<fully qualified class name>} and a
+ * {@code META-INF/services} entry is written for it.
+ * <p>
+ * The build fails if two methods declare the same 'from' and 'to' pair, as only one of them could ever be used, or if
+ * a method does not return the functional interface its pair needs: {@code Function} between objects,
+ * {@code ToLongFunction} 'to' {@code long.class}, {@code DoubleFunction} 'from' {@code double.class} and so on.
+ * <p>
+ * A class declaring {@code @Converter} methods must be public with a public constructor which either takes no
+ * arguments or takes a {@code ConverterRegistry}, so it can delegate to other converters.
+ *
+ * @author beirtipol@gmail.com
+ */
+@SupportedAnnotationTypes(ConverterProcessor.CONVERTER)
+@SupportedOptions(ConverterProcessor.PROVIDER_OPTION)
+public class ConverterProcessor extends AbstractProcessor {
+    public static final String PROVIDER_OPTION = "dateconverters.provider";
+
+    static final String CONVERTER = "com.beirtipol.dates.Converter";
+    static final String REGISTRY  = "com.beirtipol.dates.ConverterRegistry";
+    static final String PROVIDER  = "com.beirtipol.dates.ConverterProvider";
+    static final String SERVICES  = "META-INF/services/" + PROVIDER;
+
+    private static final String FUNCTION_PACKAGE = "java.util.function.";
+
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (annotations.isEmpty() || generated) {
+            return false;
+        }
+        generated = true;
+
+        Map<TypeElement, List<ConverterMethod>> byClass = new TreeMap<>(Comparator.comparing(type -> type.getQualifiedName().toString()));
+        Map<String, ExecutableElement> pairs = new HashMap<>();
+        boolean valid = true;
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotations.iterator().next())) {
+            ExecutableElement method = (ExecutableElement) element;
+            AnnotationMirror mirror = converterMirror(method);
+            ConverterMethod converter = new ConverterMethod(method, classes(mirror, "from"), classes(mirror, "to").get(0));
+            valid &= checkMethod(converter, mirror);
+            for (TypeMirror from : converter.froms) {
+                String pair = String.format("from %s to %s", from, converter.to);
+                ExecutableElement previous = pairs.putIfAbsent(pair, method);
+                if (previous != null) {
+                    error(method, mirror, "Duplicate converter %s, already declared by %s.%s()", pair, previous.getEnclosingElement(), previous.getSimpleName());
+                    valid = false;
+                }
+            }
+            byClass.computeIfAbsent((TypeElement) method.getEnclosingElement(), type -> new ArrayList<>()).add(converter);
+        }
+
+        Map<TypeElement, Boolean> takesRegistry = new HashMap<>();
+        for (TypeElement type : byClass.keySet()) {
+            Boolean constructor = checkClass(type);
+            if (constructor == null) {
+                valid = false;
+            } else {
+                takesRegistry.put(type, constructor);
+            }
+        }
+
+        String provider = processingEnv.getOptions().get(PROVIDER_OPTION);
+        if (valid && provider == null) {
+            error(byClass.keySet().iterator().next(), null, "Set -A%s=<fully qualified class name> to name the generated %s", PROVIDER_OPTION, PROVIDER);
+            valid = false;
+        }
+        if (valid) {
+            write(provider, byClass, takesRegistry);
+        }
+        return false;
+    }
+
+    private AnnotationMirror converterMirror(ExecutableElement method) {
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(CONVERTER)) {
+                return mirror;
+            }
+        }
+        throw new IllegalStateException("No @Converter on " + method);
+    }
+
+    /**
+     * @return the classes of an annotation attribute, which may be a single class or an array of them
+     */
+    @SuppressWarnings("unchecked")
+    private List<TypeMirror> classes(AnnotationMirror mirror, String name) {
+        List<TypeMirror> result = new ArrayList<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                Object value = entry.getValue().getValue();
+                if (value instanceof List) {
+                    for (AnnotationValue element : (List<? extends AnnotationValue>) value) {
+                        result.add((TypeMirror) element.getValue());
+                    }
+                } else {
+                    result.add((TypeMirror) value);
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean checkMethod(ConverterMethod converter, AnnotationMirror mirror) {
+        ExecutableElement method = converter.method;
+        if (!method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.STATIC) || !method.getParameters().isEmpty()) {
+            error(method, mirror, "A @Converter method must be public, not static and take no arguments");
+            return false;
+        }
+        if (converter.froms.isEmpty()) {
+            error(method, mirror, "A @Converter must declare at least one 'from' class");
+            return false;
+        }
+
+        boolean primitiveFrom = converter.froms.get(0).getKind().isPrimitive();
+        for (TypeMirror from : converter.froms) {
+            if (from.getKind().isPrimitive() != primitiveFrom) {
+                error(method, mirror, "A @Converter cannot mix primitive and object 'from' classes");
+                return false;
+            }
+        }
+        boolean primitiveTo = converter.to.getKind().isPrimitive();
+        if (primitiveFrom && primitiveTo) {
+            error(method, mirror, "A @Converter cannot be between two primitives");
+            return false;
+        }
+
+        String expected;
+        if (primitiveTo) {
+            expected = "To" + capitalize(converter.to.getKind()) + "Function";
+        } else if (primitiveFrom) {
+            if (converter.froms.size() != 1) {
+                error(method, mirror, "A @Converter from a primitive must declare exactly one 'from' class");
+                return false;
+            }
+            expected = capitalize(converter.froms.get(0).getKind()) + "Function";
+        } else {
+            expected = "Function";
+        }
+        TypeElement expectedType = processingEnv.getElementUtils().getTypeElement(FUNCTION_PACKAGE + expected);
+        Types types = processingEnv.getTypeUtils();
+        if (expectedType == null) {
+            error(method, mirror, "There is no java.util.function.%s for this @Converter to return", expected);
+            return false;
+        }
+        TypeMirror returnType = method.getReturnType();
+        if (!types.isAssignable(types.erasure(returnType), types.erasure(expectedType.asType()))) {
+            error(method, mirror, "A @Converter %s must return a %s%s, not %s", pairName(converter), FUNCTION_PACKAGE, expected, returnType);
+            return false;
+        }
+
+        // The type arguments can only be checked when the declared return type is the interface itself
+        if (returnType.getKind() == TypeKind.DECLARED && types.isSameType(types.erasure(returnType), types.erasure(expectedType.asType()))) {
+            List<? extends TypeMirror> arguments = ((DeclaredType) returnType).getTypeArguments();
+            if (!arguments.isEmpty()) {
+                if (!primitiveFrom) {
+                    TypeMirror input = arguments.get(0);
+                    for (TypeMirror from : converter.froms) {
+                        if (input.getKind() == TypeKind.DECLARED && !types.isAssignable(types.erasure(from), types.erasure(input))) {
+                            error(method, mirror, "A @Converter from %s cannot return a %s", from, returnType);
+                            return false;
+                        }
+                    }
+                }
+                if (!primitiveTo) {
+                    TypeMirror output = arguments.get(arguments.size() - 1);
+                    if (output.getKind() == TypeKind.DECLARED && !types.isAssignable(types.erasure(output), types.erasure(converter.to))) {
+                        error(method, mirror, "A @Converter to %s cannot return a %s", converter.to, returnType);
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return whether the class is created with a {@code ConverterRegistry}, or null if it cannot be created
+     */
+    private Boolean checkClass(TypeElement type) {
+        boolean topLevel = type.getEnclosingElement().getKind() == ElementKind.PACKAGE;
+        if (type.getKind() != ElementKind.CLASS || !type.getModifiers().contains(Modifier.PUBLIC) || type.getModifiers().contains(Modifier.ABSTRACT)
+                || (!topLevel && !type.getModifiers().contains(Modifier.STATIC))) {
+            error(type, null, "A class declaring @Converter methods must be a public, concrete, top level or static class");
+            return null;
+        }
+        boolean noArguments = false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (!constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                continue;
+            }
+            if (constructor.getParameters().isEmpty()) {
+                noArguments = true;
+            } else if (constructor.getParameters().size() == 1 && processingEnv.getTypeUtils().erasure(constructor.getParameters().get(0).asType()).toString().equals(REGISTRY)) {
+                return true;
+            }
+        }
+        if (!noArguments) {
+            error(type, null, "A class declaring @Converter methods must have a public constructor taking no arguments or a %s", REGISTRY);
+            return null;
+        }
+        return false;
+    }
+
+    private void write(String provider, Map<TypeElement, List<ConverterMethod>> byClass, Map<TypeElement, Boolean> takesRegistry) {
+        int dot = provider.lastIndexOf('.');
+        String packageName = dot < 0 ? null : provider.substring(0, dot);
+        String simpleName = provider.substring(dot + 1);
+        Element[] originating = byClass.keySet().toArray(new Element[0]);
+        try {
+            JavaFileObject source = processingEnv.getFiler().createSourceFile(provider, originating);
+            try (PrintWriter out = new PrintWriter(source.openWriter())) {
+                if (packageName != null) {
+                    out.printf("package %s;%n%n", packageName);
+                }
+                out.printf("/**%n * Registers every {@code @Converter} method of this module with a%n * {@link %s}. Generated by%n * {@link %s}, do not edit.%n */%n", REGISTRY, getClass().getName());
+                if (processingEnv.getElementUtils().getTypeElement("javax.annotation.processing.Generated") != null) {
+                    out.printf("@javax.annotation.processing.Generated(\"%s\")%n", getClass().getName());
+                }
+                out.printf("public final class %s implements %s {%n%n", simpleName, PROVIDER);
+                out.printf("    @Override%n    public void registerConverters(%s registry) {%n", REGISTRY);
+                Set<String> names = new HashSet<>();
+                for (Map.Entry<TypeElement, List<ConverterMethod>> entry : byClass.entrySet()) {
+                    TypeElement type = entry.getKey();
+                    String name = variableName(type, names);
+                    out.printf("        %1$s %2$s = new %1$s(%3$s);%n", type.getQualifiedName(), name, takesRegistry.get(type) ? "registry" : "");
+                    for (ConverterMethod converter : entry.getValue()) {
+                        out.printf("        register(registry, %s.%s(), %s.class", name, converter.method.getSimpleName(), classLiteral(converter.to));
+                        for (TypeMirror from : converter.froms) {
+                            out.printf(", %s.class", classLiteral(from));
+                        }
+                        out.printf(");%n");
+                    }
+                }
+                out.printf("    }%n%n");
+                out.printf("    private static void register(%s registry, Object converter, Class<?> to, Class<?>... froms) {%n", REGISTRY);
+                out.printf("        for (Class<?> from : froms) {%n            registry.register(from, to, converter);%n        }%n    }%n}%n");
+            }
+
+            FileObject services = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICES, originating);
+            try (Writer out = services.openWriter()) {
+                out.write(provider);
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + provider + ": " + e);
+        }
+    }
+
+    private String classLiteral(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private static String variableName(TypeElement type, Set<String> taken) {
+        String simple = type.getSimpleName().toString();
+        String base = Character.toLowerCase(simple.charAt(0)) + simple.substring(1);
+        String name = base;
+        for (int i = 2; !taken.add(name) || name.equals("registry"); i++) {
+            name = base + i;
+        }
+        return name;
+    }
+
+    private static String capitalize(TypeKind kind) {
+        String name = kind.name().toLowerCase();
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String pairName(ConverterMethod converter) {
+        return String.format("from %s to %s", converter.froms.size() == 1 ? converter.froms.get(0) : converter.froms, converter.to);
+    }
+
+    private void error(Element element, AnnotationMirror mirror, String format, Object... args) {
+        Messager messager = processingEnv.getMessager();
+        messager.printMessage(Diagnostic.Kind.ERROR, String.format(format, args), element, mirror);
+    }
+
+    private static final class ConverterMethod {
+        final ExecutableElement method;
+        final List<TypeMirror>  froms;
+        final TypeMirror        to;
+
+        ConverterMethod(ExecutableElement method, List<TypeMirror> froms, TypeMirror to) {
+            this.method = method;
+            this.froms  = froms;
+            this.to     = to;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.beirtipol.dates.processor;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles small sources against stand-ins for the core API with {@link ConverterProcessor} and checks the outcome.
+ */
+public class ConverterProcessorTest {
+    private static final String API =
+            "package com.beirtipol.dates;\n" +
+            "import java.lang.annotation.*;\n" +
+            "@Retention(RetentionPolicy.RUNTIME) @Target(ElementType.METHOD)\n" +
+            "public @interface Converter { Class<?>[] from(); Class<?> to(); }\n";
+    private static final String REGISTRY =
+            "package com.beirtipol.dates;\n" +
+            "public class ConverterRegistry { public void register(Class<?> from, Class<?> to, Object converter) {} }\n";
+    private static final String PROVIDER =
+            "package com.beirtipol.dates;\n" +
+            "public interface ConverterProvider { void registerConverters(ConverterRegistry registry); }\n";
+
+    @TempDir
+    Path output;
+
+    @Test
+    public void generatesProvider() throws IOException {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(true,
+                "package test;\n" +
+                "import com.beirtipol.dates.*;\n" +
+                "import java.util.function.*;\n" +
+                "public class Converters {\n" +
+                "    public Converters(ConverterRegistry registry) {}\n" +
+                "    @Converter(from = {Integer.class, Long.class}, to = String.class)\n" +
+                "    public Function<Number, String> NumberToString() { return String::valueOf; }\n" +
+                "    @Converter(from = Long.class, to = long.class)\n" +
+                "    public ToLongFunction<Long> LongToEpochMilli() { return Long::longValue; }\n" +
+                "    @Converter(from = long.class, to = Long.class)\n" +
+                "    public LongFunction<Long> EpochMilliToLong() { return Long::valueOf; }\n" +
+                "    @Converter(from = double.class, to = Double.class)\n" +
+                "    public DoubleFunction<Double> SerialToDouble() { return Double::valueOf; }\n" +
+                "    @Converter(from = Double.class, to = double.class)\n" +
+                "    public ToDoubleFunction<Double> DoubleToSerial() { return Double::doubleValue; }\n" +
+                "}\n");
+        Assertions.assertEquals(Collections.emptyList(), errors);
+
+        String generated = Files.readString(output.resolve("test/GeneratedProvider.java"));
+        Assertions.assertTrue(generated.contains("new test.Converters(registry)"), generated);
+        Assertions.assertTrue(generated.contains("register(registry, converters.NumberToString(), java.lang.String.class, java.lang.Integer.class, java.lang.Long.class);"), generated);
+        Assertions.assertTrue(generated.contains("register(registry, converters.LongToEpochMilli(), long.class, java.lang.Long.class);"), generated);
+        Assertions.assertTrue(generated.contains("register(registry, converters.SerialToDouble(), java.lang.Double.class, double.class);"), generated);
+        Assertions.assertEquals("test.GeneratedProvider", Files.readString(output.resolve(ConverterProcessor.SERVICES)).trim());
+    }
+
+    @Test
+    public void duplicatePair() {
+        assertError("Duplicate converter from java.lang.Integer to java.lang.String",
+                "    @Converter(from = Integer.class, to = String.class)\n" +
+                "    public Function<Integer, String> first() { return String::valueOf; }\n" +
+                "    @Converter(from = {Long.class, Integer.class}, to = String.class)\n" +
+                "    public Function<Number, String> second() { return String::valueOf; }\n");
+    }
+
+    @Test
+    public void wrongFunctionalInterface() {
+        assertError("must return a java.util.function.ToLongFunction",
+                "    @Converter(from = Integer.class, to = long.class)\n" +
+                "    public Function<Integer, Long> IntegerToEpochMilli() { return Integer::longValue; }\n");
+    }
+
+    @Test
+    public void wrongDoubleFunctionalInterface() {
+        assertError("must return a java.util.function.DoubleFunction",
+                "    @Converter(from = double.class, to = Integer.class)\n" +
+                "    public Function<Double, Integer> SerialToInteger() { return Double::intValue; }\n");
+    }
+
+    @Test
+    public void wrongTypeArguments() {
+        assertError("A @Converter from java.lang.String cannot return",
+                "    @Converter(from = String.class, to = Integer.class)\n" +
+                "    public Function<Integer, Integer> IntegerToInteger() { return from -> from; }\n");
+    }
+
+    @Test
+    public void notPublic() {
+        assertError("must be public",
+                "    @Converter(from = Integer.class, to = Integer.class)\n" +
+                "    Function<Integer, Integer> IntegerToInteger() { return from -> from; }\n");
+    }
+
+    @Test
+    public void noUsableConstructor() {
+        assertError("must have a public constructor",
+                "    public Converters(String name) {}\n" +
+                "    @Converter(from = Integer.class, to = Integer.class)\n" +
+                "    public Function<Integer, Integer> IntegerToInteger() { return from -> from; }\n");
+    }
+
+    @Test
+    public void missingOption() throws IOException {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(false, converters(
+                "    @Converter(from = Integer.class, to = Integer.class)\n" +
+                "    public Function<Integer, Integer> IntegerToInteger() { return from -> from; }\n"));
+        Assertions.assertTrue(errors.get(0).getMessage(null).contains(ConverterProcessor.PROVIDER_OPTION), errors.toString());
+    }
+
+    private void assertError(String expected, String body) {
+        try {
+            List<Diagnostic<? extends JavaFileObject>> errors = compile(true, converters(body));
+            Assertions.assertFalse(errors.isEmpty(), "Expected an error containing: " + expected);
+            Assertions.assertTrue(errors.get(0).getMessage(null).contains(expected), errors.toString());
+        } catch (IOException e) {
+            Assertions.fail(e);
+        }
+    }
+
+    private static String converters(String body) {
+        return "package test;\n" +
+               "import com.beirtipol.dates.*;\n" +
+               "import java.util.function.*;\n" +
+               "public class Converters {\n" + body + "}\n";
+    }
+
+    /**
+     * @return the errors reported while compiling 'source'
+     */
+    private List<Diagnostic<? extends JavaFileObject>> compile(boolean withOption, String source) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, null)) {
+            files.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(output.toFile()));
+            files.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singletonList(output.toFile()));
+            List<String> options = new ArrayList<>(Arrays.asList("-proc:only", "-Xlint:-processing"));
+            if (withOption) {
+                options.add("-A" + ConverterProcessor.PROVIDER_OPTION + "=test.GeneratedProvider");
+            }
+            List<JavaFileObject> sources = Arrays.asList(source("com/beirtipol/dates/Converter", API), source("com/beirtipol/dates/ConverterRegistry", REGISTRY),
+                    source("com/beirtipol/dates/ConverterProvider", PROVIDER), source("test/Converters", source));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics, options, null, sources);
+            task.setProcessors(Collections.singletonList(new ConverterProcessor()));
+            task.call();
+        }
+        return diagnostics.getDiagnostics().stream().filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR).collect(Collectors.toList());
+    }
+
+    private static JavaFileObject source(String path, String content) {
+        return new SimpleJavaFileObject(URI.create("string:///" + path + JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return content;
+            }
+        };
+    }
+}
@@ -18,108 +18,62 @@
 package com.mydate.dates;
 
 import com.beirtipol.dates.Converter;
-import com.beirtipol.dates.Converters;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.beirtipol.dates.ConverterRegistry;
+import com.beirtipol.dates.ThreeTenDates;
 import org.springframework.stereotype.Component;
 
-import javax.xml.datatype.XMLGregorianCalendar;
-import java.sql.Timestamp;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZonedDateTime;
-import java.util.Calendar;
-import java.util.Date;
 import java.util.function.Function;
-
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Only converters to and from {@link LocalDate}, and to and from epoch days or milliseconds, are needed. Conversions
+ * to and from every other type are planned through {@link LocalDate} by the {@link ConverterRegistry}, which is
+ * registered as a hub for {@link MyDate} as it has no time of day to lose.
+ */
 @Component
 public class MyDateConverters {
 
-    @Autowired
-    private Converters converters;
+    public MyDateConverters(ConverterRegistry registry) {
+        registry.registerHub(MyDate.class, LocalDate.class);
+    }
 
     @Converter(from = MyDate.class, to = LocalDate.class)
     public Function<MyDate, LocalDate> MyDateToLocalDate() {
         return from -> LocalDate.of(from.getYear(), from.getMonth(), from.getDay());
     }
 
-    @Converter(from = MyDate.class, to = LocalDateTime.class)
-    public Function<MyDate, LocalDateTime> MyDateToLocalDateTime() {
-        return from -> converters.from(MyDateToLocalDate().apply(from), LocalDateTime.class);
-    }
-
-    @Converter(from = MyDate.class, to = ZonedDateTime.class)
-    public Function<MyDate, ZonedDateTime> MyDateToZonedDateTime() {
-        return from -> converters.from(MyDateToLocalDate().apply(from), ZonedDateTime.class);
-    }
-
-    @Converter(from = MyDate.class, to = java.util.Date.class)
-    public Function<MyDate, java.util.Date> MyDateToUtilDate() {
-        return from -> converters.from(MyDateToLocalDate().apply(from), java.util.Date.class);
-    }
-
-    @Converter(from = MyDate.class, to = java.sql.Date.class)
-    public Function<MyDate, java.sql.Date> MyDateToSQLDate() {
-        return from -> converters.from(MyDateToLocalDate().apply(from), java.sql.Date.class);
-    }
-
-    @Converter(from = MyDate.class, to = XMLGregorianCalendar.class)
-    public Function<MyDate, XMLGregorianCalendar> MyDateToXMLDate() {
-        return from -> converters.from(MyDateToLocalDate().apply(from), XMLGregorianCalendar.class);
-    }
-
-    @Converter(from = MyDate.class, to = Timestamp.class)
-    public Function<MyDate, Timestamp> MyDateToSQLTimestamp() {
-        return from -> converters.from(MyDateToLocalDate().apply(from), Timestamp.class);
-    }
-
-    @Converter(from = MyDate.class, to = Calendar.class)
-    public Function<MyDate, Calendar> MyDateToCalendar() {
-        return from -> converters.from(MyDateToLocalDate().apply(from), Calendar.class);
-    }
-
-    @Converter(from = Calendar.class, to = MyDate.class)
-    public Function<Calendar, MyDate> CalendarToMyDate() {
-        return from -> LocalDateToMyDate().apply(converters.from(from, LocalDate.class));
-    }
-
-    @Converter(from = XMLGregorianCalendar.class, to = MyDate.class)
-    public Function<XMLGregorianCalendar, MyDate> XMLDateToMyDate() {
-        return from -> new MyDate(from.getYear(), from.getMonth(), from.getDay());
-    }
-
     @Converter(from = LocalDate.class, to = MyDate.class)
     public Function<LocalDate, MyDate> LocalDateToMyDate() {
         return from -> new MyDate(from.getYear(), from.getMonthValue(), from.getDayOfMonth());
     }
 
-    @Converter(from = ZonedDateTime.class, to = MyDate.class)
-    public Function<ZonedDateTime, MyDate> ZonedDateTimeToMyDate() {
-        return from -> new MyDate(from.getYear(), from.getMonthValue(), from.getDayOfMonth());
-    }
-
-    @Converter(from = LocalDateTime.class, to = MyDate.class)
-    public Function<LocalDateTime, MyDate> LocalDateTimeToMyDate() {
-        return from -> new MyDate(from.getYear(), from.getMonthValue(), from.getDayOfMonth());
+    @Converter(from = MyDate.class, to = MyDate.class)
+    public Function<MyDate, MyDate> MyDateToMyDate() {
+        return from -> from;
     }
 
-    @Converter(from = java.util.Date.class, to = MyDate.class)
-    public Function<Date, MyDate> UtilDateToMyDate() {
-        return from -> LocalDateToMyDate().apply(converters.from(from, LocalDate.class));
+    @Converter(from = MyDate.class, to = long.class)
+    public ToLongFunction<MyDate> MyDateToEpochMilli() {
+        return from -> MyDateToEpochDay().applyAsInt(from) * ThreeTenDates.MILLIS_PER_DAY;
     }
 
-    @Converter(from = java.sql.Date.class, to = MyDate.class)
-    public Function<java.sql.Date, MyDate> SQLDateToMyDate() {
-        return from -> LocalDateToMyDate().apply(converters.from(from, LocalDate.class));
+    @Converter(from = MyDate.class, to = int.class)
+    public ToIntFunction<MyDate> MyDateToEpochDay() {
+        return from -> (int) ThreeTenDates.toEpochDay(from.getYear(), from.getMonth(), from.getDay());
     }
 
-    @Converter(from = Timestamp.class, to = MyDate.class)
-    public Function<Timestamp, MyDate> SQLTimestampToMyDate() {
-        return from -> LocalDateToMyDate().apply(converters.from(from, LocalDate.class));
+    @Converter(from = long.class, to = MyDate.class)
+    public LongFunction<MyDate> EpochMilliToMyDate() {
+        return from -> EpochDayToMyDate().apply((int) Math.floorDiv(from, ThreeTenDates.MILLIS_PER_DAY));
     }
 
-    @Converter(from = MyDate.class, to = MyDate.class)
-    public Function<MyDate, MyDate> MyDateToMyDate() {
-        return from -> from;
+    @Converter(from = int.class, to = MyDate.class)
+    public IntFunction<MyDate> EpochDayToMyDate() {
+        return from -> LocalDateToMyDate().apply(LocalDate.ofEpochDay(from));
     }
 
 }
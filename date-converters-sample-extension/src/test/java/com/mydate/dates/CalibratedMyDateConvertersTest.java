@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2020  https://github.com/beirtipol
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.mydate.dates;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.annotation.DirtiesContext;
+
+/**
+ * Most conversions to and from {@link MyDate} are planned, so check they still give the same results when chosen by
+ * cost rather than by length. The calibrated registry is thrown away afterwards so that {@link MyDateConvertersTest}
+ * keeps checking the uncalibrated order.
+ */
+@DirtiesContext
+public class CalibratedMyDateConvertersTest extends MyDateConvertersTest {
+    @BeforeAll
+    public void calibrate() {
+        registry.calibrate(100);
+    }
+}